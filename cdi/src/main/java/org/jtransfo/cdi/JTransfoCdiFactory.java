@@ -11,19 +11,25 @@ package org.jtransfo.cdi;
 import org.jtransfo.ConfigurableJTransfo;
 import org.jtransfo.ConvertInterceptor;
 import org.jtransfo.JTransfo;
+import org.jtransfo.JTransfoException;
 import org.jtransfo.JTransfoFactory;
 import org.jtransfo.ObjectFinder;
 import org.jtransfo.ObjectReplacer;
+import org.jtransfo.PrewarmReport;
 import org.jtransfo.TypeConverter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.inject.Instance;
 import javax.enterprise.inject.Produces;
 import javax.inject.Inject;
+import javax.inject.Singleton;
 
 /**
  * CDI implementation of {@link org.jtransfo.JTransfo}.
@@ -31,6 +37,8 @@ import javax.inject.Inject;
 @ApplicationScoped
 public class JTransfoCdiFactory {
 
+    private final Logger log = LoggerFactory.getLogger(JTransfoCdiFactory.class);
+
     @Inject
     private Instance<ObjectFinder> objectFinders;
 
@@ -46,13 +54,22 @@ public class JTransfoCdiFactory {
     @Inject
     private Instance<ObjectReplacer> objectReplacers;
 
+    @Inject
+    private Instance<JTransfoExtension> extension;
+
     /**
      * Get {@link JTransfo} instance with object finders, object replacers, convert interceptors and
      * type converters from CDI configuration.
+     * <p>
+     * One instance is shared by the application, so all beans use the same converters. The converters for the
+     * transfer objects which were discovered by {@link JTransfoExtension} are built when the instance is created, at
+     * the end of the deployment.
+     * </p>
      *
      * @return {@link JTransfo} instance
      */
     @Produces
+    @Singleton // no client proxy needed, unlike a normal scope
     public JTransfo get() {
         ConfigurableJTransfo jTransfo = JTransfoFactory.get();
         if (null != typeConverters) {
@@ -88,6 +105,13 @@ public class JTransfoCdiFactory {
             jTransfo.getObjectReplacers().addAll(orderedInterceptors);
             jTransfo.updateObjectReplacers();
         }
+
+        if (null != extension && !extension.isUnsatisfied()) {
+            PrewarmReport report = jTransfo.prewarm(extension.get().getToClasses());
+            for (Map.Entry<Class<?>, JTransfoException> failure : report.getFailures().entrySet()) {
+                log.warn("Cannot build converter for {}.", failure.getKey().getName(), failure.getValue());
+            }
+        }
         return jTransfo;
     }
 
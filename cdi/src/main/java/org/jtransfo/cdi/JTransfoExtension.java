@@ -0,0 +1,83 @@
+/*
+ * This file is part of jTransfo, a library for converting to and from transfer objects.
+ * Copyright (c) PROGS bvba, Belgium
+ *
+ * The program is available in open source according to the Apache License, Version 2.0.
+ * For full licensing details, see LICENSE.txt in the project root.
+ */
+
+package org.jtransfo.cdi;
+
+import org.jtransfo.DomainClass;
+import org.jtransfo.JTransfo;
+
+import java.lang.annotation.Annotation;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import javax.enterprise.event.Observes;
+import javax.enterprise.inject.spi.AfterDeploymentValidation;
+import javax.enterprise.inject.spi.AnnotatedType;
+import javax.enterprise.inject.spi.Bean;
+import javax.enterprise.inject.spi.BeanManager;
+import javax.enterprise.inject.spi.Extension;
+import javax.enterprise.inject.spi.ProcessAnnotatedType;
+
+/**
+ * CDI extension which collects the transfer objects (classes annotated with {@link DomainClass}) which are discovered
+ * during deployment. {@link JTransfoCdiFactory} builds the converters for these classes when the shared
+ * {@link JTransfo} instance is created, which is forced at the end of the deployment.
+ */
+public class JTransfoExtension implements Extension {
+
+    private final Set<Class<?>> toClasses = Collections.synchronizedSet(new LinkedHashSet<Class<?>>());
+
+    /**
+     * Remember the type when it is a transfer object.
+     *
+     * @param event processed type
+     * @param <T> type
+     */
+    public <T> void processAnnotatedType(@Observes ProcessAnnotatedType<T> event) {
+        AnnotatedType<T> type = event.getAnnotatedType();
+        if (isTo(type)) {
+            toClasses.add(type.getJavaClass());
+        }
+    }
+
+    /**
+     * Create the shared {@link JTransfo} instance from {@link JTransfoCdiFactory}, so the converters are built during
+     * deployment instead of at the first injection.
+     *
+     * @param event deployment validated
+     * @param beanManager bean manager
+     */
+    public void afterDeploymentValidation(@Observes AfterDeploymentValidation event, BeanManager beanManager) {
+        for (Bean<?> bean : beanManager.getBeans(JTransfo.class)) {
+            if (JTransfoCdiFactory.class == bean.getBeanClass()) {
+                beanManager.getReference(bean, JTransfo.class, beanManager.createCreationalContext(bean));
+            }
+        }
+    }
+
+    private boolean isTo(AnnotatedType<?> type) {
+        for (Annotation annotation : type.getAnnotations()) {
+            if (annotation instanceof DomainClass ||
+                    annotation.annotationType().isAnnotationPresent(DomainClass.class)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get the transfer object classes which were discovered.
+     *
+     * @return transfer object classes
+     */
+    public Set<Class<?>> getToClasses() {
+        synchronized (toClasses) {
+            return Collections.unmodifiableSet(new LinkedHashSet<>(toClasses));
+        }
+    }
+}
@@ -25,6 +25,8 @@ import org.junit.rules.ExpectedException;
 import org.junit.runner.RunWith;
 
 import java.util.Date;
+import javax.enterprise.inject.Instance;
+import javax.enterprise.inject.spi.Extension;
 import javax.inject.Inject;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -37,6 +39,12 @@ public class JTransfoCdiFactoryCustomizedTest {
     @Inject
     private JTransfo jTransfo;
 
+    @Inject
+    private JTransfoExtension extension;
+
+    @Inject
+    private Instance<JTransfo> jTransfoInstance;
+
     @Rule
     public ExpectedException exception = ExpectedException.none();
 
@@ -45,11 +53,22 @@ public class JTransfoCdiFactoryCustomizedTest {
         JavaArchive jar = ShrinkWrap.create(JavaArchive.class)
                 .addPackage("org.jtransfo.cdi")
                 .addPackage("org.jtransfo.cdi.domain")
+                .addAsServiceProvider(Extension.class, JTransfoExtension.class)
                 .addAsManifestResource(EmptyAsset.INSTANCE, "beans.xml");
         System.out.println(jar.toString(true));
         return jar;
     }
 
+    @Test
+    public void testDiscoveredToClasses() throws Exception {
+        assertThat(extension.getToClasses()).containsOnly(PersonTo.class);
+    }
+
+    @Test
+    public void testSharedInstance() throws Exception {
+        assertThat(jTransfoInstance.get()).isSameAs(jTransfo);
+    }
+
     @Test
     public void  testWithFinderAndConverterAndInterceptorsToDomain() throws Exception {
         PersonTo to = new PersonTo();
@@ -19,6 +19,7 @@ import org.jtransfo.object.SimpleExtendedTo;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
+import javax.enterprise.inject.spi.Extension;
 import javax.inject.Inject;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -33,6 +34,7 @@ public class JTransfoCdiFactoryDefaultTest {
     public static JavaArchive createDeployment() {
         JavaArchive jar = ShrinkWrap.create(JavaArchive.class)
                 .addPackage("org.jtransfo.cdi")
+                .addAsServiceProvider(Extension.class, JTransfoExtension.class)
                 .addAsManifestResource(EmptyAsset.INSTANCE, "beans.xml");
         System.out.println(jar.toString(true));
         return jar;
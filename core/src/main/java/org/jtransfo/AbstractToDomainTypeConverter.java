@@ -62,6 +62,9 @@ public abstract class AbstractToDomainTypeConverter implements TypeConverter<Obj
             return null;
         }
         Class<?> realToType = jTransfo.getToSubType(toField.getType(), domainObject); // type cfr @DomainClassDelegate
+        if (null != reflectionHelper.getToCreator(realToType)) {
+            return jTransfo.convertTo(domainObject, realToType, tags); // created using constructor or factory
+        }
         try {
             return jTransfo.convert(domainObject, reflectionHelper.newInstance(realToType), tags);
         } catch (InstantiationException ie) {
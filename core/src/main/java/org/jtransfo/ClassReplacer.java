@@ -12,6 +12,10 @@ package org.jtransfo;
  * Allow classes to be replaced before being used for conversion. This can be useful to swap interfaces interfaces to
  * real objects in domain mappings. This is applied to the class specified in {@link DomainClass} annotations and to
  * the target class in {@link JTransfo#convertTo(Object, Class, String...)}.
+ * <p>
+ * The replacement is remembered for each class (until the class replacers are updated), so it should only depend on
+ * the class.
+ * </p>
  */
 public interface ClassReplacer {
 
@@ -8,6 +8,8 @@
 
 package org.jtransfo;
 
+import java.nio.file.Path;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -338,4 +340,60 @@ public interface ConfigurableJTransfo extends JTransfo {
      */
     void updatePostConverters(List<PostConverter> newConverters);
 
+    /**
+     * Build the converters for all transfer object classes which are listed in the build time indexes
+     * (<code>META-INF/jtransfo/index</code>, generated by the jTransfo annotation processor) ahead of their first use,
+     * see {@link #prewarm(Collection)}. This avoids scanning the class path.
+     *
+     * @return report with the classes for which the converters were built and the failures
+     */
+    PrewarmReport prewarm();
+
+    /**
+     * Build the converters for the given transfer object classes ahead of their first use. This avoids the cost of
+     * building the converters during the first conversions and allows mapping errors to be detected at startup.
+     * <p>
+     * The converters are built in parallel on the common fork-join pool, using the caller's context class loader.
+     * Classes which are not transfer objects are ignored.
+     * </p>
+     *
+     * @param toClasses transfer object classes
+     * @return report with the classes for which the converters were built and the failures
+     */
+    PrewarmReport prewarm(Collection<Class<?>> toClasses);
+
+    /**
+     * Build the converters for all transfer object classes in the given packages (including sub-packages) ahead of
+     * their first use, see {@link #prewarm(Collection)}.
+     *
+     * @param packageNames names of the packages to scan
+     * @return report with the classes for which the converters were built and the failures
+     * @throws JTransfoException cannot scan a package
+     */
+    PrewarmReport prewarm(String... packageNames) throws JTransfoException;
+
+    /**
+     * Save the mapping plans for all converters which were built so far. A mapping plan describes the resolved field
+     * mappings for a transfer object class, so the converters can be built again without inspecting the classes.
+     * <p>
+     * Typically called after {@link #prewarm()} in a build or the first run, the file is loaded at the next start
+     * using {@link #loadMappingPlans(Path)}.
+     * </p>
+     *
+     * @param file file to write, replaced when it exists
+     * @throws JTransfoException cannot write the file
+     */
+    void saveMappingPlans(Path file) throws JTransfoException;
+
+    /**
+     * Load mapping plans which were saved using {@link #saveMappingPlans(Path)}. They are used when converters are
+     * built. A plan is only used when the classes it was built from and the type converters did not change, otherwise
+     * the classes are inspected as usual.
+     *
+     * @param file file to read
+     * @return number of plans which were loaded, 0 when the file does not exist
+     * @throws JTransfoException cannot read the file
+     */
+    int loadMappingPlans(Path file) throws JTransfoException;
+
 }
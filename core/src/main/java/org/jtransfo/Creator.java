@@ -0,0 +1,38 @@
+/*
+ * This file is part of jTransfo, a library for converting to and from transfer objects.
+ * Copyright (c) PROGS bvba, Belgium
+ *
+ * The program is available in open source according to the Apache License, Version 2.0.
+ * For full licensing details, see LICENSE.txt in the project root.
+ */
+
+package org.jtransfo;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Indicate the constructor or static factory method which is used to create the transfer object.
+ * <p>
+ * The values for the parameters are converted from the domain object before the transfer object is created, so the
+ * fields can be final. Fields which are not passed to the creator are set after creation. The canonical constructor
+ * of a record is used automatically.
+ * </p>
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.CONSTRUCTOR, ElementType.METHOD})
+@Documented
+public @interface Creator {
+
+    /**
+     * Names of the transfer object fields which are passed as parameters, in parameter order.
+     * <p>
+     * When empty, the parameter names are used, this requires compiling with the <code>-parameters</code> option.
+     * </p>
+     */
+    String[] value() default {};
+
+}
@@ -23,4 +23,19 @@ public interface ObjectReplacer {
      */
     Object replaceObject(Object object);
 
+    /**
+     * Can this replacer replace objects of the given class? When false, {@link #replaceObject(Object)} is not called
+     * for objects of that class.
+     * <p>
+     * The result is remembered for each class (until the object replacers are updated), so it should only depend on
+     * the class.
+     * </p>
+     *
+     * @param type runtime class of the object
+     * @return true when objects of the class may be replaced
+     */
+    default boolean canReplace(Class<?> type) {
+        return true;
+    }
+
 }
@@ -0,0 +1,90 @@
+/*
+ * This file is part of jTransfo, a library for converting to and from transfer objects.
+ * Copyright (c) PROGS bvba, Belgium
+ *
+ * The program is available in open source according to the Apache License, Version 2.0.
+ * For full licensing details, see LICENSE.txt in the project root.
+ */
+
+package org.jtransfo;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Result of building the converters ahead of their first use, see
+ * {@link ConfigurableJTransfo#prewarm(java.util.Collection)}.
+ */
+public final class PrewarmReport {
+
+    private final List<Class<?>> built;
+    private final Map<Class<?>, JTransfoException> failures;
+    private final long durationNanos;
+
+    /**
+     * Constructor.
+     *
+     * @param built transfer object classes for which the converters were built
+     * @param failures transfer object classes for which the converters could not be built, with the reason
+     * @param durationNanos time taken in nanoseconds
+     */
+    public PrewarmReport(List<Class<?>> built, Map<Class<?>, JTransfoException> failures, long durationNanos) {
+        this.built = Collections.unmodifiableList(built);
+        this.failures = Collections.unmodifiableMap(failures);
+        this.durationNanos = durationNanos;
+    }
+
+    /**
+     * Get the transfer object classes for which the converters were built.
+     *
+     * @return transfer object classes
+     */
+    public List<Class<?>> getBuilt() {
+        return built;
+    }
+
+    /**
+     * Get the transfer object classes for which the converters could not be built, with the reason.
+     *
+     * @return failures per transfer object class
+     */
+    public Map<Class<?>, JTransfoException> getFailures() {
+        return failures;
+    }
+
+    /**
+     * Get the time taken to build the converters.
+     *
+     * @return time taken in milliseconds
+     */
+    public long getDurationMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(durationNanos);
+    }
+
+    /**
+     * Check that all converters could be built, for example to make mapping errors fail the application startup.
+     *
+     * @return this
+     * @throws JTransfoException one or more converters could not be built, the first failure is the cause
+     */
+    public PrewarmReport assertSuccess() throws JTransfoException {
+        if (!failures.isEmpty()) {
+            StringBuilder message = new StringBuilder("Cannot build converters for ").append(failures.size())
+                    .append(" transfer object class(es):");
+            for (Map.Entry<Class<?>, JTransfoException> entry : failures.entrySet()) {
+                message.append("\n  ").append(entry.getKey().getName()).append(": ")
+                        .append(entry.getValue().getMessage());
+            }
+            throw new JTransfoException(message.toString(), failures.values().iterator().next());
+        }
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "PrewarmReport{built=" + built.size() + ", failures=" + failures.keySet() + ", durationMillis=" +
+                getDurationMillis() + '}';
+    }
+}
@@ -9,20 +9,40 @@
 package org.jtransfo;
 
 import org.jtransfo.internal.LockableList;
+import org.jtransfo.internal.ToCreator;
 
 import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
 
 /**
  * Set of converters for a TO.
  * <p>
- * Note that this class is not thread safe!
+ * The converters for each direction can be filled lazily, the first time they are needed, see
+ * {@link #setToToInitializer(BiConsumer)} and {@link #setToDomainInitializer(Consumer)}. Apart from that lazy
+ * initialization, this class is not thread safe!
  * </p>
  */
 public class ToConverter {
 
     private final LockableList<Converter> toTo = new LockableList<>();
     private final LockableList<Converter> toDomain = new LockableList<>();
+    private final LockableList<Converter> toArguments = new LockableList<>();
     private final PreConverter preConverter;
+    private final Object toToLock = new Object();
+    private final Object toDomainLock = new Object();
+    private ToCreator toCreator;
+    private BiConsumer<List<Converter>, List<Converter>> toToInitializer;
+    private Consumer<List<Converter>> toDomainInitializer;
+    private LongSupplier failedInitializerRetention = () -> 0L;
+    private JTransfoException toToFailure;
+    private long toToFailureTime;
+    private JTransfoException toDomainFailure;
+    private long toDomainFailureTime;
+    private volatile boolean toToReady = true;
+    private volatile boolean toDomainReady = true;
+    private volatile boolean locked;
 
     /**
      * Constructor without preconverter.
@@ -46,6 +66,7 @@ public class ToConverter {
      * @return list of converters
      */
     public List<Converter> getToTo() {
+        initToTo();
         return toTo;
     }
 
@@ -56,7 +77,7 @@ public class ToConverter {
      * @return list of converters
      */
     public List<Converter> addToTo(Converter converter) {
-        toTo.add(converter);
+        getToTo().add(converter);
         return toTo;
     }
 
@@ -66,6 +87,7 @@ public class ToConverter {
      * @return list of converters
      */
     public List<Converter> getToDomain() {
+        initToDomain();
         return toDomain;
     }
 
@@ -76,16 +98,150 @@ public class ToConverter {
      * @return list of converters
      */
     public List<Converter> addToDomain(Converter converter) {
-        toDomain.add(converter);
+        getToDomain().add(converter);
         return toDomain;
     }
 
     /**
-     * Assure that the object can not be modified any more.
+     * Get list of converters which convert the domain object to the arguments for the creator of the transfer object.
+     * The target for these converters is the argument array.
+     *
+     * @return list of converters
+     */
+    public List<Converter> getToArguments() {
+        initToTo();
+        return toArguments;
+    }
+
+    /**
+     * Set the initializer which fills the converters to convert domain to transfer object (first parameter) and the
+     * converters for the creator arguments (second parameter). It is called when these converters are first needed.
+     * When the initializer fails, it is called again the next time the converters are needed, unless the failure is
+     * still remembered, see {@link #setFailedInitializerRetention(LongSupplier)}.
+     *
+     * @param initializer initializer for the domain to transfer object direction
+     */
+    public void setToToInitializer(BiConsumer<List<Converter>, List<Converter>> initializer) {
+        synchronized (toToLock) {
+            toToInitializer = initializer;
+            toToReady = false;
+        }
+    }
+
+    /**
+     * Set the initializer which fills the converters to convert transfer to domain object. It is called when these
+     * converters are first needed. When the initializer fails, it is called again the next time the converters are
+     * needed, unless the failure is still remembered, see {@link #setFailedInitializerRetention(LongSupplier)}.
+     *
+     * @param initializer initializer for the transfer to domain object direction
+     */
+    public void setToDomainInitializer(Consumer<List<Converter>> initializer) {
+        synchronized (toDomainLock) {
+            toDomainInitializer = initializer;
+            toDomainReady = false;
+        }
+    }
+
+    /**
+     * Set the time during which a failure of an initializer is remembered. During that time, getting the converters
+     * for that direction fails with the same message without calling the initializer again.
+     *
+     * @param retention supplier for the retention time in nanoseconds, 0 to always retry (the default)
+     */
+    public void setFailedInitializerRetention(LongSupplier retention) {
+        this.failedInitializerRetention = retention;
+    }
+
+    private void initToTo() {
+        if (!toToReady) {
+            synchronized (toToLock) {
+                if (!toToReady) {
+                    checkFailure(toToFailure, toToFailureTime);
+                    toTo.clear();
+                    toArguments.clear();
+                    try {
+                        toToInitializer.accept(toTo, toArguments);
+                    } catch (JTransfoException jte) {
+                        toToFailure = jte;
+                        toToFailureTime = System.nanoTime();
+                        throw jte;
+                    }
+                    toToInitializer = null;
+                    toToFailure = null;
+                    if (locked) {
+                        toTo.lock();
+                        toArguments.lock();
+                    }
+                    toToReady = true;
+                }
+            }
+        }
+    }
+
+    private void initToDomain() {
+        if (!toDomainReady) {
+            synchronized (toDomainLock) {
+                if (!toDomainReady) {
+                    checkFailure(toDomainFailure, toDomainFailureTime);
+                    toDomain.clear();
+                    try {
+                        toDomainInitializer.accept(toDomain);
+                    } catch (JTransfoException jte) {
+                        toDomainFailure = jte;
+                        toDomainFailureTime = System.nanoTime();
+                        throw jte;
+                    }
+                    toDomainInitializer = null;
+                    toDomainFailure = null;
+                    if (locked) {
+                        toDomain.lock();
+                    }
+                    toDomainReady = true;
+                }
+            }
+        }
+    }
+
+    private void checkFailure(JTransfoException failure, long failureTime) {
+        if (null != failure && System.nanoTime() - failureTime < failedInitializerRetention.getAsLong()) {
+            throw new JTransfoException(failure.getMessage(), failure.getCause());
+        }
+    }
+
+    /**
+     * Get the creator for the transfer object.
+     *
+     * @return creator, null when the transfer object is created using the no-arguments constructor
+     */
+    public ToCreator getToCreator() {
+        return toCreator;
+    }
+
+    /**
+     * Set the creator for the transfer object.
+     *
+     * @param toCreator creator, null when the transfer object is created using the no-arguments constructor
+     */
+    public void setToCreator(ToCreator toCreator) {
+        this.toCreator = toCreator;
+    }
+
+    /**
+     * Assure that the object can not be modified any more. Lazily filled converters are locked once they are filled.
      */
     public void lock() {
-        toTo.lock();
-        toDomain.lock();
+        synchronized (toToLock) {
+            locked = true;
+            if (toToReady) {
+                toTo.lock();
+                toArguments.lock();
+            }
+        }
+        synchronized (toDomainLock) {
+            if (toDomainReady) {
+                toDomain.lock();
+            }
+        }
     }
 
     /**
@@ -0,0 +1,65 @@
+/*
+ * This file is part of jTransfo, a library for converting to and from transfer objects.
+ * Copyright (c) PROGS bvba, Belgium
+ *
+ * The program is available in open source according to the Apache License, Version 2.0.
+ * For full licensing details, see LICENSE.txt in the project root.
+ */
+
+package org.jtransfo;
+
+import java.util.List;
+
+/**
+ * Mapper which converts between a transfer object and its domain object without reflection.
+ * <p>
+ * Mappers are typically generated at compile time by the jTransfo annotation processor and registered in
+ * <code>META-INF/services/org.jtransfo.ToMapper</code>. When a mapper is available for a transfer object, it is used
+ * instead of the reflective conversion.
+ * </p><p>
+ * The mapper should be re-entrant. A singleton is used for all convert invocations.
+ * </p>
+ */
+public interface ToMapper {
+
+    /**
+     * Get the transfer object class which is handled by this mapper.
+     *
+     * @return transfer object class
+     */
+    Class<?> getToClass();
+
+    /**
+     * Get the domain class which is handled by this mapper.
+     *
+     * @return domain class
+     */
+    Class<?> getDomainClass();
+
+    /**
+     * Get the types of the fields which are copied as is. The mapper is only used when these types do not need type
+     * conversion using the configured type converters.
+     *
+     * @return copied field types
+     */
+    List<Class<?>> getCopiedTypes();
+
+    /**
+     * Convert domain to transfer object.
+     *
+     * @param source domain object. Should not be null.
+     * @param target transfer object. Should not be null.
+     * @param tags tags which indicate which fields can be converted based on {@link MapOnly} annotations.
+     */
+    void toTo(Object source, Object target, String... tags);
+
+    /**
+     * Convert transfer object to domain object.
+     *
+     * @param source transfer object. Should not be null.
+     * @param target domain object. Should not be null.
+     * @param tags tags which indicate which fields can be converted based on {@link MapOnly} annotations.
+     */
+    void toDomain(Object source, Object target, String... tags);
+
+}
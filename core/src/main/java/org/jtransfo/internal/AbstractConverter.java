@@ -47,17 +47,26 @@ public abstract class AbstractConverter implements Converter {
     public void convert(Object source, Object target, String... tags) throws JTransfoException {
         try {
             doConvert(source, target, tags);
-        } catch (IllegalAccessException iae) {
-            throw new JTransfoException(accessExceptionMessage(), iae);
-        } catch (IllegalArgumentException iae) {
-            if (null != iae.getStackTrace() && iae.getStackTrace().length > 0) {
-                String throwingClass = iae.getStackTrace()[0].getClassName();
-                if (throwingClass.startsWith("sun.reflect.") || iae.getMessage().contains("Can not set ")) {
-                    throw new JTransfoException(argumentExceptionMessage(), iae);
-                }
+        } catch (IllegalAccessException | IllegalArgumentException e) {
+            throw convertException(e);
+        }
+    }
+
+    /**
+     * Get the exception to throw when {@link #doConvert(Object, Object, String...)} failed.
+     *
+     * @param exception IllegalAccessException or IllegalArgumentException which was thrown
+     * @return exception with the message for the failure
+     */
+    JTransfoException convertException(Exception exception) {
+        if (exception instanceof IllegalArgumentException && null != exception.getStackTrace() &&
+                exception.getStackTrace().length > 0) {
+            String throwingClass = exception.getStackTrace()[0].getClassName();
+            if (throwingClass.startsWith("sun.reflect.") || exception.getMessage().contains("Can not set ")) {
+                return new JTransfoException(argumentExceptionMessage(), exception);
             }
-            throw new JTransfoException(accessExceptionMessage(), iae);
         }
+        return new JTransfoException(accessExceptionMessage(), exception);
     }
 
     /**
@@ -0,0 +1,354 @@
+/*
+ * This file is part of jTransfo, a library for converting to and from transfer objects.
+ * Copyright (c) PROGS bvba, Belgium
+ *
+ * The program is available in open source according to the Apache License, Version 2.0.
+ * For full licensing details, see LICENSE.txt in the project root.
+ */
+
+package org.jtransfo.internal;
+
+import java.lang.invoke.MethodHandle;
+
+/**
+ * Base class for synthetic fields which can access primitive values without boxing.
+ * <p>
+ * Implementations bind handles with an exact primitive type, (Object)primitive for the getter and
+ * (Object, primitive)void for the setter. When no handle is bound for the requested type (or the object is not of
+ * the expected type), the boxing {@link #get(Object)} and {@link #set(Object, Object)} methods are used.
+ * </p>
+ */
+public abstract class AbstractSyntheticField implements SyntheticField {
+
+    private MethodHandle primitiveGetter;
+    private Class<?> primitiveGetterType;
+    private Class<?> getterReceiver;
+    private MethodHandle primitiveSetter;
+    private Class<?> primitiveSetterType;
+    private Class<?> setterReceiver;
+
+    /**
+     * Bind the handle to use for reading primitive values.
+     *
+     * @param getter handle with type (Object)primitive, may be null
+     * @param receiver class the object should be an instance of, null when any object is accepted
+     */
+    protected void bindPrimitiveGetter(MethodHandle getter, Class<?> receiver) {
+        primitiveGetter = getter;
+        primitiveGetterType = null == getter ? null : getter.type().returnType();
+        getterReceiver = receiver;
+    }
+
+    /**
+     * Bind the handle to use for writing primitive values.
+     *
+     * @param setter handle with type (Object, primitive)void, may be null
+     * @param receiver class the object should be an instance of, null when any object is accepted
+     */
+    protected void bindPrimitiveSetter(MethodHandle setter, Class<?> receiver) {
+        primitiveSetter = setter;
+        primitiveSetterType = null == setter ? null : setter.type().parameterType(1);
+        setterReceiver = receiver;
+    }
+
+    /**
+     * Get the exception to throw when the primitive getter handle threw an exception.
+     *
+     * @param object object which contains the field
+     * @param throwable exception thrown by the handle
+     * @return exception to throw
+     */
+    protected abstract RuntimeException getterException(Object object, Throwable throwable);
+
+    /**
+     * Get the exception to throw when the primitive setter handle threw an exception.
+     *
+     * @param object object which contains the field
+     * @param throwable exception thrown by the handle
+     * @return exception to throw
+     */
+    protected abstract RuntimeException setterException(Object object, Throwable throwable);
+
+    /**
+     * Can values of the given primitive type be read without boxing?
+     *
+     * @param type primitive type
+     * @return true when a primitive getter is bound for the type
+     */
+    boolean hasPrimitiveGetter(Class<?> type) {
+        return null != type && type == primitiveGetterType;
+    }
+
+    /**
+     * Can values of the given primitive type be written without boxing?
+     *
+     * @param type primitive type
+     * @return true when a primitive setter is bound for the type
+     */
+    boolean hasPrimitiveSetter(Class<?> type) {
+        return null != type && type == primitiveSetterType;
+    }
+
+    /**
+     * Get the handle which reads the field value, used when compiling conversions.
+     *
+     * @return handle with type (Object)Object, null when the field cannot be read through a handle
+     */
+    MethodHandle getterHandle() {
+        return null;
+    }
+
+    /**
+     * Get the handle which writes the field value, used when compiling conversions.
+     *
+     * @return handle with type (Object, Object)void, null when the field cannot be written through a handle
+     */
+    MethodHandle setterHandle() {
+        return null;
+    }
+
+    /**
+     * Get the handle which reads primitive values, used when compiling conversions.
+     *
+     * @return handle with type (Object)primitive, null when not bound
+     */
+    MethodHandle primitiveGetterHandle() {
+        return primitiveGetter;
+    }
+
+    /**
+     * Get the handle which writes primitive values, used when compiling conversions.
+     *
+     * @return handle with type (Object, primitive)void, null when not bound
+     */
+    MethodHandle primitiveSetterHandle() {
+        return primitiveSetter;
+    }
+
+    /**
+     * Get the class the object should be an instance of to use the getter handles.
+     *
+     * @return receiver class, null when any object is accepted
+     */
+    Class<?> getGetterReceiver() {
+        return getterReceiver;
+    }
+
+    /**
+     * Get the class the object should be an instance of to use the setter handles.
+     *
+     * @return receiver class, null when any object is accepted
+     */
+    Class<?> getSetterReceiver() {
+        return setterReceiver;
+    }
+
+    private boolean canGet(Class<?> type, Object object) {
+        return type == primitiveGetterType && (null == getterReceiver || getterReceiver.isInstance(object));
+    }
+
+    private boolean canSet(Class<?> type, Object object) {
+        return type == primitiveSetterType && (null == setterReceiver || setterReceiver.isInstance(object));
+    }
+
+    @Override
+    public boolean getBoolean(Object object) throws IllegalAccessException, IllegalArgumentException {
+        if (canGet(boolean.class, object)) {
+            try {
+                return (boolean) primitiveGetter.invokeExact(object);
+            } catch (Throwable throwable) {
+                throw getterException(object, throwable);
+            }
+        }
+        return SyntheticField.super.getBoolean(object);
+    }
+
+    @Override
+    public void setBoolean(Object object, boolean value) throws IllegalAccessException, IllegalArgumentException {
+        if (canSet(boolean.class, object)) {
+            try {
+                primitiveSetter.invokeExact(object, value);
+                return;
+            } catch (Throwable throwable) {
+                throw setterException(object, throwable);
+            }
+        }
+        SyntheticField.super.setBoolean(object, value);
+    }
+
+    @Override
+    public byte getByte(Object object) throws IllegalAccessException, IllegalArgumentException {
+        if (canGet(byte.class, object)) {
+            try {
+                return (byte) primitiveGetter.invokeExact(object);
+            } catch (Throwable throwable) {
+                throw getterException(object, throwable);
+            }
+        }
+        return SyntheticField.super.getByte(object);
+    }
+
+    @Override
+    public void setByte(Object object, byte value) throws IllegalAccessException, IllegalArgumentException {
+        if (canSet(byte.class, object)) {
+            try {
+                primitiveSetter.invokeExact(object, value);
+                return;
+            } catch (Throwable throwable) {
+                throw setterException(object, throwable);
+            }
+        }
+        SyntheticField.super.setByte(object, value);
+    }
+
+    @Override
+    public char getChar(Object object) throws IllegalAccessException, IllegalArgumentException {
+        if (canGet(char.class, object)) {
+            try {
+                return (char) primitiveGetter.invokeExact(object);
+            } catch (Throwable throwable) {
+                throw getterException(object, throwable);
+            }
+        }
+        return SyntheticField.super.getChar(object);
+    }
+
+    @Override
+    public void setChar(Object object, char value) throws IllegalAccessException, IllegalArgumentException {
+        if (canSet(char.class, object)) {
+            try {
+                primitiveSetter.invokeExact(object, value);
+                return;
+            } catch (Throwable throwable) {
+                throw setterException(object, throwable);
+            }
+        }
+        SyntheticField.super.setChar(object, value);
+    }
+
+    @Override
+    public short getShort(Object object) throws IllegalAccessException, IllegalArgumentException {
+        if (canGet(short.class, object)) {
+            try {
+                return (short) primitiveGetter.invokeExact(object);
+            } catch (Throwable throwable) {
+                throw getterException(object, throwable);
+            }
+        }
+        return SyntheticField.super.getShort(object);
+    }
+
+    @Override
+    public void setShort(Object object, short value) throws IllegalAccessException, IllegalArgumentException {
+        if (canSet(short.class, object)) {
+            try {
+                primitiveSetter.invokeExact(object, value);
+                return;
+            } catch (Throwable throwable) {
+                throw setterException(object, throwable);
+            }
+        }
+        SyntheticField.super.setShort(object, value);
+    }
+
+    @Override
+    public int getInt(Object object) throws IllegalAccessException, IllegalArgumentException {
+        if (canGet(int.class, object)) {
+            try {
+                return (int) primitiveGetter.invokeExact(object);
+            } catch (Throwable throwable) {
+                throw getterException(object, throwable);
+            }
+        }
+        return SyntheticField.super.getInt(object);
+    }
+
+    @Override
+    public void setInt(Object object, int value) throws IllegalAccessException, IllegalArgumentException {
+        if (canSet(int.class, object)) {
+            try {
+                primitiveSetter.invokeExact(object, value);
+                return;
+            } catch (Throwable throwable) {
+                throw setterException(object, throwable);
+            }
+        }
+        SyntheticField.super.setInt(object, value);
+    }
+
+    @Override
+    public long getLong(Object object) throws IllegalAccessException, IllegalArgumentException {
+        if (canGet(long.class, object)) {
+            try {
+                return (long) primitiveGetter.invokeExact(object);
+            } catch (Throwable throwable) {
+                throw getterException(object, throwable);
+            }
+        }
+        return SyntheticField.super.getLong(object);
+    }
+
+    @Override
+    public void setLong(Object object, long value) throws IllegalAccessException, IllegalArgumentException {
+        if (canSet(long.class, object)) {
+            try {
+                primitiveSetter.invokeExact(object, value);
+                return;
+            } catch (Throwable throwable) {
+                throw setterException(object, throwable);
+            }
+        }
+        SyntheticField.super.setLong(object, value);
+    }
+
+    @Override
+    public float getFloat(Object object) throws IllegalAccessException, IllegalArgumentException {
+        if (canGet(float.class, object)) {
+            try {
+                return (float) primitiveGetter.invokeExact(object);
+            } catch (Throwable throwable) {
+                throw getterException(object, throwable);
+            }
+        }
+        return SyntheticField.super.getFloat(object);
+    }
+
+    @Override
+    public void setFloat(Object object, float value) throws IllegalAccessException, IllegalArgumentException {
+        if (canSet(float.class, object)) {
+            try {
+                primitiveSetter.invokeExact(object, value);
+                return;
+            } catch (Throwable throwable) {
+                throw setterException(object, throwable);
+            }
+        }
+        SyntheticField.super.setFloat(object, value);
+    }
+
+    @Override
+    public double getDouble(Object object) throws IllegalAccessException, IllegalArgumentException {
+        if (canGet(double.class, object)) {
+            try {
+                return (double) primitiveGetter.invokeExact(object);
+            } catch (Throwable throwable) {
+                throw getterException(object, throwable);
+            }
+        }
+        return SyntheticField.super.getDouble(object);
+    }
+
+    @Override
+    public void setDouble(Object object, double value) throws IllegalAccessException, IllegalArgumentException {
+        if (canSet(double.class, object)) {
+            try {
+                primitiveSetter.invokeExact(object, value);
+                return;
+            } catch (Throwable throwable) {
+                throw setterException(object, throwable);
+            }
+        }
+        SyntheticField.super.setDouble(object, value);
+    }
+
+}
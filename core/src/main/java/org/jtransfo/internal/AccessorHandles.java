@@ -0,0 +1,255 @@
+/*
+ * This file is part of jTransfo, a library for converting to and from transfer objects.
+ * Copyright (c) PROGS bvba, Belgium
+ *
+ * The program is available in open source according to the Apache License, Version 2.0.
+ * For full licensing details, see LICENSE.txt in the project root.
+ */
+
+package org.jtransfo.internal;
+
+import org.jtransfo.JTransfoException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Utility class for building {@link MethodHandle}s to access fields, getters and setters.
+ * <p>
+ * The handles are bound once and have an erased signature, allowing them to be invoked using
+ * {@link MethodHandle#invokeExact(Object...)} without the per-call access checks and argument wrapping done by
+ * {@link Method#invoke(Object, Object...)}.
+ * </p>
+ */
+final class AccessorHandles {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private AccessorHandles() {
+        throw new IllegalAccessError("AccessorHandles cannot be instantiated.");
+    }
+
+    /**
+     * Build a handle for a getter method, with type (Object)Object.
+     *
+     * @param getter getter method
+     * @return method handle or null when no handle can be built (use reflection instead)
+     */
+    static MethodHandle getter(Method getter) {
+        return asType(unreflectGetter(getter), GETTER_TYPE);
+    }
+
+    /**
+     * Build a handle for a getter method which returns a primitive, with type (Object)primitive.
+     *
+     * @param getter getter method
+     * @return method handle or null when no handle can be built or the getter does not return a primitive
+     */
+    static MethodHandle primitiveGetter(Method getter) {
+        if (null == getter || !getter.getReturnType().isPrimitive()) {
+            return null;
+        }
+        return asType(unreflectGetter(getter), MethodType.methodType(getter.getReturnType(), Object.class));
+    }
+
+    /**
+     * Build a handle for a setter method, with type (Object, Object)void.
+     *
+     * @param setter setter method
+     * @return method handle or null when no handle can be built (use reflection instead)
+     */
+    static MethodHandle setter(Method setter) {
+        return asType(unreflectSetter(setter), SETTER_TYPE);
+    }
+
+    /**
+     * Build a handle for a setter method which has a primitive parameter, with type (Object, primitive)void.
+     *
+     * @param setter setter method
+     * @return method handle or null when no handle can be built or the setter parameter is not a primitive
+     */
+    static MethodHandle primitiveSetter(Method setter) {
+        if (null == setter || 1 != setter.getParameterCount() || !setter.getParameterTypes()[0].isPrimitive()) {
+            return null;
+        }
+        return asType(unreflectSetter(setter),
+                MethodType.methodType(void.class, Object.class, setter.getParameterTypes()[0]));
+    }
+
+    /**
+     * Build a handle which reads the field, with type (Object)Object. For static fields the object is ignored.
+     * <p>
+     * The field needs to be made accessible first when it is not public.
+     * </p>
+     *
+     * @param field field to read
+     * @return method handle or null when no handle can be built (use reflection instead)
+     */
+    static MethodHandle fieldGetter(Field field) {
+        return asType(unreflectGetter(field), GETTER_TYPE);
+    }
+
+    /**
+     * Build a handle which reads a primitive field, with type (Object)primitive. For static fields the object is
+     * ignored.
+     *
+     * @param field field to read
+     * @return method handle or null when no handle can be built or the field is not a primitive
+     */
+    static MethodHandle primitiveFieldGetter(Field field) {
+        if (null == field || !field.getType().isPrimitive()) {
+            return null;
+        }
+        return asType(unreflectGetter(field), MethodType.methodType(field.getType(), Object.class));
+    }
+
+    /**
+     * Build a handle which writes the field, with type (Object, Object)void. For static fields the object is ignored.
+     * <p>
+     * The field needs to be made accessible first when it is not public.
+     * </p>
+     *
+     * @param field field to write
+     * @return method handle or null when no handle can be built (use reflection instead)
+     */
+    static MethodHandle fieldSetter(Field field) {
+        return asType(unreflectSetter(field), SETTER_TYPE);
+    }
+
+    /**
+     * Build a handle which writes a primitive field, with type (Object, primitive)void. For static fields the object
+     * is ignored.
+     *
+     * @param field field to write
+     * @return method handle or null when no handle can be built or the field is not a primitive
+     */
+    static MethodHandle primitiveFieldSetter(Field field) {
+        if (null == field || !field.getType().isPrimitive()) {
+            return null;
+        }
+        return asType(unreflectSetter(field), MethodType.methodType(void.class, Object.class, field.getType()));
+    }
+
+    /**
+     * Check whether the object can be used as target for accessing the field using a handle.
+     *
+     * @param field field to access
+     * @param object object which contains the field
+     * @return true when the handle can be used
+     */
+    static boolean isTarget(Field field, Object object) {
+        return Modifier.isStatic(field.getModifiers()) || field.getDeclaringClass().isInstance(object);
+    }
+
+    /**
+     * Check whether a value can be passed to a handle for the given (parameter) type without conversion problems.
+     * When this is not the case, the reflective path should be used to get the same exceptions as before.
+     *
+     * @param type declared type
+     * @param value value to pass
+     * @return true when value is compatible with the type
+     */
+    static boolean isAssignable(Class<?> type, Object value) {
+        if (null == value) {
+            return !type.isPrimitive();
+        }
+        return wrap(type).isInstance(value);
+    }
+
+    /**
+     * Get the exception to throw for a problem when invoking a field access handle. Field access only throws unchecked
+     * exceptions, errors are thrown immediately.
+     *
+     * @param throwable problem which was thrown by the handle
+     * @return exception to throw
+     */
+    static RuntimeException unchecked(Throwable throwable) {
+        if (throwable instanceof Error) {
+            throw (Error) throwable;
+        }
+        if (throwable instanceof RuntimeException) {
+            return (RuntimeException) throwable;
+        }
+        return new JTransfoException(throwable.getMessage(), throwable);
+    }
+
+    /**
+     * Get the wrapper class for a primitive type, or the type itself for non-primitive types.
+     *
+     * @param type type
+     * @return wrapper type
+     */
+    static Class<?> wrap(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return type;
+        }
+        return MethodType.methodType(type).wrap().returnType();
+    }
+
+    private static MethodHandle unreflectGetter(Method getter) {
+        if (null == getter || Modifier.isStatic(getter.getModifiers()) || 0 != getter.getParameterCount() ||
+                void.class.equals(getter.getReturnType())) {
+            return null;
+        }
+        return unreflect(getter);
+    }
+
+    private static MethodHandle unreflectSetter(Method setter) {
+        if (null == setter || Modifier.isStatic(setter.getModifiers()) || 1 != setter.getParameterCount()) {
+            return null;
+        }
+        return unreflect(setter);
+    }
+
+    private static MethodHandle unreflect(Method method) {
+        try {
+            return MethodHandles.lookup().unreflect(method);
+        } catch (IllegalAccessException | RuntimeException e) {
+            // method is not accessible from here (or the module system refuses), keep using reflection
+            return null;
+        }
+    }
+
+    private static MethodHandle unreflectGetter(Field field) {
+        if (null == field) {
+            return null;
+        }
+        try {
+            MethodHandle handle = MethodHandles.lookup().unreflectGetter(field);
+            if (Modifier.isStatic(field.getModifiers())) {
+                handle = MethodHandles.dropArguments(handle, 0, Object.class);
+            }
+            return handle;
+        } catch (IllegalAccessException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static MethodHandle unreflectSetter(Field field) {
+        if (null == field) {
+            return null;
+        }
+        try {
+            MethodHandle handle = MethodHandles.lookup().unreflectSetter(field);
+            if (Modifier.isStatic(field.getModifiers())) {
+                handle = MethodHandles.dropArguments(handle, 0, Object.class);
+            }
+            return handle;
+        } catch (IllegalAccessException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static MethodHandle asType(MethodHandle handle, MethodType type) {
+        if (null == handle) {
+            return null;
+        }
+        return handle.asType(type);
+    }
+
+}
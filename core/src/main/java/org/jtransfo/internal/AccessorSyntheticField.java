@@ -12,6 +12,7 @@ import org.jtransfo.JTransfoException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
@@ -23,10 +24,18 @@ import java.util.Optional;
 
 /**
  * Abstraction of a {@link Field} which uses the getter and setter if they exist.
+ * <p>
+ * The getter and setter are bound to a {@link MethodHandle} once, reflective invocation is only used when no handle
+ * can be built or the arguments would not match the handle. The same applies for the field when it needs to be used
+ * because there is no getter or setter.
+ * </p>
+ * <p>
+ * The fields of a domain class are shared by all transfer objects which map it, so instances are thread safe.
+ * </p>
  */
-public class AccessorSyntheticField implements SyntheticField {
+public class AccessorSyntheticField extends AbstractSyntheticField {
 
-    private final Logger log = LoggerFactory.getLogger(AccessorSyntheticField.class);
+    private static final Logger LOG = LoggerFactory.getLogger(AccessorSyntheticField.class);
 
     private static final String GET_SET_ITO = "InvocationTargetException trying to use %s on object of type %s. " +
             "Expected type is %s. Cause is: %s";
@@ -35,6 +44,10 @@ public class AccessorSyntheticField implements SyntheticField {
     private Field field;
     private Method getter;
     private Method setter;
+    private MethodHandle getterHandle;
+    private MethodHandle setterHandle;
+    private volatile MethodHandle fieldGetterHandle;
+    private volatile MethodHandle fieldSetterHandle;
     private boolean getUsingFieldLogged;
     private boolean setUsingFieldLogged;
 
@@ -50,6 +63,7 @@ public class AccessorSyntheticField implements SyntheticField {
         getter = findGetter(reflectionHelper, clazz, field.getType(), field.getName());
         setter = reflectionHelper.getMethod(clazz, null, getSetterName(field.getName()), field.getType());
         name = field.getName();
+        bindHandles();
     }
 
     /**
@@ -79,6 +93,18 @@ public class AccessorSyntheticField implements SyntheticField {
             }
         }
         this.name = name;
+        bindHandles();
+    }
+
+    private void bindHandles() {
+        getterHandle = AccessorHandles.getter(getter);
+        setterHandle = AccessorHandles.setter(setter);
+        if (null != getter) {
+            bindPrimitiveGetter(AccessorHandles.primitiveGetter(getter), getter.getDeclaringClass());
+        }
+        if (null != setter) {
+            bindPrimitiveSetter(AccessorHandles.primitiveSetter(setter), setter.getDeclaringClass());
+        }
     }
 
     private Method findGetter(ReflectionHelper reflectionHelper, Class<?> clazz, Class<?> returnType, String name) {
@@ -101,20 +127,31 @@ public class AccessorSyntheticField implements SyntheticField {
      */
     public Object get(Object object) throws IllegalAccessException, IllegalArgumentException {
         if (null != getter) {
+            if (null != getterHandle && getter.getDeclaringClass().isInstance(object)) {
+                try {
+                    return (Object) getterHandle.invokeExact(object);
+                } catch (Throwable throwable) {
+                    throw invocationException(getter, object, throwable);
+                }
+            }
             try {
                 return getter.invoke(object);
             } catch (InvocationTargetException ite) {
-                if (ite.getCause() instanceof RuntimeException && !(ite.getCause() instanceof JTransfoException)) {
-                    throw (RuntimeException) ite.getCause();
-                }
-                throw new JTransfoException(String.format(GET_SET_ITO, getter.getName(), object.getClass().getName(),
-                        getter.getDeclaringClass().getName(), ite.getCause().getMessage()), ite.getCause());
+                throw invocationException(getter, object, ite.getCause());
             }
         } else {
             if (!getUsingFieldLogged) {
-                log.warn("Cannot find getter (not public, wrong name or wrong type), "
+                LOG.warn("Cannot find getter (not public, wrong name or wrong type), "
                         + "using field to access field {} of {}.", name, field.getType().getName());
                 getUsingFieldLogged = true;
+                fieldGetterHandle = AccessorHandles.fieldGetter(field); // field has been made accessible by now
+            }
+            if (null != fieldGetterHandle && AccessorHandles.isTarget(field, object)) {
+                try {
+                    return (Object) fieldGetterHandle.invokeExact(object);
+                } catch (Throwable throwable) {
+                    throw AccessorHandles.unchecked(throwable);
+                }
             }
             return field.get(object);
         }
@@ -130,25 +167,77 @@ public class AccessorSyntheticField implements SyntheticField {
      */
     public void set(Object object, Object value) throws IllegalAccessException, IllegalArgumentException {
         if (null != setter) {
+            if (null != setterHandle && setter.getDeclaringClass().isInstance(object) &&
+                    AccessorHandles.isAssignable(setter.getParameterTypes()[0], value)) {
+                try {
+                    setterHandle.invokeExact(object, value);
+                    return;
+                } catch (Throwable throwable) {
+                    throw invocationException(setter, object, throwable);
+                }
+            }
             try {
                 setter.invoke(object, value);
             } catch (InvocationTargetException ite) {
-                if (ite.getCause() instanceof RuntimeException && !(ite.getCause() instanceof JTransfoException)) {
-                    throw (RuntimeException) ite.getCause();
-                }
-                throw new JTransfoException(String.format(GET_SET_ITO, setter.getName(), object.getClass().getName(),
-                        setter.getDeclaringClass().getName(), ite.getCause().getMessage()), ite.getCause());
+                throw invocationException(setter, object, ite.getCause());
             }
         } else {
             if (!setUsingFieldLogged) {
-                log.warn("Cannot find setter (not public, wrong name or wrong type), "
+                LOG.warn("Cannot find setter (not public, wrong name or wrong type), "
                         + "using field to access field {} of {}.", name, field.getType().getName());
                 setUsingFieldLogged = true;
+                fieldSetterHandle = AccessorHandles.fieldSetter(field); // field has been made accessible by now
+            }
+            if (null != fieldSetterHandle && AccessorHandles.isTarget(field, object) &&
+                    AccessorHandles.isAssignable(field.getType(), value)) {
+                try {
+                    fieldSetterHandle.invokeExact(object, value);
+                    return;
+                } catch (Throwable throwable) {
+                    throw AccessorHandles.unchecked(throwable);
+                }
             }
             field.set(object, value);
         }
     }
 
+    @Override
+    MethodHandle getterHandle() {
+        return null != getter ? getterHandle : null;
+    }
+
+    @Override
+    MethodHandle setterHandle() {
+        return null != setter ? setterHandle : null;
+    }
+
+    @Override
+    protected RuntimeException getterException(Object object, Throwable throwable) {
+        return invocationException(getter, object, throwable);
+    }
+
+    @Override
+    protected RuntimeException setterException(Object object, Throwable throwable) {
+        return invocationException(setter, object, throwable);
+    }
+
+    /**
+     * Build the exception to throw when the getter or setter itself threw an exception. Runtime exceptions are passed
+     * as is (except {@link JTransfoException}), other exceptions are wrapped.
+     *
+     * @param method getter or setter which was invoked
+     * @param object object on which the method was invoked
+     * @param cause exception thrown by the method
+     * @return exception to throw
+     */
+    private RuntimeException invocationException(Method method, Object object, Throwable cause) {
+        if (cause instanceof RuntimeException && !(cause instanceof JTransfoException)) {
+            return (RuntimeException) cause;
+        }
+        return new JTransfoException(String.format(GET_SET_ITO, method.getName(), object.getClass().getName(),
+                method.getDeclaringClass().getName(), cause.getMessage()), cause);
+    }
+
     /**
      * Get field name.
      *
@@ -189,6 +278,15 @@ public class AccessorSyntheticField implements SyntheticField {
         return Optional.ofNullable(field);
     }
 
+    /**
+     * Is there a setter for the field?
+     *
+     * @return true when a setter was found
+     */
+    boolean hasSetter() {
+        return null != setter;
+    }
+
     /**
      * Get list of possible getter names for a field (without ability to assume type).
      * Method is protected to allow test access.
@@ -0,0 +1,64 @@
+/*
+ * This file is part of jTransfo, a library for converting to and from transfer objects.
+ * Copyright (c) PROGS bvba, Belgium
+ *
+ * The program is available in open source according to the Apache License, Version 2.0.
+ * For full licensing details, see LICENSE.txt in the project root.
+ */
+
+package org.jtransfo.internal;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Type;
+import java.util.Optional;
+
+/**
+ * Synthetic field for a transfer object field which is passed to the creator. The value is stored in the argument
+ * array (which is used as target object) instead of in the transfer object.
+ */
+public class ArgumentSyntheticField implements SyntheticField {
+
+    private final SyntheticField field;
+    private final int index;
+
+    /**
+     * Constructor.
+     *
+     * @param field transfer object field
+     * @param index index of the argument for the creator
+     */
+    public ArgumentSyntheticField(SyntheticField field, int index) {
+        this.field = field;
+        this.index = index;
+    }
+
+    @Override
+    public Object get(Object object) throws IllegalAccessException, IllegalArgumentException {
+        return ((Object[]) object)[index];
+    }
+
+    @Override
+    public void set(Object object, Object value) throws IllegalAccessException, IllegalArgumentException {
+        ((Object[]) object)[index] = value;
+    }
+
+    @Override
+    public String getName() {
+        return field.getName();
+    }
+
+    @Override
+    public Class<?> getType() {
+        return field.getType();
+    }
+
+    @Override
+    public Type getGenericType() {
+        return field.getGenericType();
+    }
+
+    @Override
+    public Optional<Field> getField() {
+        return field.getField();
+    }
+}
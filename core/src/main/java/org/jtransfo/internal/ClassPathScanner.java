@@ -0,0 +1,94 @@
+/*
+ * This file is part of jTransfo, a library for converting to and from transfer objects.
+ * Copyright (c) PROGS bvba, Belgium
+ *
+ * The program is available in open source according to the Apache License, Version 2.0.
+ * For full licensing details, see LICENSE.txt in the project root.
+ */
+
+package org.jtransfo.internal;
+
+import org.jtransfo.JTransfoException;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/**
+ * Find the classes in a package (including sub-packages) on the class path. Packages in directories and jar files
+ * are supported.
+ */
+final class ClassPathScanner {
+
+    private static final String CLASS_SUFFIX = ".class";
+
+    private ClassPathScanner() {
+        // hide constructor
+    }
+
+    /**
+     * Find the names of all classes in the package or its sub-packages.
+     *
+     * @param classLoader class loader to find the package resources
+     * @param packageName name of the package
+     * @return class names
+     * @throws JTransfoException cannot read the package contents
+     */
+    static Set<String> findClassNames(ClassLoader classLoader, String packageName) throws JTransfoException {
+        String path = packageName.replace('.', '/');
+        Set<String> result = new LinkedHashSet<>();
+        try {
+            Enumeration<URL> urls = classLoader.getResources(path);
+            while (urls.hasMoreElements()) {
+                URL url = urls.nextElement();
+                if ("file".equals(url.getProtocol())) {
+                    addDirectory(result, new File(url.toURI()), packageName);
+                } else {
+                    URLConnection connection = url.openConnection();
+                    if (!(connection instanceof JarURLConnection)) {
+                        throw new JTransfoException("Cannot scan package " + packageName + " in " + url +
+                                ", only directories and jar files are supported.");
+                    }
+                    addJar(result, ((JarURLConnection) connection).getJarFile(), path);
+                }
+            }
+        } catch (IOException | URISyntaxException ex) {
+            throw new JTransfoException("Cannot scan package " + packageName + ".", ex);
+        }
+        return result;
+    }
+
+    private static void addDirectory(Set<String> result, File directory, String packageName) {
+        File[] files = directory.listFiles();
+        if (null == files) {
+            return;
+        }
+        for (File file : files) {
+            String name = file.getName();
+            if (file.isDirectory()) {
+                addDirectory(result, file, packageName + "." + name);
+            } else if (name.endsWith(CLASS_SUFFIX)) {
+                result.add(packageName + "." + name.substring(0, name.length() - CLASS_SUFFIX.length()));
+            }
+        }
+    }
+
+    private static void addJar(Set<String> result, JarFile jarFile, String path) {
+        String prefix = path + "/";
+        Enumeration<JarEntry> entries = jarFile.entries();
+        while (entries.hasMoreElements()) {
+            String name = entries.nextElement().getName();
+            if (name.startsWith(prefix) && name.endsWith(CLASS_SUFFIX)) {
+                result.add(name.substring(0, name.length() - CLASS_SUFFIX.length()).replace('/', '.'));
+            }
+        }
+    }
+}
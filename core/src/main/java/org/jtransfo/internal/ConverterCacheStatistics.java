@@ -0,0 +1,77 @@
+/*
+ * This file is part of jTransfo, a library for converting to and from transfer objects.
+ * Copyright (c) PROGS bvba, Belgium
+ *
+ * The program is available in open source according to the Apache License, Version 2.0.
+ * For full licensing details, see LICENSE.txt in the project root.
+ */
+
+package org.jtransfo.internal;
+
+/**
+ * Statistics for the cache with converters in {@link JTransfoImpl}.
+ */
+public final class ConverterCacheStatistics {
+
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final int size;
+
+    /**
+     * Constructor.
+     *
+     * @param hits number of lookups which found a converter
+     * @param misses number of lookups which needed to build a converter
+     * @param evictions number of converters which were evicted to stay within the limit
+     * @param size number of converters in the cache
+     */
+    public ConverterCacheStatistics(long hits, long misses, long evictions, int size) {
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.size = size;
+    }
+
+    /**
+     * Get the number of lookups which found a converter.
+     *
+     * @return number of hits
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Get the number of lookups which needed to build a converter.
+     *
+     * @return number of misses
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Get the number of converters which were evicted to stay within the limit.
+     *
+     * @return number of evictions
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Get the number of converters in the cache.
+     *
+     * @return number of cached converters
+     */
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return "ConverterCacheStatistics{hits=" + hits + ", misses=" + misses + ", evictions=" + evictions +
+                ", size=" + size + '}';
+    }
+}
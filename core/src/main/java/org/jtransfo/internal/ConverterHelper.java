@@ -8,6 +8,7 @@
 
 package org.jtransfo.internal;
 
+import org.jtransfo.Converter;
 import org.jtransfo.JTransfoException;
 import org.jtransfo.MapOnlies;
 import org.jtransfo.MapOnly;
@@ -22,6 +23,9 @@ import org.jtransfo.PreConverter;
 import org.jtransfo.ToConverter;
 import org.jtransfo.TypeConverter;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.Type;
@@ -29,6 +33,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -39,12 +44,19 @@ import java.util.concurrent.ConcurrentHashMap;
 public class ConverterHelper {
 
     private static final String DECLARED_TYPE_CONVERTER_CLASS = "Declared TypeConverter class ";
+    private static final String NO_CONVERSION = "=";
 
     private ReflectionHelper reflectionHelper = new ReflectionHelper();
     private ConcurrentHashMap<String, TypeConverter> typeConverterInstances = new ConcurrentHashMap<>();
+    private ConcurrentHashMap<String, TypeConverter> declaredTypeConverterInstances = new ConcurrentHashMap<>();
     private List<TypeConverter> typeConvertersInOrder = Collections.emptyList(); // empty list for starters
+    private volatile ClassValue<Map<TypePair, TypeConverter>> defaultTypeConverters = newDefaultTypeConverters();
     private ConcurrentHashMap<String, PreConverter> preConverterInstances = new ConcurrentHashMap<>();
     private ConcurrentHashMap<String, PostConverter> postConverterInstances = new ConcurrentHashMap<>();
+    private ConcurrentHashMap<String, MappingPlan> mappingPlans = new ConcurrentHashMap<>();
+    private volatile MappingPlan.Snapshot snapshot;
+    private volatile List<String> configuration;
+    private volatile MappingPlan.Stamps stamps = new MappingPlan.Stamps();
 
     /**
      * Build the descriptor for conversion between given object types.
@@ -55,8 +67,154 @@ public class ConverterHelper {
      * @throws JTransfoException cannot build converter
      */
     public ToConverter getToConverter(Class toClass, Class domainClass) throws JTransfoException {
-        ToConverter converter = withPreConverter(toClass);
+        ToConverter converter = getLazyToConverter(toClass, domainClass);
+        converter.getToTo();
+        converter.getToDomain();
+        return converter;
+    }
+
+    /**
+     * Build the descriptor for conversion between given object types. The converters for each direction are only
+     * built when that direction is first used, so problems in the mapping are only reported at that time.
+     * <p>
+     * When a usable mapping plan was loaded (see {@link #readMappingPlans(InputStream)}), the converters are built
+     * from the plan instead of inspecting the classes.
+     * </p>
+     *
+     * @param toClass transfer object class, contains the annotations for the conversion
+     * @param domainClass domain class as other side of conversion
+     * @return conversion descriptor
+     * @throws JTransfoException cannot build converter
+     */
+    public ToConverter getLazyToConverter(Class toClass, Class domainClass) throws JTransfoException {
+        MappingPlan snapshotPlan = getSnapshotPlan(toClass, domainClass);
+        List<String> preConverterNames = null != snapshotPlan ? snapshotPlan.getPreConverters() :
+                getPreConverterNames(toClass);
+        MappingPlan plan = new MappingPlan(toClass.getName(), domainClass.getName(), preConverterNames);
+        ToConverter converter = withPreConverter(preConverterNames);
+        converter.setToCreator(reflectionHelper.getToCreator(toClass));
+        converter.setToToInitializer((toTo, toArguments) -> {
+            if (!buildToTo(toClass, domainClass, snapshotPlan, toTo, toArguments)) {
+                toTo.clear();
+                toArguments.clear();
+                buildToTo(toClass, domainClass, converter.getToCreator(), toTo, toArguments, plan);
+            } else {
+                plan.copy(snapshotPlan, true);
+                mappingPlans.put(plan.getToClass(), plan);
+            }
+        });
+        converter.setToDomainInitializer(toDomain -> {
+            if (!buildToDomain(toClass, domainClass, snapshotPlan, toDomain)) {
+                toDomain.clear();
+                buildToDomain(toClass, domainClass, toDomain, plan);
+            } else {
+                plan.copy(snapshotPlan, false);
+                mappingPlans.put(plan.getToClass(), plan);
+            }
+        });
+        return converter;
+    }
+
+    private void buildToTo(Class toClass, Class domainClass, ToCreator toCreator, List<Converter> toTo,
+            List<Converter> toArguments, MappingPlan plan) {
+        Map<String, Integer> arguments = getCreatorArguments(toCreator);
+        MappingPlan.Builder builder = new MappingPlan.Builder(stamps, toClass, domainClass);
+        buildConverters(toClass, domainClass, arguments, toTo, toArguments, null, builder);
+        if (!arguments.isEmpty()) {
+            throw new JTransfoException(String.format("Creator for class %s has parameters for fields %s which are " +
+                    "not mapped.", toClass.getName(), arguments.keySet()));
+        }
+        List<String> postConverterNames = getPostConverterNames(toClass);
+        completeToTo(toTo, toArguments, getPostConverters(postConverterNames));
+        if (builder.isComplete()) {
+            plan.setToTo(builder, postConverterNames);
+            mappingPlans.put(plan.getToClass(), plan);
+        }
+    }
+
+    private void buildToDomain(Class toClass, Class domainClass, List<Converter> toDomain, MappingPlan plan) {
+        MappingPlan.Builder builder = new MappingPlan.Builder(stamps, toClass, domainClass);
+        buildConverters(toClass, domainClass, new LinkedHashMap<>(), null, null, toDomain, builder);
+        List<String> postConverterNames = getPostConverterNames(toClass);
+        completeToDomain(toDomain, getPostConverters(postConverterNames));
+        if (builder.isComplete()) {
+            plan.setToDomain(builder, postConverterNames);
+            mappingPlans.put(plan.getToClass(), plan);
+        }
+    }
+
+    private void completeToTo(List<Converter> toTo, List<Converter> toArguments, List<PostConverter> postConverters) {
+        shareCommonPaths(toArguments);
+        fuseIdentityCopies(toArguments);
+        shareCommonPaths(toTo);
+        fuseIdentityCopies(toTo);
+        for (PostConverter postConverter : postConverters) {
+            toTo.add(postConverter::postConvertToTo);
+        }
+    }
+
+    private void completeToDomain(List<Converter> toDomain, List<PostConverter> postConverters) {
+        shareCommonPaths(toDomain);
+        fuseIdentityCopies(toDomain);
+        for (PostConverter postConverter : postConverters) {
+            toDomain.add(postConverter::postConvertToDomain);
+        }
+    }
+
+    /**
+     * Build the converters for domain to transfer object using a mapping plan from the snapshot.
+     *
+     * @return true when the converters were built, false when the plan cannot be used
+     */
+    private boolean buildToTo(Class toClass, Class domainClass, MappingPlan plan, List<Converter> toTo,
+            List<Converter> toArguments) {
+        if (null == plan || null == plan.getToTo()) {
+            return false;
+        }
+        try {
+            for (MappingPlan.FieldMapping mapping : plan.getToTo()) {
+                buildConverters(toClass, domainClass, mapping, mapping.getArgument() < 0 ? toTo : toArguments, null);
+            }
+            completeToTo(toTo, toArguments, getPostConverters(plan.getPostConverters()));
+            return true;
+        } catch (ReflectiveOperationException | RuntimeException | LinkageError ex) {
+            return false; // classes do not match the plan, inspect them instead
+        }
+    }
 
+    /**
+     * Build the converters for transfer to domain object using a mapping plan from the snapshot.
+     *
+     * @return true when the converters were built, false when the plan cannot be used
+     */
+    private boolean buildToDomain(Class toClass, Class domainClass, MappingPlan plan, List<Converter> toDomain) {
+        if (null == plan || null == plan.getToDomain()) {
+            return false;
+        }
+        try {
+            for (MappingPlan.FieldMapping mapping : plan.getToDomain()) {
+                buildConverters(toClass, domainClass, mapping, null, toDomain);
+            }
+            completeToDomain(toDomain, getPostConverters(plan.getPostConverters()));
+            return true;
+        } catch (ReflectiveOperationException | RuntimeException | LinkageError ex) {
+            return false; // classes do not match the plan, inspect them instead
+        }
+    }
+
+    /**
+     * Build the converters for the fields of the transfer object, for one direction.
+     *
+     * @param toClass transfer object class
+     * @param domainClass domain class
+     * @param arguments argument index for the fields which are passed to the creator, mapped fields are removed
+     * @param toTo converters for domain to transfer object, null when not built
+     * @param toArguments converters for the creator arguments, null when not built
+     * @param toDomain converters for transfer to domain object, null when not built
+     * @param plan records the mapping for the direction which is built
+     */
+    private void buildConverters(Class toClass, Class domainClass, Map<String, Integer> arguments,
+            List<Converter> toTo, List<Converter> toArguments, List<Converter> toDomain, MappingPlan.Builder plan) {
         List<SyntheticField> domainFields = reflectionHelper.getSyntheticFields(domainClass);
         for (Field field : reflectionHelper.getFields(toClass)) {
             boolean isTransient = Modifier.isTransient(field.getModifiers());
@@ -75,13 +233,114 @@ public class ConverterHelper {
 
                 boolean isStatic = (0 != (field.getModifiers() & Modifier.STATIC));
                 if (0 != mappedBies.size() || !isStatic) {
-                    buildConverters(field, domainFields, domainClass, converter, mappedBy);
+                    Integer argument = arguments.remove(field.getName());
+                    // fields which are passed to the creator are converted into the argument array
+                    buildConverters(field, domainFields, domainClass, mappedBy, argument,
+                            null == argument ? toTo : toArguments, toDomain, plan);
                 }
             }
         }
+    }
 
-        addPostConverter(converter, toClass);
-        return converter;
+    /**
+     * Replace each run of consecutive converters for transitive fields which share the start of their path by a
+     * single {@link SharedPathConverter}, so the shared intermediate object is only resolved once.
+     *
+     * @param converters converters for one direction, updated in place
+     */
+    void shareCommonPaths(List<Converter> converters) {
+        List<Converter> result = new ArrayList<>();
+        List<AbstractConverter> block = new ArrayList<>();
+        int shared = 0;
+        for (Converter converter : converters) {
+            SyntheticField[] path = getPath(converter);
+            int length = 0;
+            if (null != path && !block.isEmpty() && block.get(0).getClass() == converter.getClass()) {
+                length = SharedPathConverter.sharedPathLength(getPath(block.get(0)), path);
+                length = Math.min(length, 1 == block.size() ? length : shared);
+            }
+            if (length > 0) {
+                shared = length;
+                block.add((AbstractConverter) converter);
+            } else {
+                addSharedPathBlock(result, block, shared);
+                if (null != path && path.length > 1) {
+                    block.add((AbstractConverter) converter);
+                } else {
+                    result.add(converter);
+                }
+            }
+        }
+        addSharedPathBlock(result, block, shared);
+        converters.clear();
+        converters.addAll(result);
+    }
+
+    private SyntheticField[] getPath(Converter converter) {
+        if (converter instanceof ToToConverter) {
+            return ((ToToConverter) converter).getDomainFields();
+        }
+        if (converter instanceof ToDomainConverter) {
+            return ((ToDomainConverter) converter).getDomainFields();
+        }
+        return null;
+    }
+
+    private void addSharedPathBlock(List<Converter> result, List<AbstractConverter> block, int shared) {
+        if (block.size() > 1) {
+            result.add(new SharedPathConverter(shared, new ArrayList<>(block)));
+        } else {
+            result.addAll(block);
+        }
+        block.clear();
+    }
+
+    /**
+     * Replace each run of consecutive converters which copy a field without path or type conversion by a single
+     * {@link FusedCopyConverter}.
+     *
+     * @param converters converters for one direction, updated in place
+     */
+    void fuseIdentityCopies(List<Converter> converters) {
+        List<Converter> result = new ArrayList<>();
+        List<AbstractConverter> block = new ArrayList<>();
+        for (Converter converter : converters) {
+            if (FusedCopyConverter.isIdentityCopy(converter)) {
+                block.add((AbstractConverter) converter);
+            } else {
+                addBlock(result, block);
+                result.add(converter);
+            }
+        }
+        addBlock(result, block);
+        converters.clear();
+        converters.addAll(result);
+    }
+
+    private void addBlock(List<Converter> result, List<AbstractConverter> block) {
+        if (block.size() > 1) {
+            result.add(new FusedCopyConverter(new ArrayList<>(block)));
+        } else {
+            result.addAll(block);
+        }
+        block.clear();
+    }
+
+    /**
+     * Get the index of the creator argument for the fields.
+     *
+     * @param toCreator creator for the transfer object, may be null
+     * @return map with argument index for each field which is passed to the creator
+     */
+    private Map<String, Integer> getCreatorArguments(ToCreator toCreator) {
+        Map<String, Integer> arguments = new LinkedHashMap<>();
+        if (null != toCreator) {
+            String[] fieldNames = toCreator.getFieldNames();
+            for (int i = 0; i < fieldNames.length; i++) {
+                arguments.put(fieldNames[i], i);
+            }
+        }
+        return arguments;
     }
 
     private SyntheticField[] getDomainField(Field field, List<SyntheticField> domainFields, Class domainClass,
@@ -120,9 +379,11 @@ public class ConverterHelper {
     }
 
     private void buildConverters(Field field, List<SyntheticField> domainFields, Class domainClass,
-            ToConverter converter, MappedBy mappedBy) {
+            MappedBy mappedBy, Integer argument, List<Converter> toToConverters, List<Converter> toDomainConverters,
+            MappingPlan.Builder plan) {
         reflectionHelper.makeAccessible(field);
         SyntheticField sField = new SimpleSyntheticField(field);
+        SyntheticField toToField = null == argument ? sField : new ArgumentSyntheticField(sField, argument);
         List<MapOnly> mapOnlies = getMapOnlies(field);
         if (null == mapOnlies) {
             SyntheticField[] domainField = getDomainField(field, domainFields, domainClass, mappedBy);
@@ -131,20 +392,30 @@ public class ConverterHelper {
             }
             TypeConverter typeConverter = getDeclaredTypeConverter(mappedBy);
             if (null == typeConverter) {
-                typeConverter = getDefaultTypeConverter(field.getGenericType(),
+                typeConverter = getDefaultTypeConverter(field.getDeclaringClass(), field.getGenericType(),
                         domainField[domainField.length - 1].getGenericType());
             }
-            if (0 == (field.getModifiers() & Modifier.FINAL)) { // cannot write final fields
-                converter.getToTo().add(new ToToConverter(sField, domainField, typeConverter));
+            // cannot write final fields
+            if (null != toToConverters && (null != argument || 0 == (field.getModifiers() & Modifier.FINAL))) {
+                toToConverters.add(newToToConverter(toToField, domainField, typeConverter));
+                plan.addTarget(plan.addField(field, argument, false), domainField,
+                        getTypeConverterReference(typeConverter), null);
             }
-            if (null == mappedBy || !mappedBy.readOnly()) {
-                converter.getToDomain().add(new ToDomainConverter(sField, domainField, typeConverter));
+            if (null != toDomainConverters && (null == mappedBy || !mappedBy.readOnly())) {
+                toDomainConverters.add(newToDomainConverter(sField, domainField, typeConverter));
+                plan.addTarget(plan.addField(field, argument, false), domainField,
+                        getTypeConverterReference(typeConverter), null);
             }
         } else {
             TaggedConverter toTo = new TaggedConverter();
             TaggedConverter toDomain = new TaggedConverter();
-            converter.getToTo().add(toTo);
-            converter.getToDomain().add(toDomain);
+            if (null != toToConverters) {
+                toToConverters.add(toTo);
+            }
+            if (null != toDomainConverters) {
+                toDomainConverters.add(toDomain);
+            }
+            MappingPlan.FieldMapping fieldMapping = plan.addField(field, argument, true);
 
             for (MapOnly mapOnly : mapOnlies) {
                 // determine new domain field if path or field declare on mapOnly
@@ -161,32 +432,244 @@ public class ConverterHelper {
                 }
                 TypeConverter typeConverter = getDeclaredTypeConverter(mappedBy);
                 if (null == typeConverter) {
-                    typeConverter = getDefaultTypeConverter(field.getGenericType(),
+                    typeConverter = getDefaultTypeConverter(field.getDeclaringClass(), field.getGenericType(),
                             mapOnlyDomainField[mapOnlyDomainField.length - 1].getGenericType());
                 }
                 TypeConverter moTypeConverter = getDeclaredTypeConverter(mapOnly, typeConverter);
-                ToToConverter ttc = new ToToConverter(sField, mapOnlyDomainField, moTypeConverter);
-                toTo.addConverters(ttc, mapOnly.value());
-                if (!mapOnly.readOnly()) {
-                    ToDomainConverter tdc = new ToDomainConverter(sField, mapOnlyDomainField, moTypeConverter);
-                    toDomain.addConverters(tdc, mapOnly.value());
+                if (null != toToConverters) {
+                    toTo.addConverters(newToToConverter(toToField, mapOnlyDomainField, moTypeConverter),
+                            mapOnly.value());
+                    plan.addTarget(fieldMapping, mapOnlyDomainField, getTypeConverterReference(moTypeConverter),
+                            mapOnly.value());
+                }
+                if (null != toDomainConverters && !mapOnly.readOnly()) {
+                    toDomain.addConverters(newToDomainConverter(sField, mapOnlyDomainField, moTypeConverter),
+                            mapOnly.value());
+                    plan.addTarget(fieldMapping, mapOnlyDomainField, getTypeConverterReference(moTypeConverter),
+                            mapOnly.value());
                 }
             }
         }
     }
 
-    private ToConverter withPreConverter(Class toClass) {
+    private void buildConverters(Class toClass, Class domainClass, MappingPlan.FieldMapping mapping,
+            List<Converter> toToConverters, List<Converter> toDomainConverters) throws ReflectiveOperationException {
+        Field field = Class.forName(mapping.getDeclaringClass(), false, toClass.getClassLoader())
+                .getDeclaredField(mapping.getField());
+        reflectionHelper.makeAccessible(field);
+        SyntheticField sField = new SimpleSyntheticField(field);
+        SyntheticField toToField = mapping.getArgument() < 0 ? sField :
+                new ArgumentSyntheticField(sField, mapping.getArgument());
+        List<Converter> converters = null != toToConverters ? toToConverters : toDomainConverters;
+        TaggedConverter tagged = null;
+        if (mapping.isTagged()) {
+            tagged = new TaggedConverter();
+            converters.add(tagged);
+        }
+        for (MappingPlan.Target target : mapping.getTargets()) {
+            SyntheticField[] domainField = getDomainField(domainClass, target.getPath());
+            TypeConverter typeConverter = getTypeConverter(target.getTypeConverter());
+            Converter converter = null != toToConverters ? newToToConverter(toToField, domainField, typeConverter) :
+                    newToDomainConverter(sField, domainField, typeConverter);
+            if (null == tagged) {
+                converters.add(converter);
+            } else {
+                tagged.addConverters(converter, target.getTags().toArray(new String[0]));
+            }
+        }
+    }
+
+    private TypeConverter getTypeConverter(String reference) {
+        if (NO_CONVERSION.equals(reference)) {
+            return new NoConversionTypeConverter();
+        }
+        if (reference.startsWith("#")) {
+            return typeConvertersInOrder.get(Integer.parseInt(reference.substring(1)));
+        }
+        TypeConverter typeConverter = getDeclaredTypeConverter(reference, reference);
+        if (null == typeConverter) {
+            throw new JTransfoException("Type converter " + reference + " not found.");
+        }
+        return typeConverter;
+    }
+
+    /**
+     * Get the reference which is stored in a mapping plan to find the type converter again.
+     *
+     * @param typeConverter type converter
+     * @return reference, null when the type converter cannot be found again
+     */
+    private String getTypeConverterReference(TypeConverter typeConverter) {
+        for (int i = 0; i < typeConvertersInOrder.size(); i++) {
+            if (typeConvertersInOrder.get(i) == typeConverter) {
+                return "#" + i;
+            }
+        }
+        for (Map.Entry<String, TypeConverter> entry : declaredTypeConverterInstances.entrySet()) {
+            if (entry.getValue() == typeConverter) {
+                return entry.getKey();
+            }
+        }
+        if (NoConversionTypeConverter.class == typeConverter.getClass()) {
+            return NO_CONVERSION;
+        }
+        return null;
+    }
+
+    /**
+     * Resolve the path to a domain field from a mapping plan, like {@link #findField(List, String, String[], Class,
+     * boolean)} does.
+     */
+    private SyntheticField[] getDomainField(Class<?> domainClass, List<MappingPlan.PathElement> path)
+            throws NoSuchFieldException {
+        SyntheticField[] result = new SyntheticField[path.size()];
+        Class<?> owner = domainClass;
+        for (int i = 0; i < result.length; i++) {
+            MappingPlan.PathElement element = path.get(i);
+            for (SyntheticField field : reflectionHelper.getSyntheticFields(owner)) {
+                if (field.getName().equals(element.getName())) {
+                    result[i] = field;
+                    break;
+                }
+            }
+            if (null == result[i]) {
+                if (element.isField()) {
+                    throw new NoSuchFieldException(element.getName());
+                }
+                result[i] = new AccessorSyntheticField(reflectionHelper, owner, element.getName(),
+                        element.isReadOnly());
+            }
+            reflectionHelper.makeAccessible(result[i]);
+            owner = result[i].getType();
+        }
+        return result;
+    }
+
+    private Converter newToToConverter(SyntheticField toField, SyntheticField[] domainFields,
+            TypeConverter typeConverter) {
+        if (1 == domainFields.length) {
+            PrimitiveCopy copy = getPrimitiveCopy(domainFields[0], toField, typeConverter);
+            if (null != copy) {
+                return new PrimitiveToToConverter(toField, domainFields[0], copy);
+            }
+        }
+        return new ToToConverter(toField, domainFields, typeConverter);
+    }
+
+    private Converter newToDomainConverter(SyntheticField toField, SyntheticField[] domainFields,
+            TypeConverter typeConverter) {
+        if (1 == domainFields.length) {
+            PrimitiveCopy copy = getPrimitiveCopy(toField, domainFields[0], typeConverter);
+            if (null != copy) {
+                return new PrimitiveToDomainConverter(toField, domainFields[0], copy);
+            }
+        }
+        return new ToDomainConverter(toField, domainFields, typeConverter);
+    }
+
+    /**
+     * Get the copier which allows the value to be copied without boxing. This is only possible when both fields have
+     * the same primitive type, no type conversion is done and both fields support primitive access.
+     *
+     * @param from field to read from
+     * @param to field to write to
+     * @param typeConverter type converter for the field
+     * @return primitive copier or null when the value cannot be copied without boxing
+     */
+    PrimitiveCopy getPrimitiveCopy(SyntheticField from, SyntheticField to, TypeConverter typeConverter) {
+        if (NoConversionTypeConverter.class != typeConverter.getClass() ||
+                !(from instanceof AbstractSyntheticField) || !(to instanceof AbstractSyntheticField)) {
+            return null;
+        }
+        Class<?> type = from.getType();
+        if (!((AbstractSyntheticField) from).hasPrimitiveGetter(type) ||
+                !((AbstractSyntheticField) to).hasPrimitiveSetter(type)) {
+            return null;
+        }
+        return PrimitiveCopy.forType(type);
+    }
+
+    /**
+     * Get the plan from the snapshot, only when it can be used for the current classes and type converters.
+     *
+     * @param toClass transfer object class
+     * @param domainClass domain class
+     * @return plan, null when not available
+     */
+    private MappingPlan getSnapshotPlan(Class toClass, Class domainClass) {
+        MappingPlan.Snapshot current = snapshot;
+        if (null == current || !current.getConfiguration().equals(getConfiguration())) {
+            return null;
+        }
+        MappingPlan plan = current.get(toClass.getName());
+        if (null == plan || !plan.getDomainClass().equals(domainClass.getName()) ||
+                !plan.isCurrent(stamps, toClass.getClassLoader())) {
+            return null;
+        }
+        return plan;
+    }
+
+    /**
+     * Description of the type converters, a plan can only be reused when the type converters did not change.
+     *
+     * @return class name and stamp for each type converter, in order
+     */
+    private List<String> getConfiguration() {
+        List<String> result = configuration;
+        if (null == result) {
+            result = new ArrayList<>();
+            for (TypeConverter typeConverter : typeConvertersInOrder) {
+                result.add(typeConverter.getClass().getName() + ":" + stamps.get(typeConverter.getClass()));
+            }
+            configuration = result;
+        }
+        return result;
+    }
+
+    /**
+     * Write the mapping plans for all converters which were built.
+     *
+     * @param out output stream
+     * @throws IOException cannot write
+     */
+    void writeMappingPlans(OutputStream out) throws IOException {
+        MappingPlan.writeAll(out, getConfiguration(), new ArrayList<>(mappingPlans.values()));
+    }
+
+    /**
+     * Read mapping plans which are used when building converters. Plans which do not match the current classes or
+     * type converters are ignored.
+     *
+     * @param in input stream
+     * @return number of plans which were read
+     * @throws IOException cannot read
+     */
+    int readMappingPlans(InputStream in) throws IOException {
+        MappingPlan.Snapshot read = MappingPlan.readAll(in);
+        snapshot = read;
+        return read.size();
+    }
+
+    private List<String> getPreConverterNames(Class toClass) {
         List<PreConvert.List> preConvertListAnnotations =
                 reflectionHelper.getAnnotationWithMeta(toClass, PreConvert.List.class);
-        List<PreConvert> preConvertAnnotations = reflectionHelper.getAnnotationWithMeta(toClass, PreConvert.class);
+        List<PreConvert> preConvertAnnotations =
+                new ArrayList<>(reflectionHelper.getAnnotationWithMeta(toClass, PreConvert.class));
         preConvertListAnnotations.forEach(list -> preConvertAnnotations.addAll(Arrays.asList(list.value())));
-        if (preConvertAnnotations.isEmpty()) {
+        List<String> names = new ArrayList<>();
+        for (PreConvert ann : preConvertAnnotations) {
+            names.add(getConverterName(ann.value(), ann.converterClass()));
+        }
+        return names;
+    }
+
+    private ToConverter withPreConverter(List<String> preConverterNames) {
+        if (preConverterNames.isEmpty()) {
             return new ToConverter();
         } else {
             List<PreConverter> preConverters = new ArrayList<>();
-            for (PreConvert ann : preConvertAnnotations) {
-                preConverters.add(
-                        getConverter(ann.value(), ann.converterClass(), preConverterInstances, "preConverter"));
+            for (String name : preConverterNames) {
+                preConverters.add(getConverter(name, preConverterInstances, "preConverter"));
             }
             if (preConverters.size() == 1) {
                 return new ToConverter(preConverters.get(0));
@@ -196,25 +679,35 @@ public class ConverterHelper {
         }
     }
 
-    private void addPostConverter(ToConverter converter, Class toClass) {
+    private List<String> getPostConverterNames(Class toClass) {
         List<PostConvert.List> postConvertListAnnotations =
                 reflectionHelper.getAnnotationWithMeta(toClass, PostConvert.List.class);
-        List<PostConvert> postConvertAnnotations = reflectionHelper.getAnnotationWithMeta(toClass, PostConvert.class);
+        List<PostConvert> postConvertAnnotations =
+                new ArrayList<>(reflectionHelper.getAnnotationWithMeta(toClass, PostConvert.class));
         postConvertListAnnotations.forEach(list -> postConvertAnnotations.addAll(Arrays.asList(list.value())));
+        List<String> names = new ArrayList<>();
         for (PostConvert ann : postConvertAnnotations) {
-            PostConverter postConverter =
-                    getConverter(ann.value(), ann.converterClass(), postConverterInstances, "postConverter");
-            converter.addToDomain(postConverter::postConvertToDomain);
-            converter.addToTo(postConverter::postConvertToTo);
+            names.add(getConverterName(ann.value(), ann.converterClass()));
+        }
+        return names;
+    }
+
+    private List<PostConverter> getPostConverters(List<String> postConverterNames) {
+        List<PostConverter> postConverters = new ArrayList<>();
+        for (String name : postConverterNames) {
+            postConverters.add(getConverter(name, postConverterInstances, "postConverter"));
         }
+        return postConverters;
     }
 
-    private <C> C getConverter(String converterName, Class converterClass,
-            Map<String, C> converterInstances, String typeForException) {
-        String name = converterName;
-        if (PreConvert.DEFAULT_NAME.equals(name)) {
-            name = converterClass.getName();
+    private String getConverterName(String converterName, Class converterClass) {
+        if (PreConvert.DEFAULT_NAME.equals(converterName)) {
+            return converterClass.getName();
         }
+        return converterName;
+    }
+
+    private <C> C getConverter(String name, Map<String, C> converterInstances, String typeForException) {
         C converter = converterInstances.get(name);
         if (null == converter) {
             throw new JTransfoException(String.format("Cannot find %s %s.", typeForException, name));
@@ -318,10 +811,13 @@ public class ConverterHelper {
         }
         if (!MappedBy.DEFAULT_TYPE_CONVERTER.equals(typeConverterClass)) {
             TypeConverter typeConverter = typeConverterInstances.get(typeConverterClass);
+            if (null == typeConverter) {
+                typeConverter = declaredTypeConverterInstances.get(typeConverterClass);
+            }
             if (null == typeConverter) {
                 try {
                     typeConverter = reflectionHelper.newInstance(typeConverterClass);
-                    typeConverterInstances.put(typeConverterClass, typeConverter);
+                    declaredTypeConverterInstances.put(typeConverterClass, typeConverter);
                 } catch (ClassNotFoundException cnfe) {
                     throw new JTransfoException(DECLARED_TYPE_CONVERTER_CLASS + typeConverterClass +
                             " cannot be found.", cnfe);
@@ -372,6 +868,36 @@ public class ConverterHelper {
         return fallback;
     }
 
+    /**
+     * Check whether fields of the given types are copied as is, without type conversion.
+     *
+     * @param types field types, each type is used for both the transfer and domain object field
+     * @return true when no type conversion is needed for all types
+     */
+    boolean isCopiedWithoutConversion(Collection<Class<?>> types) {
+        for (Class<?> type : types) {
+            if (NoConversionTypeConverter.class != getDefaultTypeConverter(type, type, type).getClass()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Clear the cached type converter resolution and the type converters which were instantiated because they were
+     * declared in {@link MappedBy}. Also drops the mapping plans, the stamps and the reflection information of the
+     * classes. Needed when the transfer object classes may have changed.
+     */
+    void clearCaches() {
+        defaultTypeConverters = newDefaultTypeConverters();
+        declaredTypeConverterInstances.clear();
+        snapshot = null;
+        mappingPlans.clear();
+        configuration = null;
+        stamps = new MappingPlan.Stamps();
+        reflectionHelper.clearCaches();
+    }
+
     /**
      * Set the list of type converters. When searching a type conversion, the list is traversed front to back.
      *
@@ -383,6 +909,9 @@ public class ConverterHelper {
         newList.addAll(typeConverters);
         newList.lock();
         typeConvertersInOrder = newList;
+        defaultTypeConverters = newDefaultTypeConverters();
+        mappingPlans.clear();
+        configuration = null;
 
         // update list of converters to allow mentioning type converter by name, class name is used if no name provided
         for (TypeConverter tc : newList) {
@@ -397,14 +926,47 @@ public class ConverterHelper {
         }
     }
 
+    /**
+     * Drop the cached type converter resolution for the fields of a transfer object class and its super classes.
+     * Called when the converter for the class is evicted.
+     *
+     * @param toClass transfer object class
+     */
+    void evict(Class<?> toClass) {
+        ClassValue<Map<TypePair, TypeConverter>> cache = defaultTypeConverters;
+        for (Class<?> type = toClass; null != type; type = type.getSuperclass()) {
+            cache.remove(type);
+        }
+    }
+
     /**
      * Get the default type converter given the field types to convert between.
+     * <p>
+     * The result is remembered with the class which declares the transfer object field, for each combination of
+     * types, until the type converters are changed, the caches are cleared or the converter for the class is evicted.
+     * This way the field types are not kept reachable longer than the class which uses them.
+     * </p>
      *
+     * @param owner class which declares the transfer object field
      * @param toField transfer object field class
      * @param domainField domain object field class
      * @return type converter
      */
-    TypeConverter getDefaultTypeConverter(Type toField, Type domainField) {
+    TypeConverter getDefaultTypeConverter(Class<?> owner, Type toField, Type domainField) {
+        return defaultTypeConverters.get(owner).computeIfAbsent(new TypePair(toField, domainField),
+                pair -> findDefaultTypeConverter(toField, domainField));
+    }
+
+    private static ClassValue<Map<TypePair, TypeConverter>> newDefaultTypeConverters() {
+        return new ClassValue<Map<TypePair, TypeConverter>>() {
+            @Override
+            protected Map<TypePair, TypeConverter> computeValue(Class<?> type) {
+                return new ConcurrentHashMap<>();
+            }
+        };
+    }
+
+    private TypeConverter findDefaultTypeConverter(Type toField, Type domainField) {
         for (TypeConverter typeConverter : typeConvertersInOrder) {
             if (typeConverter.canConvert(toField, domainField)) {
                 return typeConverter;
@@ -447,4 +1009,35 @@ public class ConverterHelper {
         }
     }
 
+    /**
+     * Combination of transfer object and domain object type, key for the type converter resolution.
+     */
+    private static final class TypePair {
+
+        private final Type toType;
+        private final Type domainType;
+
+        private TypePair(Type toType, Type domainType) {
+            this.toType = toType;
+            this.domainType = domainType;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof TypePair)) {
+                return false;
+            }
+            TypePair other = (TypePair) o;
+            return toType.equals(other.toType) && domainType.equals(other.domainType);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * toType.hashCode() + domainType.hashCode();
+        }
+    }
+
 }
@@ -0,0 +1,122 @@
+/*
+ * This file is part of jTransfo, a library for converting to and from transfer objects.
+ * Copyright (c) PROGS bvba, Belgium
+ *
+ * The program is available in open source according to the Apache License, Version 2.0.
+ * For full licensing details, see LICENSE.txt in the project root.
+ */
+
+package org.jtransfo.internal;
+
+import org.jtransfo.Converter;
+import org.jtransfo.JTransfoException;
+import org.jtransfo.NoConversionTypeConverter;
+import org.jtransfo.TypeConverter;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Converter which copies a block of fields which need no type conversion and have no path in a single pass.
+ * <p>
+ * When a copy fails, the exception has the same message as the converter for that field would give.
+ * </p>
+ */
+public final class FusedCopyConverter implements Converter {
+
+    private final AbstractConverter[] converters;
+    private final SyntheticField[] from;
+    private final SyntheticField[] to;
+    private final PrimitiveCopy[] copies;
+
+    /**
+     * Constructor.
+     *
+     * @param converters identity copy converters to fuse, see {@link #isIdentityCopy(Converter)}
+     */
+    public FusedCopyConverter(List<AbstractConverter> converters) {
+        int size = converters.size();
+        this.converters = converters.toArray(new AbstractConverter[size]);
+        this.from = new SyntheticField[size];
+        this.to = new SyntheticField[size];
+        this.copies = new PrimitiveCopy[size];
+        for (int i = 0; i < size; i++) {
+            AbstractConverter converter = this.converters[i];
+            if (converter instanceof ToToConverter) {
+                from[i] = ((ToToConverter) converter).getDomainFields()[0];
+                to[i] = ((ToToConverter) converter).getToField();
+            } else if (converter instanceof ToDomainConverter) {
+                from[i] = ((ToDomainConverter) converter).getToField();
+                to[i] = ((ToDomainConverter) converter).getDomainFields()[0];
+            } else if (converter instanceof PrimitiveToToConverter) {
+                from[i] = ((PrimitiveToToConverter) converter).getDomainField();
+                to[i] = ((PrimitiveToToConverter) converter).getToField();
+                copies[i] = ((PrimitiveToToConverter) converter).getCopy();
+            } else if (converter instanceof PrimitiveToDomainConverter) {
+                from[i] = ((PrimitiveToDomainConverter) converter).getToField();
+                to[i] = ((PrimitiveToDomainConverter) converter).getDomainField();
+                copies[i] = ((PrimitiveToDomainConverter) converter).getCopy();
+            } else {
+                throw new IllegalArgumentException("Cannot fuse converter " + converter + ".");
+            }
+        }
+    }
+
+    /**
+     * Check whether the converter is a plain copy of a field which can be included in a fused block.
+     *
+     * @param converter converter to check
+     * @return true when the converter copies a field without path or type conversion
+     */
+    public static boolean isIdentityCopy(Converter converter) {
+        if (converter instanceof PrimitiveToToConverter || converter instanceof PrimitiveToDomainConverter) {
+            return true;
+        }
+        if (converter instanceof ToToConverter) {
+            ToToConverter toTo = (ToToConverter) converter;
+            return isIdentity(toTo.getDomainFields(), toTo.getTypeConverter());
+        }
+        if (converter instanceof ToDomainConverter) {
+            ToDomainConverter toDomain = (ToDomainConverter) converter;
+            return isIdentity(toDomain.getDomainFields(), toDomain.getTypeConverter());
+        }
+        return false;
+    }
+
+    /**
+     * Check whether a converter with given domain fields and type converter copies the value as is.
+     *
+     * @param domainFields path of domain fields
+     * @param typeConverter type converter
+     * @return true when there is no path and no type conversion
+     */
+    static boolean isIdentity(SyntheticField[] domainFields, TypeConverter typeConverter) {
+        return 1 == domainFields.length && NoConversionTypeConverter.class == typeConverter.getClass();
+    }
+
+    @Override
+    public void convert(Object source, Object target, String... tags) throws JTransfoException {
+        int i = 0;
+        try {
+            for (; i < converters.length; i++) {
+                if (null == copies[i]) {
+                    to[i].set(target, from[i].get(source));
+                } else {
+                    copies[i].copy(from[i], source, to[i], target);
+                }
+            }
+        } catch (IllegalAccessException | IllegalArgumentException e) {
+            throw converters[i].convertException(e);
+        }
+    }
+
+    /**
+     * Get the converters which were fused.
+     *
+     * @return fused converters in order
+     */
+    List<Converter> getConverters() {
+        return Collections.unmodifiableList(Arrays.asList(converters));
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * This file is part of jTransfo, a library for converting to and from transfer objects.
+ * Copyright (c) PROGS bvba, Belgium
+ *
+ * The program is available in open source according to the Apache License, Version 2.0.
+ * For full licensing details, see LICENSE.txt in the project root.
+ */
+
+package org.jtransfo.internal;
+
+import org.jtransfo.Converter;
+import org.jtransfo.JTransfoException;
+import org.jtransfo.TypeConverter;
+
+import java.util.Map;
+
+/**
+ * Converter which interprets a flat instruction stream as built by {@link InstructionToConverterCompiler}.
+ * <p>
+ * The program consists of opcodes with their operands inline in an int array. Operands refer to the constant pool.
+ * The main program starts at index 0, tag dispatch targets are appended after it. Each block ends with
+ * {@link #RETURN}.
+ * </p>
+ */
+public final class InstructionConverter implements Converter {
+
+    /** End of block. */
+    static final int RETURN = 0;
+    /** Start of the instructions for a converter: owner (for exception messages). */
+    static final int BEGIN = 1;
+    /** Set the value register to the source object. */
+    static final int LOAD_SOURCE = 2;
+    /** Read a field from the value register when not null: field. */
+    static final int WALK = 3;
+    /** Set the holder register to the target object. */
+    static final int LOAD_TARGET = 4;
+    /** Read a field from the holder register, fail when null: field, message. */
+    static final int WALK_TARGET = 5;
+    /** Apply the type converter from domain to transfer object: type converter, to field. */
+    static final int REVERSE = 6;
+    /** Apply the type converter from transfer object to domain: type converter, domain field. */
+    static final int CONVERT = 7;
+    /** Write the value register in the holder register: field. */
+    static final int STORE = 8;
+    /** Copy a primitive field from source to target: primitive copy, from field, to field. */
+    static final int COPY = 9;
+    /** Invoke a converter which cannot be expressed as instructions: converter. */
+    static final int CALL = 10;
+    /** Skip instructions when the tags contain a tag: tag, number of code elements to skip. */
+    static final int SKIP_IF_TAG = 11;
+    /** Execute the block for each of the tags which has one: map from tag to block start. */
+    static final int DISPATCH = 12;
+
+    private final int[] code;
+    private final Object[] constants;
+
+    /**
+     * Constructor.
+     *
+     * @param code instructions
+     * @param constants constant pool
+     */
+    InstructionConverter(int[] code, Object[] constants) {
+        this.code = code;
+        this.constants = constants;
+    }
+
+    @Override
+    public void convert(Object source, Object target, String... tags) throws JTransfoException {
+        execute(0, source, target, tags);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void execute(int start, Object source, Object target, String[] tags) {
+        AbstractConverter owner = null;
+        Object value = null;
+        Object holder = null;
+        int pc = start;
+        try {
+            while (true) {
+                switch (code[pc++]) {
+                    case RETURN:
+                        return;
+                    case BEGIN:
+                        owner = (AbstractConverter) constants[code[pc++]];
+                        break;
+                    case LOAD_SOURCE:
+                        value = source;
+                        break;
+                    case WALK:
+                        SyntheticField field = (SyntheticField) constants[code[pc++]];
+                        if (null != value) {
+                            value = field.get(value);
+                        }
+                        break;
+                    case LOAD_TARGET:
+                        holder = target;
+                        break;
+                    case WALK_TARGET:
+                        holder = ((SyntheticField) constants[code[pc++]]).get(holder);
+                        String message = (String) constants[code[pc++]];
+                        if (null == holder) {
+                            throw new JTransfoException(message);
+                        }
+                        break;
+                    case REVERSE:
+                        value = ((TypeConverter) constants[code[pc++]])
+                                .reverse(value, (SyntheticField) constants[code[pc++]], holder, tags);
+                        break;
+                    case CONVERT:
+                        value = ((TypeConverter) constants[code[pc++]])
+                                .convert(value, (SyntheticField) constants[code[pc++]], holder, tags);
+                        break;
+                    case STORE:
+                        ((SyntheticField) constants[code[pc++]]).set(holder, value);
+                        break;
+                    case COPY:
+                        ((PrimitiveCopy) constants[code[pc++]]).copy((SyntheticField) constants[code[pc++]], source,
+                                (SyntheticField) constants[code[pc++]], target);
+                        break;
+                    case CALL:
+                        owner = null;
+                        ((Converter) constants[code[pc++]]).convert(source, target, tags);
+                        break;
+                    case SKIP_IF_TAG:
+                        String tag = (String) constants[code[pc++]];
+                        int skip = code[pc++];
+                        if (contains(tags, tag)) {
+                            pc += skip;
+                        }
+                        break;
+                    case DISPATCH:
+                        owner = null;
+                        Map<String, Integer> blocks = (Map<String, Integer>) constants[code[pc++]];
+                        if (null != tags) {
+                            for (String t : tags) {
+                                Integer block = blocks.get(t);
+                                if (null != block) {
+                                    execute(block, source, target, tags);
+                                }
+                            }
+                        }
+                        break;
+                    default:
+                        throw new IllegalStateException("Unknown opcode " + code[pc - 1] + " at " + (pc - 1) + ".");
+                }
+            }
+        } catch (IllegalAccessException iae) {
+            throw owner.convertException(iae);
+        } catch (IllegalArgumentException iae) {
+            if (null == owner) {
+                throw iae;
+            }
+            throw owner.convertException(iae);
+        }
+    }
+
+    private boolean contains(String[] tags, String key) {
+        for (String tag : tags) {
+            if (key.equals(tag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * This file is part of jTransfo, a library for converting to and from transfer objects.
+ * Copyright (c) PROGS bvba, Belgium
+ *
+ * The program is available in open source according to the Apache License, Version 2.0.
+ * For full licensing details, see LICENSE.txt in the project root.
+ */
+
+package org.jtransfo.internal;
+
+import org.jtransfo.Converter;
+import org.jtransfo.MapOnly;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiler which translates the converters for one direction into a flat instruction stream which is executed by
+ * {@link InstructionConverter}.
+ * <p>
+ * Field copies, transitive paths, type conversion and tag selection are expressed as instructions, so a conversion
+ * runs in a single loop with a single exception handler instead of a graph of converter objects. Other converters
+ * (like post converters) are invoked as is. No classes are generated, so this also works in environments where
+ * class generation is not allowed.
+ * </p>
+ */
+public class InstructionToConverterCompiler implements ToConverterCompiler {
+
+    @Override
+    public Converter compile(List<Converter> converters) {
+        if (converters.isEmpty()) {
+            return null;
+        }
+        Program program = new Program();
+        for (Converter converter : converters) {
+            program.emit(converter);
+        }
+        return program.build();
+    }
+
+    /**
+     * Instruction stream which is being built.
+     */
+    private static final class Program {
+
+        private int[] code = new int[64];
+        private int size;
+        private final Map<Object, Integer> constants = new IdentityHashMap<>();
+        private final Deque<Block> blocks = new ArrayDeque<>();
+        private final Map<Converter, Integer> blockStarts = new IdentityHashMap<>();
+
+        private void emit(Converter converter) {
+            if (converter instanceof PrimitiveToToConverter) {
+                PrimitiveToToConverter primitive = (PrimitiveToToConverter) converter;
+                add(InstructionConverter.BEGIN, constant(converter));
+                add(InstructionConverter.COPY, constant(primitive.getCopy()));
+                add(constant(primitive.getDomainField()), constant(primitive.getToField()));
+            } else if (converter instanceof PrimitiveToDomainConverter) {
+                PrimitiveToDomainConverter primitive = (PrimitiveToDomainConverter) converter;
+                add(InstructionConverter.BEGIN, constant(converter));
+                add(InstructionConverter.COPY, constant(primitive.getCopy()));
+                add(constant(primitive.getToField()), constant(primitive.getDomainField()));
+            } else if (converter instanceof ToToConverter) {
+                emitToTo((ToToConverter) converter);
+            } else if (converter instanceof ToDomainConverter) {
+                emitToDomain((ToDomainConverter) converter);
+            } else if (converter instanceof TaggedConverter) {
+                emitTagged((TaggedConverter) converter);
+            } else if (converter instanceof FusedCopyConverter) {
+                ((FusedCopyConverter) converter).getConverters().forEach(this::emit);
+            } else {
+                add(InstructionConverter.CALL, constant(converter));
+            }
+        }
+
+        private void emitToTo(ToToConverter converter) {
+            add(InstructionConverter.BEGIN, constant(converter));
+            add(InstructionConverter.LOAD_SOURCE);
+            for (SyntheticField field : converter.getDomainFields()) {
+                add(InstructionConverter.WALK, constant(field));
+            }
+            add(InstructionConverter.LOAD_TARGET);
+            add(InstructionConverter.REVERSE, constant(converter.getTypeConverter()));
+            add(constant(converter.getToField()));
+            add(InstructionConverter.STORE, constant(converter.getToField()));
+        }
+
+        private void emitToDomain(ToDomainConverter converter) {
+            SyntheticField[] domainFields = converter.getDomainFields();
+            add(InstructionConverter.BEGIN, constant(converter));
+            add(InstructionConverter.LOAD_SOURCE);
+            add(InstructionConverter.WALK, constant(converter.getToField()));
+            add(InstructionConverter.LOAD_TARGET);
+            for (int i = 0; i < domainFields.length - 1; i++) {
+                add(InstructionConverter.WALK_TARGET, constant(domainFields[i]));
+                add(constant(converter.nullPathMessage(i)));
+            }
+            SyntheticField domainField = domainFields[domainFields.length - 1];
+            add(InstructionConverter.CONVERT, constant(converter.getTypeConverter()));
+            add(constant(domainField));
+            add(InstructionConverter.STORE, constant(domainField));
+        }
+
+        /**
+         * Tagged converters: "*" inline, "!" tags as conditional inline blocks, other tags as dispatched blocks.
+         *
+         * @param converter tagged converter
+         */
+        private void emitTagged(TaggedConverter converter) {
+            Converter always = converter.getConverters().get(MapOnly.ALWAYS);
+            if (null != always) {
+                emit(always);
+            }
+            for (Map.Entry<String, Converter> entry : converter.getNotConverters().entrySet()) {
+                add(InstructionConverter.SKIP_IF_TAG, constant(entry.getKey()));
+                add(0);
+                int skipIndex = size - 1;
+                emit(entry.getValue());
+                code[skipIndex] = size - skipIndex - 1;
+            }
+            if (!converter.getConverters().isEmpty()) {
+                Map<String, Integer> table = new HashMap<>();
+                add(InstructionConverter.DISPATCH, constant(table));
+                for (Map.Entry<String, Converter> entry : converter.getConverters().entrySet()) {
+                    blocks.add(new Block(table, entry.getKey(), entry.getValue()));
+                }
+            }
+        }
+
+        private InstructionConverter build() {
+            add(InstructionConverter.RETURN);
+            while (!blocks.isEmpty()) {
+                Block block = blocks.remove();
+                Integer start = blockStarts.get(block.converter);
+                if (null == start) {
+                    start = size;
+                    blockStarts.put(block.converter, start);
+                    emit(block.converter);
+                    add(InstructionConverter.RETURN);
+                }
+                block.table.put(block.tag, start);
+            }
+            Object[] pool = new Object[constants.size()];
+            for (Map.Entry<Object, Integer> entry : constants.entrySet()) {
+                pool[entry.getValue()] = entry.getKey();
+            }
+            return new InstructionConverter(Arrays.copyOf(code, size), pool);
+        }
+
+        private int constant(Object constant) {
+            return constants.computeIfAbsent(constant, c -> constants.size());
+        }
+
+        private void add(int... values) {
+            if (size + values.length > code.length) {
+                code = Arrays.copyOf(code, Math.max(code.length * 2, size + values.length));
+            }
+            System.arraycopy(values, 0, code, size, values.length);
+            size += values.length;
+        }
+    }
+
+    /**
+     * Converter for a tag which still needs to be emitted.
+     */
+    private static final class Block {
+
+        private final Map<String, Integer> table;
+        private final String tag;
+        private final Converter converter;
+
+        private Block(Map<String, Integer> table, String tag, Converter converter) {
+            this.table = table;
+            this.tag = tag;
+            this.converter = converter;
+        }
+    }
+}
@@ -23,16 +23,39 @@ import org.jtransfo.ObjectFinder;
 import org.jtransfo.ObjectReplacer;
 import org.jtransfo.PostConverter;
 import org.jtransfo.PreConverter;
+import org.jtransfo.PrewarmReport;
 import org.jtransfo.ReadOnlyDomainAutomaticTypeConverter;
 import org.jtransfo.ToConverter;
 import org.jtransfo.ToDomainTypeConverter;
+import org.jtransfo.ToMapper;
 import org.jtransfo.TypeConverter;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.ref.Reference;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Method;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
 
 /**
  * jTransfo main access point standard implementation.
@@ -41,9 +64,21 @@ public class JTransfoImpl implements JTransfo, ConfigurableJTransfo, ConvertSour
 
     private static final String[] DEFAULT_TAGS_WHEN_NO_TAGS = {JTransfo.DEFAULT_TAG_WHEN_NO_TAGS};
 
+    /**
+     * Default time in milliseconds during which a failure to build a converter is remembered.
+     */
+    public static final long DEFAULT_FAILED_CONVERTER_RETENTION = 5000L;
+
     private ToHelper toHelper = new ToHelper();
     private ConverterHelper converterHelper = new ConverterHelper();
-    private Map<Class, ToConverter> converters = new ConcurrentHashMap<>();
+    private volatile ClassValue<ConverterSlot> converters = newConverters();
+    private volatile long failedConverterRetention = TimeUnit.MILLISECONDS.toNanos(DEFAULT_FAILED_CONVERTER_RETENTION);
+    private volatile int converterCacheLimit;
+    private final Map<Reference<ConverterSlot>, Boolean> cachedSlots = new LinkedHashMap<>(16, 0.75f, true);
+    private final ReentrantLock cachedSlotsLock = new ReentrantLock();
+    private final LongAdder converterHits = new LongAdder();
+    private final LongAdder converterMisses = new LongAdder();
+    private final LongAdder converterEvictions = new LongAdder();
     private List<ObjectFinder> modifyableObjectFinders = new ArrayList<>();
     private List<ObjectFinder> internalObjectFinders = new ArrayList<>();
     private LockableList<ObjectFinder> objectFinders = new LockableList<>();
@@ -57,6 +92,16 @@ public class JTransfoImpl implements JTransfo, ConfigurableJTransfo, ConvertSour
     private List<ClassReplacer> modifyableClassReplacers = new ArrayList<>();
     private LockableList<ObjectReplacer> objectReplacers = new LockableList<>();
     private LockableList<ClassReplacer> classReplacers = new LockableList<>();
+    private volatile ClassValue<Boolean> replaceableClasses;
+    private volatile ClassValue<Class> replacedClasses;
+    private ToConverterCompiler toConverterCompiler;
+    private final ClassValue<AtomicReference<ToMapper>> toMappers = new ClassValue<AtomicReference<ToMapper>>() {
+        @Override
+        protected AtomicReference<ToMapper> computeValue(Class<?> type) {
+            return new AtomicReference<>();
+        }
+    };
+    private volatile ToIndex toIndex;
 
     /**
      * Constructor.
@@ -84,6 +129,11 @@ public class JTransfoImpl implements JTransfo, ConfigurableJTransfo, ConvertSour
         updateClassReplacers();
         toHelper.setClassReplacer(this::replaceClass);
 
+        toIndex = ToIndex.load(getClassLoader());
+        toHelper.setIndex(toIndex);
+
+        loadToMappers();
+
         // CHECKSTYLE EMPTY_BLOCK: OFF
         try {
             ClassLoader cl = Thread.currentThread().getContextClassLoader();
@@ -227,6 +277,12 @@ public class JTransfoImpl implements JTransfo, ConfigurableJTransfo, ConvertSour
         newList.addAll(modifyableObjectReplacers);
         newList.lock();
         objectReplacers = newList;
+        replaceableClasses = new ClassValue<Boolean>() {
+            @Override
+            protected Boolean computeValue(Class<?> type) {
+                return newList.stream().anyMatch(replacer -> replacer.canReplace(type));
+            }
+        };
     }
 
     @Override
@@ -249,6 +305,13 @@ public class JTransfoImpl implements JTransfo, ConfigurableJTransfo, ConvertSour
         newList.addAll(modifyableClassReplacers);
         newList.lock();
         classReplacers = newList;
+        replacedClasses = new ClassValue<Class>() {
+            @Override
+            protected Class computeValue(Class<?> type) {
+                return applyClassReplacers(newList, type);
+            }
+        };
+        toHelper.clearCaches(); // sub types depend on the replaced domain classes
     }
 
     /**
@@ -384,6 +447,7 @@ public class JTransfoImpl implements JTransfo, ConfigurableJTransfo, ConvertSour
         Class<T> realTargetClass = replaceClass(targetClass);
         if (isToClass(realTargetClass)) {
             realTargetClass = (Class<T>) getToSubType(realTargetClass, source);
+            target = createTo(source, realTargetClass, tags);
         }
         while (null == target && i >= 0) {
             target = objectFinders.get(i--).getObject(realTargetClass, source, tags);
@@ -410,37 +474,437 @@ public class JTransfoImpl implements JTransfo, ConfigurableJTransfo, ConvertSour
         return toHelper.getToSubType(toType, replaceObject(domainObject));
     }
 
+    @Override
+    public PrewarmReport prewarm() {
+        long start = System.nanoTime();
+        ClassLoader cl = getClassLoader();
+        Set<Class<?>> classes = new LinkedHashSet<>();
+        for (String className : toIndex.getToClassNames()) {
+            addClass(classes, className, cl);
+        }
+        return prewarm(classes, start);
+    }
+
+    @Override
+    public PrewarmReport prewarm(Collection<Class<?>> toClasses) {
+        return prewarm(toClasses, System.nanoTime());
+    }
+
+    @Override
+    public PrewarmReport prewarm(String... packageNames) {
+        long start = System.nanoTime();
+        ClassLoader cl = getClassLoader();
+        Set<Class<?>> classes = new LinkedHashSet<>();
+        for (String packageName : packageNames) {
+            for (String className : ClassPathScanner.findClassNames(cl, packageName)) {
+                addClass(classes, className, cl);
+            }
+        }
+        return prewarm(classes, start);
+    }
+
+    @Override
+    public void saveMappingPlans(Path file) {
+        Path temp = null;
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                converterHelper.writeMappingPlans(out);
+            }
+            try {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException amnse) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException ioe) {
+            throw new JTransfoException("Cannot save mapping plans to " + file + ".", ioe);
+        } finally {
+            if (null != temp) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException ioe) {
+                    // nothing left to clean up or cannot be removed, the plans were saved or the error was reported
+                }
+            }
+        }
+    }
+
+    @Override
+    public int loadMappingPlans(Path file) {
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        try (InputStream in = Files.newInputStream(file)) {
+            return converterHelper.readMappingPlans(in);
+        } catch (IOException ioe) {
+            throw new JTransfoException("Cannot load mapping plans from " + file + ".", ioe);
+        }
+    }
+
+    private void addClass(Set<Class<?>> classes, String className, ClassLoader cl) {
+        try {
+            classes.add(Class.forName(className, false, cl));
+        } catch (ClassNotFoundException | LinkageError error) {
+            // class cannot be loaded, so it is not used as transfer object either
+        }
+    }
+
+    private PrewarmReport prewarm(Collection<Class<?>> toClasses, long start) {
+        List<Class<?>> candidates = toClasses.stream()
+                .distinct()
+                .filter(toClass -> !toClass.isInterface() && isToClass(toClass))
+                .collect(Collectors.toList());
+        Map<Class<?>, JTransfoException> errors = new ConcurrentHashMap<>();
+        ClassLoader cl = Thread.currentThread().getContextClassLoader();
+        candidates.parallelStream().forEach(toClass -> {
+            // class names are resolved using the context class loader, pool threads do not inherit it
+            Thread thread = Thread.currentThread();
+            ClassLoader original = thread.getContextClassLoader();
+            thread.setContextClassLoader(cl);
+            try {
+                ToConverter toConverter = getToConverter(toClass);
+                toConverter.getToTo();
+                toConverter.getToDomain();
+            } catch (JTransfoException jte) {
+                errors.put(toClass, jte);
+            } catch (RuntimeException | LinkageError ex) {
+                errors.put(toClass, new JTransfoException("Cannot build converter for " + toClass.getName() + ".",
+                        ex));
+            } finally {
+                thread.setContextClassLoader(original);
+            }
+        });
+        List<Class<?>> built = new ArrayList<>();
+        Map<Class<?>, JTransfoException> failures = new LinkedHashMap<>();
+        for (Class<?> toClass : candidates) {
+            if (errors.containsKey(toClass)) {
+                failures.put(toClass, errors.get(toClass));
+            } else {
+                built.add(toClass);
+            }
+        }
+        return new PrewarmReport(built, failures, System.nanoTime() - start);
+    }
+
+    /**
+     * Set the engine which compiles the conversion descriptors, for example {@link MethodHandleToConverterCompiler}
+     * or {@link InstructionToConverterCompiler}.
+     * <p>
+     * When null (the default), the list of converters is used as is. Changing the compiler clears the cache with
+     * converters.
+     * </p>
+     *
+     * @param toConverterCompiler compiler for the conversion descriptors, may be null
+     */
+    public void setToConverterCompiler(ToConverterCompiler toConverterCompiler) {
+        this.toConverterCompiler = toConverterCompiler;
+        clearCaches();
+    }
+
+    /**
+     * Register a mapper for a transfer object. When the mapper can be used, it is preferred over reflective
+     * conversion. Mappers which are registered in <code>META-INF/services/org.jtransfo.ToMapper</code> are registered
+     * automatically.
+     *
+     * @param toMapper mapper to register
+     */
+    public void registerToMapper(ToMapper toMapper) {
+        toMappers.get(toMapper.getToClass()).set(toMapper);
+        converters.get(toMapper.getToClass()).clear();
+        converters.remove(toMapper.getToClass());
+    }
+
+    /**
+     * Limit the number of converters which are cached. When the limit is exceeded, the least recently used converters
+     * are evicted together with their type converter resolution, they are rebuilt when needed again.
+     * <p>
+     * Independent of the limit, the cache does not prevent transfer object classes (and their class loader) from being
+     * garbage collected.
+     * </p>
+     *
+     * @param limit maximum number of cached converters, 0 for no limit (the default)
+     */
+    public void setConverterCacheLimit(int limit) {
+        this.converterCacheLimit = limit;
+        evictConverters();
+    }
+
+    /**
+     * Get the statistics for the converter cache.
+     *
+     * @return converter cache statistics
+     */
+    public ConverterCacheStatistics getConverterCacheStatistics() {
+        int size;
+        cachedSlotsLock.lock();
+        try {
+            purgeCachedSlots();
+            size = cachedSlots.size();
+        } finally {
+            cachedSlotsLock.unlock();
+        }
+        return new ConverterCacheStatistics(converterHits.sum(), converterMisses.sum(), converterEvictions.sum(), size);
+    }
+
     /**
-     * Clear cache with converters. Needed when classes are reloaded by something like jRebel or spring reloaded.
+     * Set the time during which a failure to build the converter for a transfer object class is remembered. During
+     * that time, conversions for the class fail with the same message without inspecting the class again. This also
+     * applies to the converters for each direction, which are built when that direction is first used.
+     *
+     * @param millis retention time in milliseconds, 0 to always retry
+     */
+    public void setFailedConverterRetention(long millis) {
+        this.failedConverterRetention = TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    /**
+     * Clear cache with converters and transfer object class information. Needed when classes are reloaded by something
+     * like jRebel or spring reloaded.
+     * <p>
+     * The build time index is read again to find the transfer objects for {@link #prewarm()}, but from then on the
+     * transfer objects are described using their annotations, as a reloaded class may not be in line with the index.
+     * </p>
      */
     public void clearCaches() {
-        converters.clear();
+        converters = newConverters();
+        cachedSlotsLock.lock();
+        try {
+            for (Reference<ConverterSlot> reference : cachedSlots.keySet()) {
+                ConverterSlot slot = reference.get();
+                if (null != slot) {
+                    slot.clear();
+                }
+            }
+            cachedSlots.clear();
+        } finally {
+            cachedSlotsLock.unlock();
+        }
+        toIndex = ToIndex.load(getClassLoader());
+        toHelper.clearCaches();
+        converterHelper.clearCaches();
+    }
+
+    /**
+     * Create a transfer object using its creator (constructor or factory method), see {@link org.jtransfo.Creator}.
+     *
+     * @param source domain object to take the creator arguments from
+     * @param toClass transfer object class
+     * @param tags tags for the conversion
+     * @param <T> type of transfer object
+     * @return new transfer object, null when the transfer object has no creator
+     */
+    private <T> T createTo(Object source, Class<T> toClass, String... tags) {
+        ToConverter toConverter = getToConverter(toClass);
+        ToCreator toCreator = toConverter.getToCreator();
+        if (null == toCreator) {
+            return null;
+        }
+        String[] realTags = 0 == tags.length ? DEFAULT_TAGS_WHEN_NO_TAGS : tags;
+        Object[] arguments = new Object[toCreator.getArgumentCount()];
+        for (Converter converter : toConverter.getToArguments()) {
+            converter.convert(source, arguments, realTags);
+        }
+        return (T) toCreator.create(arguments);
     }
 
     private ToConverter getToConverter(Class toClass) {
-        ToConverter toConverter = converters.get(toClass);
+        return converters.get(toClass).get();
+    }
+
+    private void cached(ConverterSlot slot) {
+        cachedSlotsLock.lock();
+        try {
+            cachedSlots.put(slot.reference, Boolean.TRUE);
+        } finally {
+            cachedSlotsLock.unlock();
+        }
+        evictConverters();
+    }
+
+    /**
+     * Mark the slot as most recently used. This is skipped when another thread holds the lock, so hits never wait.
+     *
+     * @param slot slot which was used
+     */
+    private void used(ConverterSlot slot) {
+        if (cachedSlotsLock.tryLock()) {
+            try {
+                cachedSlots.get(slot.reference);
+            } finally {
+                cachedSlotsLock.unlock();
+            }
+        }
+    }
+
+    private void evictConverters() {
+        cachedSlotsLock.lock();
+        try {
+            int limit = converterCacheLimit;
+            Iterator<Reference<ConverterSlot>> iterator = cachedSlots.keySet().iterator(); // least recently used first
+            while (0 < limit && cachedSlots.size() > limit && iterator.hasNext()) {
+                ConverterSlot slot = iterator.next().get();
+                iterator.remove();
+                if (null != slot && null != slot.toConverter) {
+                    slot.clear();
+                    converterHelper.evict(slot.toClass);
+                    converterEvictions.increment();
+                }
+            }
+        } finally {
+            cachedSlotsLock.unlock();
+        }
+    }
+
+    /**
+     * Remove slots which were collected or no longer contain a converter. Needs to be called while holding
+     * cachedSlotsLock.
+     */
+    private void purgeCachedSlots() {
+        cachedSlots.keySet().removeIf(reference -> null == reference.get() || null == reference.get().toConverter);
+    }
+
+    private ClassValue<ConverterSlot> newConverters() {
+        return new ClassValue<ConverterSlot>() {
+            @Override
+            protected ConverterSlot computeValue(Class<?> type) {
+                return new ConverterSlot(type);
+            }
+        };
+    }
+
+    private ToConverter buildToConverter(Class toClass) {
+        Class<?> domainClass = getDomainClass(toClass);
+        ToConverter toConverter = getMapperToConverter(toClass, domainClass);
         if (null == toConverter) {
-            Class<?> domainClass = getDomainClass(toClass);
-            toConverter = converterHelper.getToConverter(toClass, domainClass);
-            converters.put(toClass, toConverter);
+            toConverter = converterHelper.getLazyToConverter(toClass, domainClass);
+            if (null != toConverterCompiler) {
+                toConverter = toConverterCompiler.compile(toConverter);
+            }
+            toConverter.setFailedInitializerRetention(() -> failedConverterRetention);
         }
         return toConverter;
     }
 
+    private ToConverter getMapperToConverter(Class toClass, Class<?> domainClass) {
+        ToMapper toMapper = toMappers.get(toClass).get();
+        if (null == toMapper || !toMapper.getDomainClass().isAssignableFrom(domainClass) ||
+                !converterHelper.isCopiedWithoutConversion(toMapper.getCopiedTypes())) {
+            return null;
+        }
+        ToConverter toConverter = new ToConverter();
+        toConverter.addToTo(toMapper::toTo);
+        toConverter.addToDomain(toMapper::toDomain);
+        return toConverter;
+    }
+
+    private ClassLoader getClassLoader() {
+        ClassLoader cl = Thread.currentThread().getContextClassLoader();
+        if (null == cl) {
+            cl = JTransfoImpl.class.getClassLoader();
+        }
+        return cl;
+    }
+
+    private void loadToMappers() {
+        Iterator<ToMapper> iterator = ServiceLoader.load(ToMapper.class, getClassLoader()).iterator();
+        while (iterator.hasNext()) {
+            try {
+                registerToMapper(iterator.next());
+            } catch (ServiceConfigurationError | LinkageError error) {
+                // mapper cannot be loaded, the transfer object is converted using reflection
+            }
+        }
+    }
+
     private Object replaceObject(Object object) {
+        if (null != object && !replaceableClasses.get(object.getClass())) {
+            return object; // none of the replacers can replace objects of this class
+        }
         Object res = object;
         for (ObjectReplacer replacer : objectReplacers) {
-            res = replacer.replaceObject(res);
+            if (null == res || replacer.canReplace(res.getClass())) {
+                res = replacer.replaceObject(res);
+            }
         }
         return res;
     }
 
     private Class replaceClass(Class clazz) {
+        if (null == clazz) {
+            return applyClassReplacers(classReplacers, null);
+        }
+        return replacedClasses.get(clazz);
+    }
+
+    private static Class applyClassReplacers(List<ClassReplacer> replacers, Class clazz) {
         Class res = clazz;
-        for (ClassReplacer replacer : classReplacers) {
+        for (ClassReplacer replacer : replacers) {
             res = replacer.replaceClass(res);
         }
         return res;
     }
 
+    /**
+     * Cache entry for the converter of a transfer object class. The converter is only built once, other threads which
+     * need the converter wait for the build to finish. Converters for other classes can be built while building.
+     * The converter is built again after it was evicted.
+     */
+    private final class ConverterSlot {
+
+        private final Class toClass;
+        private final Reference<ConverterSlot> reference = new WeakReference<>(this);
+        private volatile ToConverter toConverter;
+        private JTransfoException failure;
+        private long failureTime;
+
+        private ConverterSlot(Class toClass) {
+            this.toClass = toClass;
+        }
+
+        private ToConverter get() {
+            ToConverter res = toConverter;
+            if (null == res) {
+                res = build();
+            } else {
+                converterHits.increment();
+            }
+            if (0 != converterCacheLimit) {
+                used(this);
+            }
+            return res;
+        }
+
+        private ToConverter build() {
+            ToConverter res;
+            synchronized (this) {
+                res = toConverter;
+                if (null != res) {
+                    converterHits.increment();
+                    return res;
+                }
+                if (null != failure && System.nanoTime() - failureTime < failedConverterRetention) {
+                    throw new JTransfoException(failure.getMessage(), failure.getCause());
+                }
+                converterMisses.increment();
+                try {
+                    res = buildToConverter(toClass);
+                    toConverter = res;
+                    failure = null;
+                } catch (JTransfoException jte) {
+                    failure = jte;
+                    failureTime = System.nanoTime();
+                    throw jte;
+                }
+            }
+            cached(this);
+            return res;
+        }
+
+        private synchronized void clear() {
+            toConverter = null;
+        }
+    }
+
 }
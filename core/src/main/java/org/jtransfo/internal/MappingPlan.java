@@ -0,0 +1,631 @@
+/*
+ * This file is part of jTransfo, a library for converting to and from transfer objects.
+ * Copyright (c) PROGS bvba, Belgium
+ *
+ * The program is available in open source according to the Apache License, Version 2.0.
+ * For full licensing details, see LICENSE.txt in the project root.
+ */
+
+package org.jtransfo.internal;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Resolved mapping for a transfer object class, which allows the converters to be rebuilt without inspecting the
+ * annotations and members of the classes again. The plan only contains names, so it can be written to a file.
+ * <p>
+ * The plan contains a stamp (checksum of the class file) for each class which was inspected to build it. The plan
+ * can only be used when the classes did not change.
+ * </p>
+ */
+final class MappingPlan {
+
+    private static final int FORMAT = 0x4a545001;
+
+    private final String toClass;
+    private final String domainClass;
+    private final List<String> preConverters;
+    private final Map<String, Long> stamps = new LinkedHashMap<>();
+    private List<String> postConverters = Collections.emptyList();
+    private List<FieldMapping> toTo;
+    private List<FieldMapping> toDomain;
+
+    /**
+     * Constructor.
+     *
+     * @param toClass name of the transfer object class
+     * @param domainClass name of the domain class
+     * @param preConverters names of the preconverters
+     */
+    MappingPlan(String toClass, String domainClass, List<String> preConverters) {
+        this.toClass = toClass;
+        this.domainClass = domainClass;
+        this.preConverters = preConverters;
+    }
+
+    String getToClass() {
+        return toClass;
+    }
+
+    String getDomainClass() {
+        return domainClass;
+    }
+
+    List<String> getPreConverters() {
+        return preConverters;
+    }
+
+    synchronized List<String> getPostConverters() {
+        return postConverters;
+    }
+
+    synchronized List<FieldMapping> getToTo() {
+        return toTo;
+    }
+
+    synchronized List<FieldMapping> getToDomain() {
+        return toDomain;
+    }
+
+    synchronized Map<String, Long> getStamps() {
+        return new LinkedHashMap<>(stamps);
+    }
+
+    /**
+     * Set the mapping for the domain to transfer object direction (including the creator arguments).
+     *
+     * @param builder recorded field mappings
+     * @param postConverterNames names of the postconverters
+     */
+    synchronized void setToTo(Builder builder, List<String> postConverterNames) {
+        toTo = builder.mappings;
+        postConverters = postConverterNames;
+        stamps.putAll(builder.stamps);
+    }
+
+    /**
+     * Set the mapping for the transfer to domain object direction.
+     *
+     * @param builder recorded field mappings
+     * @param postConverterNames names of the postconverters
+     */
+    synchronized void setToDomain(Builder builder, List<String> postConverterNames) {
+        toDomain = builder.mappings;
+        postConverters = postConverterNames;
+        stamps.putAll(builder.stamps);
+    }
+
+    /**
+     * Copy the mapping for a direction from another plan.
+     *
+     * @param plan plan to copy from
+     * @param toToDirection copy the domain to transfer object direction (true) or the other direction (false)
+     */
+    synchronized void copy(MappingPlan plan, boolean toToDirection) {
+        if (toToDirection) {
+            toTo = plan.getToTo();
+        } else {
+            toDomain = plan.getToDomain();
+        }
+        postConverters = plan.getPostConverters();
+        stamps.putAll(plan.getStamps());
+    }
+
+    /**
+     * Check that the classes which were inspected to build the plan did not change.
+     *
+     * @param classStamps cache for the stamps of the current classes
+     * @param classLoader class loader for the classes in the plan
+     * @return true when the plan can be used
+     */
+    boolean isCurrent(Stamps classStamps, ClassLoader classLoader) {
+        for (Map.Entry<String, Long> entry : getStamps().entrySet()) {
+            try {
+                long stamp = classStamps.get(Class.forName(entry.getKey(), false, classLoader));
+                if (0L == stamp || stamp != entry.getValue()) {
+                    return false;
+                }
+            } catch (ClassNotFoundException | LinkageError e) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long computeStamp(Class<?> clazz) {
+        String name = clazz.getName();
+        String resource = name.substring(name.lastIndexOf('.') + 1) + ".class";
+        try (InputStream in = clazz.getResourceAsStream(resource)) {
+            if (null == in) {
+                return 0L;
+            }
+            CRC32 crc = new CRC32();
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                crc.update(buffer, 0, read);
+            }
+            return crc.getValue() + 1; // avoid 0
+        } catch (IOException ioe) {
+            return 0L;
+        }
+    }
+
+    /**
+     * Write plans.
+     *
+     * @param out output stream
+     * @param configuration description of the configuration for which the plans were built
+     * @param plans plans to write
+     * @throws IOException cannot write
+     */
+    static void writeAll(OutputStream out, List<String> configuration, Collection<MappingPlan> plans)
+            throws IOException {
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+        data.writeInt(FORMAT);
+        writeStrings(data, configuration);
+        data.writeInt(plans.size());
+        for (MappingPlan plan : plans) {
+            plan.write(data);
+        }
+        data.flush();
+    }
+
+    /**
+     * Read plans which were written using {@link #writeAll(OutputStream, List, Collection)}.
+     *
+     * @param in input stream
+     * @return plans
+     * @throws IOException cannot read or not a file with plans
+     */
+    static Snapshot readAll(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+        if (FORMAT != data.readInt()) {
+            throw new IOException("Not a jTransfo mapping plan file or written by a different version.");
+        }
+        List<String> configuration = readStrings(data);
+        int count = data.readInt();
+        Map<String, MappingPlan> plans = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            MappingPlan plan = read(data);
+            plans.put(plan.getToClass(), plan);
+        }
+        return new Snapshot(configuration, plans);
+    }
+
+    /**
+     * Write the plan.
+     *
+     * @param out output
+     * @throws IOException cannot write
+     */
+    synchronized void write(DataOutput out) throws IOException {
+        out.writeUTF(toClass);
+        out.writeUTF(domainClass);
+        out.writeInt(stamps.size());
+        for (Map.Entry<String, Long> entry : stamps.entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeLong(entry.getValue());
+        }
+        writeStrings(out, preConverters);
+        writeStrings(out, postConverters);
+        writeMappings(out, toTo);
+        writeMappings(out, toDomain);
+    }
+
+    /**
+     * Read a plan which was written using {@link #write(DataOutput)}.
+     *
+     * @param in input
+     * @return plan
+     * @throws IOException cannot read
+     */
+    static MappingPlan read(DataInput in) throws IOException {
+        String to = in.readUTF();
+        String domain = in.readUTF();
+        Map<String, Long> classStamps = new LinkedHashMap<>();
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            classStamps.put(in.readUTF(), in.readLong());
+        }
+        MappingPlan plan = new MappingPlan(to, domain, readStrings(in));
+        plan.stamps.putAll(classStamps);
+        plan.postConverters = readStrings(in);
+        plan.toTo = readMappings(in);
+        plan.toDomain = readMappings(in);
+        return plan;
+    }
+
+    private static void writeStrings(DataOutput out, List<String> strings) throws IOException {
+        out.writeInt(null == strings ? -1 : strings.size());
+        if (null != strings) {
+            for (String string : strings) {
+                out.writeUTF(string);
+            }
+        }
+    }
+
+    private static List<String> readStrings(DataInput in) throws IOException {
+        int count = in.readInt();
+        if (count < 0) {
+            return null;
+        }
+        List<String> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(in.readUTF());
+        }
+        return result;
+    }
+
+    private static void writeMappings(DataOutput out, List<FieldMapping> mappings) throws IOException {
+        out.writeInt(null == mappings ? -1 : mappings.size());
+        if (null != mappings) {
+            for (FieldMapping mapping : mappings) {
+                mapping.write(out);
+            }
+        }
+    }
+
+    private static List<FieldMapping> readMappings(DataInput in) throws IOException {
+        int count = in.readInt();
+        if (count < 0) {
+            return null;
+        }
+        List<FieldMapping> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(FieldMapping.read(in));
+        }
+        return result;
+    }
+
+    /**
+     * Cache for the stamps (checksum of the class file) of classes. The cache needs to be replaced when classes are
+     * reloaded, as the reloaded class is the same {@link Class} object.
+     */
+    static final class Stamps {
+
+        private final ClassValue<Long> stamps = new ClassValue<Long>() {
+            @Override
+            protected Long computeValue(Class<?> type) {
+                return computeStamp(type);
+            }
+        };
+
+        /**
+         * Get the stamp of a class.
+         *
+         * @param clazz class
+         * @return stamp, 0 when the class file is not available
+         */
+        long get(Class<?> clazz) {
+            return stamps.get(clazz);
+        }
+
+        /**
+         * Add the stamps for a type, its type arguments and their superclasses. Classes of the JDK are not included.
+         *
+         * @param classStamps stamps to add to
+         * @param type type to add
+         */
+        void add(Map<String, Long> classStamps, Type type) {
+            if (type instanceof Class) {
+                Class<?> current = (Class<?>) type;
+                while (current.isArray()) {
+                    current = current.getComponentType();
+                }
+                while (null != current && null != current.getClassLoader()) {
+                    classStamps.put(current.getName(), get(current));
+                    current = current.getSuperclass();
+                }
+            } else if (type instanceof ParameterizedType) {
+                add(classStamps, ((ParameterizedType) type).getRawType());
+                for (Type argument : ((ParameterizedType) type).getActualTypeArguments()) {
+                    add(classStamps, argument);
+                }
+            } else if (type instanceof GenericArrayType) {
+                add(classStamps, ((GenericArrayType) type).getGenericComponentType());
+            } else if (type instanceof WildcardType) {
+                for (Type bound : ((WildcardType) type).getUpperBounds()) {
+                    add(classStamps, bound);
+                }
+                for (Type bound : ((WildcardType) type).getLowerBounds()) {
+                    add(classStamps, bound);
+                }
+            }
+        }
+    }
+
+    /**
+     * Plans which were read from a file.
+     */
+    static final class Snapshot {
+
+        private final List<String> configuration;
+        private final Map<String, MappingPlan> plans;
+
+        private Snapshot(List<String> configuration, Map<String, MappingPlan> plans) {
+            this.configuration = configuration;
+            this.plans = plans;
+        }
+
+        /**
+         * Get the description of the configuration for which the plans were built.
+         *
+         * @return configuration description
+         */
+        List<String> getConfiguration() {
+            return configuration;
+        }
+
+        /**
+         * Get the plan for a transfer object class.
+         *
+         * @param toClass name of the transfer object class
+         * @return plan, null when not available
+         */
+        MappingPlan get(String toClass) {
+            return plans.get(toClass);
+        }
+
+        /**
+         * Get the number of plans.
+         *
+         * @return number of plans
+         */
+        int size() {
+            return plans.size();
+        }
+    }
+
+    /**
+     * Records the field mappings for one direction while the converters are built.
+     */
+    static final class Builder {
+
+        private final Stamps classStamps;
+        private final List<FieldMapping> mappings = new ArrayList<>();
+        private final Map<String, Long> stamps = new LinkedHashMap<>();
+        private boolean complete = true;
+
+        /**
+         * Constructor.
+         *
+         * @param classStamps cache for the stamps of the classes
+         * @param toClass transfer object class
+         * @param domainClass domain class
+         */
+        Builder(Stamps classStamps, Class<?> toClass, Class<?> domainClass) {
+            this.classStamps = classStamps;
+            classStamps.add(stamps, toClass);
+            classStamps.add(stamps, domainClass);
+        }
+
+        /**
+         * Add the mapping for a transfer object field.
+         *
+         * @param field transfer object field
+         * @param argument index in the creator arguments, null when the field is not passed to the creator
+         * @param tagged is the field mapped using {@link org.jtransfo.MapOnly}
+         * @return field mapping to add the targets to
+         */
+        FieldMapping addField(Field field, Integer argument, boolean tagged) {
+            FieldMapping mapping = new FieldMapping(field.getDeclaringClass().getName(), field.getName(),
+                    null == argument ? -1 : argument, tagged);
+            classStamps.add(stamps, field.getGenericType()); // the type converter is selected using the types
+            mappings.add(mapping);
+            return mapping;
+        }
+
+        /**
+         * Add a target for a field mapping.
+         *
+         * @param mapping field mapping
+         * @param domainFields path to the domain field
+         * @param typeConverter reference to the type converter, null when it cannot be referenced
+         * @param tags tags for which the mapping applies, null when not tagged
+         */
+        void addTarget(FieldMapping mapping, SyntheticField[] domainFields, String typeConverter, String[] tags) {
+            List<PathElement> path = new ArrayList<>();
+            for (int i = 0; i < domainFields.length; i++) {
+                SyntheticField domainField = domainFields[i];
+                if (!(domainField instanceof AccessorSyntheticField)) {
+                    complete = false;
+                    return;
+                }
+                path.add(new PathElement(domainField.getName(), domainField.getField().isPresent(),
+                        !((AccessorSyntheticField) domainField).hasSetter()));
+                classStamps.add(stamps, domainField.getGenericType());
+            }
+            complete &= null != typeConverter;
+            mapping.targets.add(new Target(path, typeConverter, null == tags ? null : Arrays.asList(tags)));
+        }
+
+        /**
+         * Can the plan be used to rebuild the converters?
+         *
+         * @return true when all mappings could be recorded
+         */
+        boolean isComplete() {
+            return complete && !stamps.containsValue(0L);
+        }
+    }
+
+    /**
+     * Mapping for one transfer object field in one direction.
+     */
+    static final class FieldMapping {
+
+        private final String declaringClass;
+        private final String field;
+        private final int argument;
+        private final boolean tagged;
+        private final List<Target> targets = new ArrayList<>();
+
+        /**
+         * Constructor.
+         *
+         * @param declaringClass name of the class which declares the transfer object field
+         * @param field name of the transfer object field
+         * @param argument index in the creator arguments, -1 when the field is not passed to the creator
+         * @param tagged is the field mapped using {@link org.jtransfo.MapOnly}
+         */
+        FieldMapping(String declaringClass, String field, int argument, boolean tagged) {
+            this.declaringClass = declaringClass;
+            this.field = field;
+            this.argument = argument;
+            this.tagged = tagged;
+        }
+
+        String getDeclaringClass() {
+            return declaringClass;
+        }
+
+        String getField() {
+            return field;
+        }
+
+        int getArgument() {
+            return argument;
+        }
+
+        boolean isTagged() {
+            return tagged;
+        }
+
+        List<Target> getTargets() {
+            return targets;
+        }
+
+        private void write(DataOutput out) throws IOException {
+            out.writeUTF(declaringClass);
+            out.writeUTF(field);
+            out.writeInt(argument);
+            out.writeBoolean(tagged);
+            out.writeInt(targets.size());
+            for (Target target : targets) {
+                target.write(out);
+            }
+        }
+
+        private static FieldMapping read(DataInput in) throws IOException {
+            FieldMapping mapping = new FieldMapping(in.readUTF(), in.readUTF(), in.readInt(), in.readBoolean());
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                mapping.targets.add(Target.read(in));
+            }
+            return mapping;
+        }
+    }
+
+    /**
+     * Domain field (with path) and type converter for a transfer object field.
+     */
+    static final class Target {
+
+        private final List<PathElement> path;
+        private final String typeConverter;
+        private final List<String> tags;
+
+        /**
+         * Constructor.
+         *
+         * @param path path to the domain field, the domain field is the last element
+         * @param typeConverter reference to the type converter
+         * @param tags tags for which the mapping applies, null when not tagged
+         */
+        Target(List<PathElement> path, String typeConverter, List<String> tags) {
+            this.path = path;
+            this.typeConverter = typeConverter;
+            this.tags = tags;
+        }
+
+        List<PathElement> getPath() {
+            return path;
+        }
+
+        String getTypeConverter() {
+            return typeConverter;
+        }
+
+        List<String> getTags() {
+            return tags;
+        }
+
+        private void write(DataOutput out) throws IOException {
+            out.writeInt(path.size());
+            for (PathElement element : path) {
+                out.writeUTF(element.name);
+                out.writeBoolean(element.field);
+                out.writeBoolean(element.readOnly);
+            }
+            out.writeUTF(typeConverter);
+            writeStrings(out, tags);
+        }
+
+        private static Target read(DataInput in) throws IOException {
+            int count = in.readInt();
+            List<PathElement> path = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                path.add(new PathElement(in.readUTF(), in.readBoolean(), in.readBoolean()));
+            }
+            return new Target(path, in.readUTF(), readStrings(in));
+        }
+    }
+
+    /**
+     * Element in the path to a domain field.
+     */
+    static final class PathElement {
+
+        private final String name;
+        private final boolean field;
+        private final boolean readOnly;
+
+        /**
+         * Constructor.
+         *
+         * @param name field name
+         * @param field is there a field with this name (or only accessors)
+         * @param readOnly is a getter sufficient when there is no field
+         */
+        PathElement(String name, boolean field, boolean readOnly) {
+            this.name = name;
+            this.field = field;
+            this.readOnly = readOnly;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        boolean isField() {
+            return field;
+        }
+
+        boolean isReadOnly() {
+            return readOnly;
+        }
+    }
+}
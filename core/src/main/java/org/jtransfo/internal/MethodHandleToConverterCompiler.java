@@ -0,0 +1,249 @@
+/*
+ * This file is part of jTransfo, a library for converting to and from transfer objects.
+ * Copyright (c) PROGS bvba, Belgium
+ *
+ * The program is available in open source according to the Apache License, Version 2.0.
+ * For full licensing details, see LICENSE.txt in the project root.
+ */
+
+package org.jtransfo.internal;
+
+import org.jtransfo.Converter;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compiler which combines the converters for one direction into a single {@link MethodHandle}.
+ * <p>
+ * Field copies which need no type conversion are expressed directly on the handles of the synthetic fields, so the
+ * JVM can inline the getter and setter calls. All other converters (type conversion, transitive paths, tags, post
+ * converters) are bound into the combined handle as is. The JVM generates and loads the classes for the combined
+ * handle itself, no bytecode library is needed.
+ * </p><p>
+ * A direct field copy is only used when the source and target are instances of the classes which declare the fields.
+ * Otherwise the original converter is invoked. Exceptions of the getters and setters are reported the same way as when
+ * the converter list is used.
+ * </p>
+ */
+public class MethodHandleToConverterCompiler implements ToConverterCompiler {
+
+    private static final MethodType STEP_TYPE =
+            MethodType.methodType(void.class, Object.class, Object.class, String[].class);
+    private static final MethodHandle CONVERT;
+    private static final MethodHandle ACCEPTS;
+    private static final MethodHandle GETTER_EXCEPTION;
+    private static final MethodHandle SETTER_EXCEPTION;
+    private static final MethodHandle CONVERT_EXCEPTION;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            CONVERT = MethodHandles.publicLookup().findVirtual(Converter.class, "convert", STEP_TYPE);
+            ACCEPTS = lookup.findStatic(MethodHandleToConverterCompiler.class, "accepts", MethodType.methodType(
+                    boolean.class, Class.class, Class.class, Object.class, Object.class));
+            MethodType exceptionType = MethodType.methodType(RuntimeException.class, Object.class, Throwable.class);
+            GETTER_EXCEPTION = lookup.findVirtual(AbstractSyntheticField.class, "getterException", exceptionType);
+            SETTER_EXCEPTION = lookup.findVirtual(AbstractSyntheticField.class, "setterException", exceptionType);
+            CONVERT_EXCEPTION = lookup.findStatic(MethodHandleToConverterCompiler.class, "convertException",
+                    MethodType.methodType(RuntimeException.class, AbstractConverter.class, Throwable.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    @Override
+    public Converter compile(List<Converter> converters) {
+        if (converters.isEmpty()) {
+            return null;
+        }
+        List<Converter> flat = new ArrayList<>();
+        for (Converter converter : converters) {
+            if (converter instanceof FusedCopyConverter) {
+                flat.addAll(((FusedCopyConverter) converter).getConverters()); // copy each field directly
+            } else {
+                flat.add(converter);
+            }
+        }
+        MethodHandle[] steps = new MethodHandle[flat.size()];
+        for (int i = 0; i < steps.length; i++) {
+            steps[i] = step(flat.get(i));
+        }
+        return new CompiledConverter(sequence(steps, 0, steps.length));
+    }
+
+    private MethodHandle step(Converter converter) {
+        MethodHandle fallback = CONVERT.bindTo(converter);
+        MethodHandle copy = copy(converter);
+        if (null == copy) {
+            return fallback;
+        }
+        // exceptions are reported like AbstractConverter.convert() does
+        MethodHandle handler = MethodHandles.filterReturnValue(CONVERT_EXCEPTION.bindTo(converter),
+                MethodHandles.throwException(void.class, RuntimeException.class));
+        copy = MethodHandles.catchException(copy, Throwable.class,
+                MethodHandles.dropArguments(handler, 1, STEP_TYPE.parameterList()));
+        return MethodHandles.guardWithTest(test(converter), copy, fallback);
+    }
+
+    /**
+     * Build the test which checks that the source and target are instances of the classes which declare the fields.
+     *
+     * @param converter converter for which a direct copy is built
+     * @return handle with type (Object source, Object target, String[] tags)boolean
+     */
+    private MethodHandle test(Converter converter) {
+        AbstractSyntheticField source;
+        AbstractSyntheticField target;
+        if (converter instanceof PrimitiveToToConverter) {
+            source = (AbstractSyntheticField) ((PrimitiveToToConverter) converter).getDomainField();
+            target = (AbstractSyntheticField) ((PrimitiveToToConverter) converter).getToField();
+        } else if (converter instanceof PrimitiveToDomainConverter) {
+            source = (AbstractSyntheticField) ((PrimitiveToDomainConverter) converter).getToField();
+            target = (AbstractSyntheticField) ((PrimitiveToDomainConverter) converter).getDomainField();
+        } else if (converter instanceof ToToConverter) {
+            source = (AbstractSyntheticField) ((ToToConverter) converter).getDomainFields()[0];
+            target = (AbstractSyntheticField) ((ToToConverter) converter).getToField();
+        } else {
+            source = (AbstractSyntheticField) ((ToDomainConverter) converter).getToField();
+            target = (AbstractSyntheticField) ((ToDomainConverter) converter).getDomainFields()[0];
+        }
+        MethodHandle test = MethodHandles.insertArguments(ACCEPTS, 0,
+                source.getGetterReceiver(), target.getSetterReceiver());
+        return MethodHandles.dropArguments(test, 2, String[].class);
+    }
+
+    private static boolean accepts(Class<?> sourceReceiver, Class<?> targetReceiver, Object source, Object target) {
+        return (null == sourceReceiver || sourceReceiver.isInstance(source)) &&
+                (null == targetReceiver || targetReceiver.isInstance(target));
+    }
+
+    private static RuntimeException convertException(AbstractConverter converter, Throwable throwable) {
+        if (throwable instanceof IllegalAccessException || throwable instanceof IllegalArgumentException) {
+            return converter.convertException((Exception) throwable);
+        }
+        return AccessorHandles.unchecked(throwable);
+    }
+
+    private MethodHandle copy(Converter converter) {
+        if (converter instanceof PrimitiveToToConverter) {
+            PrimitiveToToConverter primitive = (PrimitiveToToConverter) converter;
+            return copy(primitive.getDomainField(), primitive.getToField(), true);
+        }
+        if (converter instanceof PrimitiveToDomainConverter) {
+            PrimitiveToDomainConverter primitive = (PrimitiveToDomainConverter) converter;
+            return copy(primitive.getToField(), primitive.getDomainField(), true);
+        }
+        if (converter instanceof ToToConverter) {
+            ToToConverter toTo = (ToToConverter) converter;
+            if (FusedCopyConverter.isIdentity(toTo.getDomainFields(), toTo.getTypeConverter())) {
+                return copy(toTo.getDomainFields()[0], toTo.getToField(), false);
+            }
+        }
+        if (converter instanceof ToDomainConverter) {
+            ToDomainConverter toDomain = (ToDomainConverter) converter;
+            if (FusedCopyConverter.isIdentity(toDomain.getDomainFields(), toDomain.getTypeConverter())) {
+                return copy(toDomain.getToField(), toDomain.getDomainFields()[0], false);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Build the handle which copies the value from one field to the other.
+     *
+     * @param from field to read
+     * @param to field to write
+     * @param primitive use the primitive handles
+     * @return handle with type (Object source, Object target, String[] tags)void, null when not possible
+     */
+    private MethodHandle copy(SyntheticField from, SyntheticField to, boolean primitive) {
+        if (!(from instanceof AbstractSyntheticField) || !(to instanceof AbstractSyntheticField)) {
+            return null;
+        }
+        AbstractSyntheticField source = (AbstractSyntheticField) from;
+        AbstractSyntheticField target = (AbstractSyntheticField) to;
+        MethodHandle getter = primitive ? source.primitiveGetterHandle() : source.getterHandle();
+        MethodHandle setter = primitive ? target.primitiveSetterHandle() : target.setterHandle();
+        if (null == getter || null == setter || getter.type().returnType() != setter.type().parameterType(1) ||
+                !isAssignable(from.getType(), to.getType())) {
+            return null;
+        }
+        getter = translate(getter, GETTER_EXCEPTION.bindTo(source));
+        setter = translate(setter, SETTER_EXCEPTION.bindTo(target));
+        MethodHandle copy = MethodHandles.filterArguments(setter, 1, getter); // (target, source)void
+        return MethodHandles.permuteArguments(MethodHandles.dropArguments(copy, 2, String[].class), STEP_TYPE, 1, 0, 2);
+    }
+
+    /**
+     * Can all values of a field be written to the other field without conversion? Null cannot be written to a
+     * primitive field.
+     *
+     * @param from type of the field to read
+     * @param to type of the field to write
+     * @return true when the values can be copied
+     */
+    private boolean isAssignable(Class<?> from, Class<?> to) {
+        if (to.isPrimitive()) {
+            return from == to;
+        }
+        return to.isAssignableFrom(AccessorHandles.wrap(from));
+    }
+
+    /**
+     * Report exceptions thrown by a getter or setter handle like the synthetic field does.
+     *
+     * @param handle getter or setter handle, the first parameter is the object containing the field
+     * @param exception handle with type (Object object, Throwable throwable)RuntimeException
+     * @return handle with the same type
+     */
+    private MethodHandle translate(MethodHandle handle, MethodHandle exception) {
+        MethodType type = handle.type();
+        MethodHandle thrower = MethodHandles.filterReturnValue(exception,
+                MethodHandles.throwException(type.returnType(), RuntimeException.class));
+        thrower = MethodHandles.permuteArguments(thrower,
+                MethodType.methodType(type.returnType(), Throwable.class, Object.class), 1, 0);
+        thrower = MethodHandles.dropArguments(thrower, 2, type.parameterList().subList(1, type.parameterCount()));
+        return MethodHandles.catchException(handle, Throwable.class, thrower);
+    }
+
+    /**
+     * Combine the steps as a balanced tree, this keeps the nesting depth low so the JIT can inline everything.
+     *
+     * @param steps steps to combine
+     * @param from index of first step
+     * @param to index after the last step
+     * @return handle which executes the steps in order
+     */
+    private MethodHandle sequence(MethodHandle[] steps, int from, int to) {
+        if (1 == to - from) {
+            return steps[from];
+        }
+        int mid = (from + to) >>> 1;
+        return MethodHandles.foldArguments(sequence(steps, mid, to), sequence(steps, from, mid));
+    }
+
+    /**
+     * Converter which invokes the compiled handle.
+     */
+    private static final class CompiledConverter implements Converter {
+
+        private final MethodHandle handle;
+
+        private CompiledConverter(MethodHandle handle) {
+            this.handle = handle;
+        }
+
+        @Override
+        public void convert(Object source, Object target, String... tags) {
+            try {
+                handle.invokeExact(source, target, tags);
+            } catch (Throwable throwable) {
+                throw AccessorHandles.unchecked(throwable);
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * This file is part of jTransfo, a library for converting to and from transfer objects.
+ * Copyright (c) PROGS bvba, Belgium
+ *
+ * The program is available in open source according to the Apache License, Version 2.0.
+ * For full licensing details, see LICENSE.txt in the project root.
+ */
+
+package org.jtransfo.internal;
+
+/**
+ * Copy a primitive value between two {@link SyntheticField}s without boxing.
+ */
+public enum PrimitiveCopy {
+
+    /** Copy boolean values. */
+    BOOLEAN(boolean.class) {
+        @Override
+        void copy(SyntheticField from, Object source, SyntheticField to, Object target)
+                throws IllegalAccessException, IllegalArgumentException {
+            to.setBoolean(target, from.getBoolean(source));
+        }
+    },
+    /** Copy byte values. */
+    BYTE(byte.class) {
+        @Override
+        void copy(SyntheticField from, Object source, SyntheticField to, Object target)
+                throws IllegalAccessException, IllegalArgumentException {
+            to.setByte(target, from.getByte(source));
+        }
+    },
+    /** Copy char values. */
+    CHAR(char.class) {
+        @Override
+        void copy(SyntheticField from, Object source, SyntheticField to, Object target)
+                throws IllegalAccessException, IllegalArgumentException {
+            to.setChar(target, from.getChar(source));
+        }
+    },
+    /** Copy short values. */
+    SHORT(short.class) {
+        @Override
+        void copy(SyntheticField from, Object source, SyntheticField to, Object target)
+                throws IllegalAccessException, IllegalArgumentException {
+            to.setShort(target, from.getShort(source));
+        }
+    },
+    /** Copy int values. */
+    INT(int.class) {
+        @Override
+        void copy(SyntheticField from, Object source, SyntheticField to, Object target)
+                throws IllegalAccessException, IllegalArgumentException {
+            to.setInt(target, from.getInt(source));
+        }
+    },
+    /** Copy long values. */
+    LONG(long.class) {
+        @Override
+        void copy(SyntheticField from, Object source, SyntheticField to, Object target)
+                throws IllegalAccessException, IllegalArgumentException {
+            to.setLong(target, from.getLong(source));
+        }
+    },
+    /** Copy float values. */
+    FLOAT(float.class) {
+        @Override
+        void copy(SyntheticField from, Object source, SyntheticField to, Object target)
+                throws IllegalAccessException, IllegalArgumentException {
+            to.setFloat(target, from.getFloat(source));
+        }
+    },
+    /** Copy double values. */
+    DOUBLE(double.class) {
+        @Override
+        void copy(SyntheticField from, Object source, SyntheticField to, Object target)
+                throws IllegalAccessException, IllegalArgumentException {
+            to.setDouble(target, from.getDouble(source));
+        }
+    };
+
+    private final Class<?> type;
+
+    PrimitiveCopy(Class<?> type) {
+        this.type = type;
+    }
+
+    /**
+     * Copy the value of the field in the source object to the field in the target object.
+     *
+     * @param from field to read
+     * @param source object to read from
+     * @param to field to write
+     * @param target object to write to
+     * @throws IllegalAccessException illegal access
+     * @throws IllegalArgumentException illegal argument
+     */
+    abstract void copy(SyntheticField from, Object source, SyntheticField to, Object target)
+            throws IllegalAccessException, IllegalArgumentException;
+
+    /**
+     * Get the copier for a primitive type.
+     *
+     * @param type field type
+     * @return copier or null when the type is not primitive
+     */
+    public static PrimitiveCopy forType(Class<?> type) {
+        for (PrimitiveCopy copy : values()) {
+            if (copy.type == type) {
+                return copy;
+            }
+        }
+        return null;
+    }
+
+}
@@ -0,0 +1,80 @@
+/*
+ * This file is part of jTransfo, a library for converting to and from transfer objects.
+ * Copyright (c) PROGS bvba, Belgium
+ *
+ * The program is available in open source according to the Apache License, Version 2.0.
+ * For full licensing details, see LICENSE.txt in the project root.
+ */
+
+package org.jtransfo.internal;
+
+import org.jtransfo.JTransfoException;
+
+/**
+ * Converter class to copy one primitive field to the domain class without boxing.
+ * Only used when both fields have the same primitive type and no type conversion is needed.
+ */
+public final class PrimitiveToDomainConverter extends AbstractConverter {
+
+    private SyntheticField toField;
+    private SyntheticField domainField;
+    private PrimitiveCopy copy;
+
+    /**
+     * Constructor.
+     *
+     * @param toField transfer object field
+     * @param domainField domain object field
+     * @param copy copier for the primitive type of the fields
+     */
+    public PrimitiveToDomainConverter(SyntheticField toField, SyntheticField domainField, PrimitiveCopy copy) {
+        this.toField = toField;
+        this.domainField = domainField;
+        this.copy = copy;
+    }
+
+    @Override
+    public void doConvert(Object source, Object target, String... tags)
+            throws JTransfoException, IllegalAccessException, IllegalArgumentException {
+        copy.copy(toField, source, domainField, target);
+    }
+
+    /**
+     * Get the transfer object field.
+     *
+     * @return transfer object field
+     */
+    SyntheticField getToField() {
+        return toField;
+    }
+
+    /**
+     * Get the domain object field.
+     *
+     * @return domain object field
+     */
+    SyntheticField getDomainField() {
+        return domainField;
+    }
+
+    /**
+     * Get the copier for the primitive type of the fields.
+     *
+     * @return primitive copier
+     */
+    PrimitiveCopy getCopy() {
+        return copy;
+    }
+
+    @Override
+    public String accessExceptionMessage() {
+        return String.format("Cannot convert TO field %s to domain field %s, field cannot be accessed.",
+                toField.getName(), domainField.getName());
+    }
+
+    @Override
+    public String argumentExceptionMessage() {
+        return String.format("Cannot convert TO field %s to domain field %s, field needs type conversion.",
+                toField.getName(), domainField.getName());
+    }
+}
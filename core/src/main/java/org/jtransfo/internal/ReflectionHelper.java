@@ -8,27 +8,115 @@
 
 package org.jtransfo.internal;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
 import java.lang.annotation.Annotation;
 import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Field;
+import java.lang.reflect.Member;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Helper class for all things class manipulation and reflection.
  */
 public class ReflectionHelper {
 
-    private final Logger log = LoggerFactory.getLogger(ReflectionHelper.class);
+    /**
+     * Creator for each transfer object class.
+     */
+    private volatile ClassValue<Optional<ToCreator>> toCreators = newToCreators();
+
+    /**
+     * Synthetic fields for each class, shared by all transfer objects and paths which use the class.
+     */
+    private volatile ClassValue<List<SyntheticField>> syntheticFields = newSyntheticFields();
+
+    /**
+     * Public (including inherited) and declared methods for each class, by name.
+     */
+    private volatile ClassValue<MethodIndex> methods = newMethods();
+
+    /**
+     * Meta-annotations (recursively) for each annotation type.
+     */
+    private volatile ClassValue<List<Annotation>> metaAnnotations = newMetaAnnotations();
+
+    /**
+     * Annotations (including meta-annotations) for the class and its members, stored on the declaring class.
+     */
+    private volatile ClassValue<Map<AnnotatedElement, ElementAnnotations>> elementAnnotations =
+            newElementAnnotations();
+
+    /**
+     * Clear the cached information about classes. Needed when classes are reloaded by something like jRebel or
+     * spring reloaded.
+     */
+    void clearCaches() {
+        toCreators = newToCreators();
+        syntheticFields = newSyntheticFields();
+        methods = newMethods();
+        metaAnnotations = newMetaAnnotations();
+        elementAnnotations = newElementAnnotations();
+    }
+
+    private static ClassValue<Optional<ToCreator>> newToCreators() {
+        return new ClassValue<Optional<ToCreator>>() {
+            @Override
+            protected Optional<ToCreator> computeValue(Class<?> type) {
+                return Optional.ofNullable(ToCreator.forClass(type));
+            }
+        };
+    }
+
+    private ClassValue<List<SyntheticField>> newSyntheticFields() {
+        return new ClassValue<List<SyntheticField>>() {
+            @Override
+            protected List<SyntheticField> computeValue(Class<?> type) {
+                return Collections.unmodifiableList(makeSynthetic(type, getFields(type)));
+            }
+        };
+    }
+
+    private static ClassValue<MethodIndex> newMethods() {
+        return new ClassValue<MethodIndex>() {
+            @Override
+            protected MethodIndex computeValue(Class<?> type) {
+                return new MethodIndex(type);
+            }
+        };
+    }
+
+    private static ClassValue<List<Annotation>> newMetaAnnotations() {
+        return new ClassValue<List<Annotation>>() {
+            @Override
+            protected List<Annotation> computeValue(Class<?> type) {
+                Set<Annotation> res = new LinkedHashSet<>();
+                for (Annotation meta : type.getDeclaredAnnotations()) {
+                    addMetaAnnotations(res, meta);
+                }
+                return Collections.unmodifiableList(new ArrayList<>(res));
+            }
+        };
+    }
+
+    private static ClassValue<Map<AnnotatedElement, ElementAnnotations>> newElementAnnotations() {
+        return new ClassValue<Map<AnnotatedElement, ElementAnnotations>>() {
+            @Override
+            protected Map<AnnotatedElement, ElementAnnotations> computeValue(Class<?> type) {
+                return new ConcurrentHashMap<>();
+            }
+        };
+    }
 
     /**
      * Create a new instance of a class.
@@ -64,6 +152,17 @@ public class ReflectionHelper {
         return newInstance(this.<T>loadClass(className));
     }
 
+    /**
+     * Get the creator for a transfer object class, see {@link org.jtransfo.Creator}.
+     *
+     * @param toClass transfer object class
+     * @return creator, null when the no-arguments constructor should be used
+     * @throws org.jtransfo.JTransfoException invalid creator
+     */
+    public ToCreator getToCreator(Class<?> toClass) {
+        return toCreators.get(toClass).orElse(null);
+    }
+
     /**
      * Load class with given name from the correct class loader.
      *
@@ -120,12 +219,15 @@ public class ReflectionHelper {
 
     /**
      * Find all declared (synthetic) fields of a class.
+     * <p>
+     * The fields are only built once for each class, until the caches are cleared. The result cannot be modified.
+     * </p>
      *
      * @param clazz class to find fields for
      * @return list of fields
      */
     List<SyntheticField> getSyntheticFields(Class<?> clazz) {
-        return makeSynthetic(clazz, getFields(clazz));
+        return syntheticFields.get(clazz);
     }
 
     /**
@@ -182,6 +284,10 @@ public class ReflectionHelper {
 
     /**
      * Get method with given name and parameters and given return type.
+     * <p>
+     * Public methods have precedence, then the declared methods of the class and its superclasses are searched.
+     * The methods of each class are indexed once, until the caches are cleared.
+     * </p>
      *
      * @param type class on which method should be found
      * @param returnType required return type (or null for void or no check)
@@ -190,36 +296,12 @@ public class ReflectionHelper {
      * @return method or null when method not found
      */
     Method getMethod(Class<?> type, Class<?> returnType, String name, Class<?>... parameters) {
-        Method method = null;
-        try {
-            // first try for public methods
-            method = type.getMethod(name, parameters);
-            if (null != returnType && !returnType.isAssignableFrom(method.getReturnType())) {
-                method = null;
-            }
-        } catch (NoSuchMethodException nsme) {
-            // ignore
-            log.trace(nsme.getMessage(), nsme);
-        }
-        if (null == method) {
-            method = getNonPublicMethod(type, returnType, name, parameters);
-        }
-        return method;
-    }
-
-    private Method getNonPublicMethod(Class<?> type, Class<?> returnType, String name, Class<?>... parameters) {
-        Method method = null;
+        // first try for public methods
+        ClassValue<MethodIndex> index = methods;
+        Method method = findMethod(index.get(type).publicMethods, returnType, name, parameters);
         Class<?> searchType = type;
         while (null == method && null != searchType && !Object.class.equals(searchType)) {
-            try {
-                method = searchType.getDeclaredMethod(name, parameters);
-                if (null != returnType && !returnType.isAssignableFrom(method.getReturnType())) {
-                    method = null;
-                }
-            } catch (NoSuchMethodException nsme) {
-                // ignore
-                log.trace(nsme.getMessage(), nsme);
-            }
+            method = findMethod(index.get(searchType).declaredMethods, returnType, name, parameters);
             if (null != method) {
                 makeAccessible(method);
             } else {
@@ -229,10 +311,30 @@ public class ReflectionHelper {
         return method;
     }
 
+    /**
+     * Find a method in an index. Like {@link Class#getMethod(String, Class[])}, the method with the most specific
+     * return type is used when there are several candidates (bridge methods for covariant return types).
+     */
+    private Method findMethod(Map<String, List<Method>> methods, Class<?> returnType, String name,
+            Class<?>... parameters) {
+        Method res = null;
+        for (Method method : methods.getOrDefault(name, Collections.emptyList())) {
+            if (Arrays.equals(parameters, method.getParameterTypes()) &&
+                    (null == res || res.getReturnType().isAssignableFrom(method.getReturnType()))) {
+                res = method;
+            }
+        }
+        if (null != res && null != returnType && !returnType.isAssignableFrom(res.getReturnType())) {
+            res = null;
+        }
+        return res;
+    }
+
     /**
      * Get the annotations of given type which are available on the annotated element. Considers both the annotations
      * on the element and the meta-annotations (annotations on the annotations).
-     * <p>The result is given in no specific order</p>
+     * <p>The result is given in no specific order and cannot be modified. It is cached for the element, until the
+     * caches are cleared.</p>
      *
      * @param element annotated element
      * @param annotation annotation to find
@@ -240,19 +342,21 @@ public class ReflectionHelper {
      * @return annotation
      */
     <T extends Annotation> List<T> getAnnotationWithMeta(AnnotatedElement element, Class<T> annotation) {
-        return (List) Stream.of(element.getDeclaredAnnotations())
-                .flatMap(this::addMetaAnnotations)
-                .filter(a -> annotation.isAssignableFrom(a.annotationType()))
-                .collect(Collectors.toList());
-    }
-
-    private Stream<Annotation> addMetaAnnotations(Annotation a) {
-        Set<Annotation> res = new HashSet<>();
-        addMetaAnnotations(res, a);
-        return res.stream();
+        Class<?> declaringClass = null;
+        if (element instanceof Class) {
+            declaringClass = (Class<?>) element;
+        } else if (element instanceof Member) {
+            declaringClass = ((Member) element).getDeclaringClass();
+        }
+        ClassValue<List<Annotation>> meta = metaAnnotations;
+        if (null == declaringClass) {
+            return new ElementAnnotations(element, meta).get(annotation);
+        }
+        return elementAnnotations.get(declaringClass).computeIfAbsent(element, e -> new ElementAnnotations(e, meta))
+                .get(annotation);
     }
 
-    private void addMetaAnnotations(Set<Annotation> set, Annotation annotation) {
+    private static void addMetaAnnotations(Set<Annotation> set, Annotation annotation) {
         if (set.add(annotation)) { // set is needed or continues infinitely
             for (Annotation meta : annotation.annotationType().getDeclaredAnnotations()) {
                 addMetaAnnotations(set, meta);
@@ -260,4 +364,52 @@ public class ReflectionHelper {
         }
     }
 
+    /**
+     * Methods of a class, indexed by name.
+     */
+    private static final class MethodIndex {
+
+        private final Map<String, List<Method>> publicMethods = new HashMap<>();
+        private final Map<String, List<Method>> declaredMethods = new HashMap<>();
+
+        private MethodIndex(Class<?> type) {
+            for (Method method : type.getMethods()) {
+                publicMethods.computeIfAbsent(method.getName(), n -> new ArrayList<>()).add(method);
+            }
+            for (Method method : type.getDeclaredMethods()) {
+                declaredMethods.computeIfAbsent(method.getName(), n -> new ArrayList<>()).add(method);
+            }
+        }
+    }
+
+    /**
+     * Annotations and meta-annotations of an annotated element, indexed by requested annotation type.
+     */
+    private static final class ElementAnnotations {
+
+        private final List<Annotation> annotations = new ArrayList<>();
+        private final Map<Class<?>, List<Annotation>> byType = new ConcurrentHashMap<>();
+
+        private ElementAnnotations(AnnotatedElement element, ClassValue<List<Annotation>> metaAnnotations) {
+            for (Annotation annotation : element.getDeclaredAnnotations()) {
+                Set<Annotation> closure = new LinkedHashSet<>();
+                closure.add(annotation);
+                closure.addAll(metaAnnotations.get(annotation.annotationType()));
+                annotations.addAll(closure);
+            }
+        }
+
+        private <T extends Annotation> List<T> get(Class<T> type) {
+            return (List) byType.computeIfAbsent(type, t -> {
+                List<Annotation> res = new ArrayList<>();
+                for (Annotation annotation : annotations) {
+                    if (t.isAssignableFrom(annotation.annotationType())) {
+                        res.add(annotation);
+                    }
+                }
+                return Collections.unmodifiableList(res);
+            });
+        }
+    }
+
 }
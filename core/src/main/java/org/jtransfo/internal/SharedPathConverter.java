@@ -0,0 +1,148 @@
+/*
+ * This file is part of jTransfo, a library for converting to and from transfer objects.
+ * Copyright (c) PROGS bvba, Belgium
+ *
+ * The program is available in open source according to the Apache License, Version 2.0.
+ * For full licensing details, see LICENSE.txt in the project root.
+ */
+
+package org.jtransfo.internal;
+
+import org.jtransfo.Converter;
+import org.jtransfo.JTransfoException;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Converter for a block of transitive fields which share a common start of their path. The intermediate object at
+ * the end of the shared path is only resolved once per conversion.
+ * <p>
+ * Converters in the block are either all {@link ToToConverter}s or all {@link ToDomainConverter}s. When a conversion
+ * fails, the exception has the same message as the converter for that field would give.
+ * </p>
+ */
+public final class SharedPathConverter implements Converter {
+
+    private final SyntheticField[] prefix;
+    private final ToToConverter[] toTo;
+    private final ToDomainConverter[] toDomain;
+
+    /**
+     * Constructor.
+     *
+     * @param prefix length of the shared path, each converter has a longer path
+     * @param converters converters which share the path, either all {@link ToToConverter} or all
+     *      {@link ToDomainConverter}
+     */
+    public SharedPathConverter(int prefix, List<? extends AbstractConverter> converters) {
+        if (converters.get(0) instanceof ToToConverter) {
+            this.toTo = converters.toArray(new ToToConverter[converters.size()]);
+            this.toDomain = null;
+            this.prefix = Arrays.copyOf(toTo[0].getDomainFields(), prefix);
+        } else {
+            this.toTo = null;
+            this.toDomain = converters.toArray(new ToDomainConverter[converters.size()]);
+            this.prefix = Arrays.copyOf(toDomain[0].getDomainFields(), prefix);
+        }
+    }
+
+    /**
+     * Get the length of the path which two converters have in common, the converted field itself is never included.
+     *
+     * @param first first domain field path
+     * @param second second domain field path
+     * @return number of path elements which are the same
+     */
+    static int sharedPathLength(SyntheticField[] first, SyntheticField[] second) {
+        int max = Math.min(first.length, second.length) - 1;
+        int length = 0;
+        while (length < max && first[length].getName().equals(second[length].getName())) {
+            length++;
+        }
+        return length;
+    }
+
+    @Override
+    public void convert(Object source, Object target, String... tags) throws JTransfoException {
+        if (null != toTo) {
+            convertToTo(source, target, tags);
+        } else {
+            convertToDomain(source, target, tags);
+        }
+    }
+
+    private void convertToTo(Object source, Object target, String... tags) {
+        Object shared = null;
+        boolean resolved = false;
+        for (ToToConverter converter : toTo) {
+            try {
+                if (!resolved) {
+                    shared = resolve(source);
+                    resolved = true;
+                }
+                SyntheticField[] domainFields = converter.getDomainFields();
+                Object value = shared;
+                for (int i = prefix.length; i < domainFields.length; i++) {
+                    if (null != value) {
+                        value = domainFields[i].get(value);
+                    }
+                }
+                SyntheticField toField = converter.getToField();
+                toField.set(target, converter.getTypeConverter().reverse(value, toField, target, tags));
+            } catch (IllegalAccessException | IllegalArgumentException e) {
+                throw converter.convertException(e);
+            }
+        }
+    }
+
+    private Object resolve(Object source) throws IllegalAccessException {
+        Object value = source;
+        for (SyntheticField field : prefix) {
+            if (null != value) {
+                value = field.get(value);
+            }
+        }
+        return value;
+    }
+
+    private void convertToDomain(Object source, Object target, String... tags) {
+        Object shared = null;
+        for (ToDomainConverter converter : toDomain) {
+            try {
+                Object value = converter.getToField().get(source);
+                if (null == shared) {
+                    shared = target;
+                    for (int i = 0; i < prefix.length; i++) {
+                        shared = prefix[i].get(shared);
+                        if (null == shared) {
+                            throw new JTransfoException(converter.nullPathMessage(i));
+                        }
+                    }
+                }
+                SyntheticField[] domainFields = converter.getDomainFields();
+                Object holder = shared;
+                for (int i = prefix.length; i < domainFields.length - 1; i++) {
+                    holder = domainFields[i].get(holder);
+                    if (null == holder) {
+                        throw new JTransfoException(converter.nullPathMessage(i));
+                    }
+                }
+                SyntheticField domainField = domainFields[domainFields.length - 1];
+                domainField.set(holder, converter.getTypeConverter().convert(value, domainField, holder, tags));
+            } catch (IllegalAccessException | IllegalArgumentException e) {
+                throw converter.convertException(e);
+            }
+        }
+    }
+
+    /**
+     * Get the converters which share the path.
+     *
+     * @return converters in order
+     */
+    List<Converter> getConverters() {
+        return Collections.unmodifiableList(Arrays.<Converter>asList(null != toTo ? toTo : toDomain));
+    }
+}
@@ -8,16 +8,25 @@
 
 package org.jtransfo.internal;
 
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.Type;
 import java.util.Optional;
 
 /**
  * Simple synthetic field which just exposes the field itself.
+ * <p>
+ * The field is accessed using method handles which are built on construction, so the field should be made accessible
+ * before constructing. Primitive fields can also be accessed without boxing. Reflection is used when the handles
+ * cannot be built or the value does not match the field type.
+ * </p>
  */
-public class SimpleSyntheticField implements SyntheticField {
+public class SimpleSyntheticField extends AbstractSyntheticField {
 
     private Field field;
+    private MethodHandle getter;
+    private MethodHandle setter;
 
     /**
      * Constructor.
@@ -26,18 +35,59 @@ public class SimpleSyntheticField implements SyntheticField {
      */
     public SimpleSyntheticField(Field field) {
         this.field = field;
+        this.getter = AccessorHandles.fieldGetter(field);
+        this.setter = AccessorHandles.fieldSetter(field);
+        Class<?> receiver = Modifier.isStatic(field.getModifiers()) ? null : field.getDeclaringClass();
+        bindPrimitiveGetter(AccessorHandles.primitiveFieldGetter(field), receiver);
+        bindPrimitiveSetter(AccessorHandles.primitiveFieldSetter(field), receiver);
     }
 
     @Override
     public Object get(Object object) throws IllegalAccessException, IllegalArgumentException {
+        if (null != getter && AccessorHandles.isTarget(field, object)) {
+            try {
+                return (Object) getter.invokeExact(object);
+            } catch (Throwable throwable) {
+                throw AccessorHandles.unchecked(throwable);
+            }
+        }
         return field.get(object);
     }
 
     @Override
     public void set(Object object, Object value) throws IllegalAccessException, IllegalArgumentException {
+        if (null != setter && AccessorHandles.isTarget(field, object) &&
+                AccessorHandles.isAssignable(field.getType(), value)) {
+            try {
+                setter.invokeExact(object, value);
+                return;
+            } catch (Throwable throwable) {
+                throw AccessorHandles.unchecked(throwable);
+            }
+        }
         field.set(object, value);
     }
 
+    @Override
+    MethodHandle getterHandle() {
+        return getter;
+    }
+
+    @Override
+    MethodHandle setterHandle() {
+        return setter;
+    }
+
+    @Override
+    protected RuntimeException getterException(Object object, Throwable throwable) {
+        return AccessorHandles.unchecked(throwable);
+    }
+
+    @Override
+    protected RuntimeException setterException(Object object, Throwable throwable) {
+        return AccessorHandles.unchecked(throwable);
+    }
+
     @Override
     public String getName() {
         return field.getName();
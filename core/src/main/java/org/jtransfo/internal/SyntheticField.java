@@ -37,6 +37,198 @@ public interface SyntheticField {
      */
     void set(Object object, Object value) throws IllegalAccessException, IllegalArgumentException;
 
+    /**
+     * Get the value of a {@code boolean} field without boxing (when supported by the implementation).
+     *
+     * @param object object which contains the field.
+     * @return field value
+     * @throws IllegalAccessException illegal access
+     * @throws IllegalArgumentException illegal argument
+     */
+    default boolean getBoolean(Object object) throws IllegalAccessException, IllegalArgumentException {
+        return (Boolean) get(object);
+    }
+
+    /**
+     * Set the value of a {@code boolean} field without boxing (when supported by the implementation).
+     *
+     * @param object object which contains the field.
+     * @param value field value
+     * @throws IllegalAccessException illegal access
+     * @throws IllegalArgumentException illegal argument
+     */
+    default void setBoolean(Object object, boolean value) throws IllegalAccessException, IllegalArgumentException {
+        set(object, value);
+    }
+
+    /**
+     * Get the value of a {@code byte} field without boxing (when supported by the implementation).
+     *
+     * @param object object which contains the field.
+     * @return field value
+     * @throws IllegalAccessException illegal access
+     * @throws IllegalArgumentException illegal argument
+     */
+    default byte getByte(Object object) throws IllegalAccessException, IllegalArgumentException {
+        return (Byte) get(object);
+    }
+
+    /**
+     * Set the value of a {@code byte} field without boxing (when supported by the implementation).
+     *
+     * @param object object which contains the field.
+     * @param value field value
+     * @throws IllegalAccessException illegal access
+     * @throws IllegalArgumentException illegal argument
+     */
+    default void setByte(Object object, byte value) throws IllegalAccessException, IllegalArgumentException {
+        set(object, value);
+    }
+
+    /**
+     * Get the value of a {@code char} field without boxing (when supported by the implementation).
+     *
+     * @param object object which contains the field.
+     * @return field value
+     * @throws IllegalAccessException illegal access
+     * @throws IllegalArgumentException illegal argument
+     */
+    default char getChar(Object object) throws IllegalAccessException, IllegalArgumentException {
+        return (Character) get(object);
+    }
+
+    /**
+     * Set the value of a {@code char} field without boxing (when supported by the implementation).
+     *
+     * @param object object which contains the field.
+     * @param value field value
+     * @throws IllegalAccessException illegal access
+     * @throws IllegalArgumentException illegal argument
+     */
+    default void setChar(Object object, char value) throws IllegalAccessException, IllegalArgumentException {
+        set(object, value);
+    }
+
+    /**
+     * Get the value of a {@code short} field without boxing (when supported by the implementation).
+     *
+     * @param object object which contains the field.
+     * @return field value
+     * @throws IllegalAccessException illegal access
+     * @throws IllegalArgumentException illegal argument
+     */
+    default short getShort(Object object) throws IllegalAccessException, IllegalArgumentException {
+        return (Short) get(object);
+    }
+
+    /**
+     * Set the value of a {@code short} field without boxing (when supported by the implementation).
+     *
+     * @param object object which contains the field.
+     * @param value field value
+     * @throws IllegalAccessException illegal access
+     * @throws IllegalArgumentException illegal argument
+     */
+    default void setShort(Object object, short value) throws IllegalAccessException, IllegalArgumentException {
+        set(object, value);
+    }
+
+    /**
+     * Get the value of a {@code int} field without boxing (when supported by the implementation).
+     *
+     * @param object object which contains the field.
+     * @return field value
+     * @throws IllegalAccessException illegal access
+     * @throws IllegalArgumentException illegal argument
+     */
+    default int getInt(Object object) throws IllegalAccessException, IllegalArgumentException {
+        return (Integer) get(object);
+    }
+
+    /**
+     * Set the value of a {@code int} field without boxing (when supported by the implementation).
+     *
+     * @param object object which contains the field.
+     * @param value field value
+     * @throws IllegalAccessException illegal access
+     * @throws IllegalArgumentException illegal argument
+     */
+    default void setInt(Object object, int value) throws IllegalAccessException, IllegalArgumentException {
+        set(object, value);
+    }
+
+    /**
+     * Get the value of a {@code long} field without boxing (when supported by the implementation).
+     *
+     * @param object object which contains the field.
+     * @return field value
+     * @throws IllegalAccessException illegal access
+     * @throws IllegalArgumentException illegal argument
+     */
+    default long getLong(Object object) throws IllegalAccessException, IllegalArgumentException {
+        return (Long) get(object);
+    }
+
+    /**
+     * Set the value of a {@code long} field without boxing (when supported by the implementation).
+     *
+     * @param object object which contains the field.
+     * @param value field value
+     * @throws IllegalAccessException illegal access
+     * @throws IllegalArgumentException illegal argument
+     */
+    default void setLong(Object object, long value) throws IllegalAccessException, IllegalArgumentException {
+        set(object, value);
+    }
+
+    /**
+     * Get the value of a {@code float} field without boxing (when supported by the implementation).
+     *
+     * @param object object which contains the field.
+     * @return field value
+     * @throws IllegalAccessException illegal access
+     * @throws IllegalArgumentException illegal argument
+     */
+    default float getFloat(Object object) throws IllegalAccessException, IllegalArgumentException {
+        return (Float) get(object);
+    }
+
+    /**
+     * Set the value of a {@code float} field without boxing (when supported by the implementation).
+     *
+     * @param object object which contains the field.
+     * @param value field value
+     * @throws IllegalAccessException illegal access
+     * @throws IllegalArgumentException illegal argument
+     */
+    default void setFloat(Object object, float value) throws IllegalAccessException, IllegalArgumentException {
+        set(object, value);
+    }
+
+    /**
+     * Get the value of a {@code double} field without boxing (when supported by the implementation).
+     *
+     * @param object object which contains the field.
+     * @return field value
+     * @throws IllegalAccessException illegal access
+     * @throws IllegalArgumentException illegal argument
+     */
+    default double getDouble(Object object) throws IllegalAccessException, IllegalArgumentException {
+        return (Double) get(object);
+    }
+
+    /**
+     * Set the value of a {@code double} field without boxing (when supported by the implementation).
+     *
+     * @param object object which contains the field.
+     * @param value field value
+     * @throws IllegalAccessException illegal access
+     * @throws IllegalArgumentException illegal argument
+     */
+    default void setDouble(Object object, double value) throws IllegalAccessException, IllegalArgumentException {
+        set(object, value);
+    }
+
     /**
      * Get field name.
      *
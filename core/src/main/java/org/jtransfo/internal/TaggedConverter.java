@@ -64,6 +64,24 @@ public class TaggedConverter implements Converter {
         }
     }
 
+    /**
+     * Get the converters per tag.
+     *
+     * @return converters for tags which need to be included
+     */
+    Map<String, Converter> getConverters() {
+        return converters;
+    }
+
+    /**
+     * Get the converters which apply when a tag is not included.
+     *
+     * @return converters per tag (without "!" prefix) which must not be included
+     */
+    Map<String, Converter> getNotConverters() {
+        return notConverters;
+    }
+
     private boolean contains(String[] tags, String key) {
         for (String tag : tags) {
             if (key.equals(tag)) {
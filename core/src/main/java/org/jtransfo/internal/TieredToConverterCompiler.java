@@ -0,0 +1,215 @@
+/*
+ * This file is part of jTransfo, a library for converting to and from transfer objects.
+ * Copyright (c) PROGS bvba, Belgium
+ *
+ * The program is available in open source according to the Apache License, Version 2.0.
+ * For full licensing details, see LICENSE.txt in the project root.
+ */
+
+package org.jtransfo.internal;
+
+import org.jtransfo.Converter;
+import org.jtransfo.JTransfoException;
+import org.jtransfo.MapOnly;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compiler which starts with the plain list of converters and only specializes a conversion direction once it has
+ * been used often enough.
+ * <p>
+ * Until the threshold is reached, the converters are invoked as is and the tags which are used are recorded. When
+ * the threshold is passed, the direction is specialized in the background using the delegate compiler. When all
+ * invocations used the same tags, the {@link TaggedConverter}s are resolved for these tags first, so branches for
+ * other tags are dropped. Conversions with other tags use the generic compiled version. The specialized converter
+ * replaces the profiling one atomically.
+ * </p>
+ */
+public class TieredToConverterCompiler implements ToConverterCompiler {
+
+    /**
+     * Default number of conversions before a direction is specialized.
+     */
+    public static final int DEFAULT_THRESHOLD = 1000;
+
+    private final Logger log = LoggerFactory.getLogger(TieredToConverterCompiler.class);
+
+    private final ToConverterCompiler delegate;
+    private final int threshold;
+    private final Executor executor;
+
+    /**
+     * Constructor, specializes after {@link #DEFAULT_THRESHOLD} conversions using the common fork-join pool.
+     *
+     * @param delegate compiler to use for the specialized converters
+     */
+    public TieredToConverterCompiler(ToConverterCompiler delegate) {
+        this(delegate, DEFAULT_THRESHOLD, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param delegate compiler to use for the specialized converters
+     * @param threshold number of conversions before specializing
+     * @param executor executor which runs the specialization
+     */
+    public TieredToConverterCompiler(ToConverterCompiler delegate, int threshold, Executor executor) {
+        this.delegate = delegate;
+        this.threshold = threshold;
+        this.executor = executor;
+    }
+
+    @Override
+    public Converter compile(List<Converter> converters) {
+        if (converters.isEmpty()) {
+            return null;
+        }
+        return new TieredConverter(new ArrayList<>(converters));
+    }
+
+    /**
+     * Resolve the tagged converters for a known set of tags.
+     *
+     * @param converters converters to resolve
+     * @param tags tags which are used for the conversion
+     * @return converters which need to be applied in order for these tags
+     */
+    List<Converter> resolveTags(List<Converter> converters, String... tags) {
+        List<Converter> result = new ArrayList<>();
+        for (Converter converter : converters) {
+            if (converter instanceof TaggedConverter) {
+                result.addAll(resolveTags(tagged((TaggedConverter) converter, tags), tags));
+            } else {
+                result.add(converter);
+            }
+        }
+        return result;
+    }
+
+    private List<Converter> tagged(TaggedConverter converter, String... tags) {
+        List<String> tagList = null == tags ? new ArrayList<>() : Arrays.asList(tags);
+        List<Converter> result = new ArrayList<>();
+        Converter always = converter.getConverters().get(MapOnly.ALWAYS);
+        if (null != always) {
+            result.add(always);
+        }
+        for (Map.Entry<String, Converter> entry : converter.getNotConverters().entrySet()) {
+            if (!tagList.contains(entry.getKey())) {
+                result.add(entry.getValue());
+            }
+        }
+        for (String tag : tagList) {
+            Converter tagConverter = converter.getConverters().get(tag);
+            if (null != tagConverter) {
+                result.add(tagConverter);
+            }
+        }
+        return result;
+    }
+
+    private Converter compiled(List<Converter> converters) {
+        Converter converter = delegate.compile(converters);
+        if (null == converter) {
+            converter = (source, target, tags) -> {
+                for (Converter c : converters) {
+                    c.convert(source, target, tags);
+                }
+            };
+        }
+        return converter;
+    }
+
+    /**
+     * Converter which profiles the conversions until specialized.
+     */
+    private final class TieredConverter implements Converter {
+
+        private final List<Converter> converters;
+        private final AtomicInteger invocations = new AtomicInteger();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile String[] profiledTags;
+        private volatile boolean polymorphicTags;
+        private volatile Specialized specialized;
+
+        private TieredConverter(List<Converter> converters) {
+            this.converters = converters;
+        }
+
+        @Override
+        public void convert(Object source, Object target, String... tags) throws JTransfoException {
+            Specialized current = specialized;
+            if (null != current) {
+                current.convert(source, target, tags);
+                return;
+            }
+            profile(tags);
+            for (Converter converter : converters) {
+                converter.convert(source, target, tags);
+            }
+        }
+
+        private void profile(String... tags) {
+            if (null == profiledTags) {
+                profiledTags = tags;
+            } else if (!polymorphicTags && !Arrays.equals(profiledTags, tags)) {
+                polymorphicTags = true;
+            }
+            if (invocations.incrementAndGet() >= threshold && scheduled.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this::specialize);
+                } catch (RejectedExecutionException ree) {
+                    log.debug("Specialization rejected, conversion stays unspecialized.", ree);
+                }
+            }
+        }
+
+        private void specialize() {
+            try {
+                Converter generic = compiled(converters);
+                String[] tags = polymorphicTags ? null : profiledTags;
+                Converter forTags = null;
+                if (null != tags) {
+                    forTags = compiled(resolveTags(converters, tags));
+                }
+                specialized = new Specialized(tags, forTags, generic);
+            } catch (RuntimeException re) {
+                log.warn("Cannot specialize conversion, conversion stays unspecialized.", re);
+            }
+        }
+    }
+
+    /**
+     * Specialized converter, with a fast path for the profiled tags.
+     */
+    private static final class Specialized {
+
+        private final String[] tags;
+        private final Converter forTags;
+        private final Converter generic;
+
+        private Specialized(String[] tags, Converter forTags, Converter generic) {
+            this.tags = tags;
+            this.forTags = forTags;
+            this.generic = generic;
+        }
+
+        private void convert(Object source, Object target, String... currentTags) {
+            if (null != forTags && Arrays.equals(tags, currentTags)) {
+                forTags.convert(source, target, currentTags);
+            } else {
+                generic.convert(source, target, currentTags);
+            }
+        }
+    }
+}
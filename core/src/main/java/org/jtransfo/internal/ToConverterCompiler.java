@@ -0,0 +1,55 @@
+/*
+ * This file is part of jTransfo, a library for converting to and from transfer objects.
+ * Copyright (c) PROGS bvba, Belgium
+ *
+ * The program is available in open source according to the Apache License, Version 2.0.
+ * For full licensing details, see LICENSE.txt in the project root.
+ */
+
+package org.jtransfo.internal;
+
+import org.jtransfo.Converter;
+import org.jtransfo.ToConverter;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Engine which replaces the list of converters for one conversion direction by a single (faster) converter.
+ */
+public interface ToConverterCompiler {
+
+    /**
+     * Compile the list of converters for one direction into a single converter.
+     *
+     * @param converters converters to apply in order
+     * @return compiled converter, null when the list cannot be compiled (the list is used as is)
+     */
+    Converter compile(List<Converter> converters);
+
+    /**
+     * Compile both directions (and the creator arguments) of a conversion descriptor. Each direction is only
+     * compiled when it is first used. Lists which cannot be compiled are kept.
+     *
+     * @param toConverter conversion descriptor as built by {@link ConverterHelper}
+     * @return compiled conversion descriptor
+     */
+    default ToConverter compile(ToConverter toConverter) {
+        BiConsumer<List<Converter>, List<Converter>> compileInto = (converters, target) -> {
+            Converter compiled = compile(converters);
+            if (null != compiled) {
+                target.add(compiled);
+            } else {
+                target.addAll(converters);
+            }
+        };
+        ToConverter compiled = new ToConverter(toConverter.getPreConverter());
+        compiled.setToCreator(toConverter.getToCreator());
+        compiled.setToToInitializer((toTo, toArguments) -> {
+            compileInto.accept(toConverter.getToTo(), toTo);
+            compileInto.accept(toConverter.getToArguments(), toArguments);
+        });
+        compiled.setToDomainInitializer(toDomain -> compileInto.accept(toConverter.getToDomain(), toDomain));
+        return compiled;
+    }
+}
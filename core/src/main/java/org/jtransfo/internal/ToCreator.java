@@ -0,0 +1,186 @@
+/*
+ * This file is part of jTransfo, a library for converting to and from transfer objects.
+ * Copyright (c) PROGS bvba, Belgium
+ *
+ * The program is available in open source according to the Apache License, Version 2.0.
+ * For full licensing details, see LICENSE.txt in the project root.
+ */
+
+package org.jtransfo.internal;
+
+import org.jtransfo.Creator;
+import org.jtransfo.JTransfoException;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Create a transfer object using a constructor or static factory method, see {@link Creator}.
+ */
+public final class ToCreator {
+
+    private static final Method IS_RECORD;
+    private static final Method GET_RECORD_COMPONENTS;
+    private static final Method GET_COMPONENT_NAME;
+    private static final Method GET_COMPONENT_TYPE;
+
+    static {
+        Method isRecord = null;
+        Method getRecordComponents = null;
+        Method getName = null;
+        Method getType = null;
+        try {
+            isRecord = Class.class.getMethod("isRecord");
+            getRecordComponents = Class.class.getMethod("getRecordComponents");
+            Class<?> recordComponent = getRecordComponents.getReturnType().getComponentType();
+            getName = recordComponent.getMethod("getName");
+            getType = recordComponent.getMethod("getType");
+        } catch (NoSuchMethodException nsme) {
+            isRecord = null; // records are not supported in this JVM
+            getRecordComponents = null;
+        }
+        IS_RECORD = isRecord;
+        GET_RECORD_COMPONENTS = getRecordComponents;
+        GET_COMPONENT_NAME = getName;
+        GET_COMPONENT_TYPE = getType;
+    }
+
+    private final Executable executable;
+    private final String[] fieldNames;
+    private final Object[] defaults;
+
+    private ToCreator(Executable executable, String[] fieldNames) {
+        this.executable = executable;
+        this.fieldNames = fieldNames;
+        Class<?>[] types = executable.getParameterTypes();
+        this.defaults = new Object[types.length];
+        for (int i = 0; i < types.length; i++) {
+            if (types[i].isPrimitive()) {
+                defaults[i] = Array.get(Array.newInstance(types[i], 1), 0);
+            }
+        }
+        executable.setAccessible(true);
+    }
+
+    /**
+     * Find the creator for a transfer object class.
+     *
+     * @param toClass transfer object class
+     * @return creator, null when the transfer object should be created using the no-arguments constructor
+     * @throws JTransfoException creator is ambiguous or parameter names are not known
+     */
+    static ToCreator forClass(Class<?> toClass) throws JTransfoException {
+        List<Executable> creators = new ArrayList<>();
+        for (Constructor<?> constructor : toClass.getDeclaredConstructors()) {
+            if (constructor.isAnnotationPresent(Creator.class)) {
+                creators.add(constructor);
+            }
+        }
+        for (Method method : toClass.getDeclaredMethods()) {
+            if (method.isAnnotationPresent(Creator.class)) {
+                if (!Modifier.isStatic(method.getModifiers()) || !toClass.isAssignableFrom(method.getReturnType())) {
+                    throw new JTransfoException("Creator method " + method.getName() + " in class " +
+                            toClass.getName() + " needs to be static and return the transfer object.");
+                }
+                creators.add(method);
+            }
+        }
+        if (creators.size() > 1) {
+            throw new JTransfoException("Class " + toClass.getName() + " has more than one creator.");
+        }
+        if (1 == creators.size()) {
+            Executable creator = creators.get(0);
+            String[] names = creator.getAnnotation(Creator.class).value();
+            if (0 == names.length) {
+                names = parameterNames(creator);
+            } else if (names.length != creator.getParameterCount()) {
+                throw new JTransfoException("Creator in class " + toClass.getName() + " has " +
+                        creator.getParameterCount() + " parameters but " + names.length + " field names.");
+            }
+            return new ToCreator(creator, names);
+        }
+        return forRecord(toClass);
+    }
+
+    private static String[] parameterNames(Executable creator) {
+        Parameter[] parameters = creator.getParameters();
+        String[] names = new String[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            if (!parameters[i].isNamePresent()) {
+                throw new JTransfoException("Creator in class " + creator.getDeclaringClass().getName() +
+                        " needs field names as parameter names are not available.");
+            }
+            names[i] = parameters[i].getName();
+        }
+        return names;
+    }
+
+    private static ToCreator forRecord(Class<?> toClass) {
+        try {
+            if (null == IS_RECORD || !(Boolean) IS_RECORD.invoke(toClass)) {
+                return null;
+            }
+            Object[] components = (Object[]) GET_RECORD_COMPONENTS.invoke(toClass);
+            String[] names = new String[components.length];
+            Class<?>[] types = new Class<?>[components.length];
+            for (int i = 0; i < components.length; i++) {
+                names[i] = (String) GET_COMPONENT_NAME.invoke(components[i]);
+                types[i] = (Class<?>) GET_COMPONENT_TYPE.invoke(components[i]);
+            }
+            return new ToCreator(toClass.getDeclaredConstructor(types), names);
+        } catch (IllegalAccessException | InvocationTargetException | NoSuchMethodException e) {
+            throw new JTransfoException("Cannot determine canonical constructor for record " +
+                    toClass.getName() + ".", e);
+        }
+    }
+
+    /**
+     * Get the names of the transfer object fields which are passed to the creator, in parameter order.
+     *
+     * @return field names
+     */
+    public String[] getFieldNames() {
+        return fieldNames.clone();
+    }
+
+    /**
+     * Get the number of arguments for the creator.
+     *
+     * @return number of arguments
+     */
+    public int getArgumentCount() {
+        return fieldNames.length;
+    }
+
+    /**
+     * Create the transfer object. Null values for primitive parameters are replaced by the default value.
+     *
+     * @param arguments arguments for the creator, may be modified
+     * @return new transfer object
+     * @throws JTransfoException cannot create object
+     */
+    public Object create(Object[] arguments) throws JTransfoException {
+        for (int i = 0; i < arguments.length; i++) {
+            if (null == arguments[i]) {
+                arguments[i] = defaults[i];
+            }
+        }
+        try {
+            if (executable instanceof Constructor) {
+                return ((Constructor<?>) executable).newInstance(arguments);
+            }
+            return ((Method) executable).invoke(null, arguments);
+        } catch (InstantiationException | IllegalAccessException | IllegalArgumentException |
+                InvocationTargetException e) {
+            throw new JTransfoException("Cannot create instance of transfer object " +
+                    executable.getDeclaringClass().getName() + ".", e);
+        }
+    }
+}
@@ -41,15 +41,51 @@ public final class ToDomainConverter extends AbstractConverter {
         for (int i = 0; i < domainFields.length - 1; i++) {
             target = domainFields[i].get(target);
             if (null == target) {
-                throw new JTransfoException(String.format("Cannot convert TO field %s to domain field %s, " +
-                        "transitive field %s in path is null.", toField.getName(), domainFieldName(domainFields),
-                        domainFields[i].getName()));
+                throw new JTransfoException(nullPathMessage(i));
             }
         }
         SyntheticField domainField = domainFields[domainFields.length - 1];
         domainField.set(target, typeConverter.convert(value, domainField, target, tags));
     }
 
+    /**
+     * Get the exception message for a transitive domain field which is null.
+     *
+     * @param index index of the field in the path which is null
+     * @return exception message
+     */
+    String nullPathMessage(int index) {
+        return String.format("Cannot convert TO field %s to domain field %s, transitive field %s in path is null.",
+                toField.getName(), domainFieldName(domainFields), domainFields[index].getName());
+    }
+
+    /**
+     * Get the transfer object field.
+     *
+     * @return transfer object field
+     */
+    SyntheticField getToField() {
+        return toField;
+    }
+
+    /**
+     * Get the path of domain object fields.
+     *
+     * @return domain object fields
+     */
+    SyntheticField[] getDomainFields() {
+        return domainFields;
+    }
+
+    /**
+     * Get the type converter.
+     *
+     * @return type converter
+     */
+    TypeConverter getTypeConverter() {
+        return typeConverter;
+    }
+
     @Override
     public String accessExceptionMessage() {
         return String.format("Cannot convert TO field %s to domain field %s, field cannot be accessed.",
@@ -14,14 +14,25 @@ import org.jtransfo.DomainClassDelegate;
 import org.jtransfo.JTransfoException;
 
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Helper for working with transfer objects.
+ * <p>
+ * The annotations of each class are only inspected once, the result is cached until {@link #clearCaches()}. Classes
+ * which are listed in the build time index (see {@link ToIndex}) are described without inspecting the annotations.
+ * </p>
  */
 public class ToHelper {
 
+    private static final Class<?>[] NO_DELEGATES = new Class<?>[0];
+
     private ReflectionHelper reflectionHelper = new ReflectionHelper();
     private ClassReplacer classReplacer = c -> c;
+    private volatile ClassValue<ToDescriptor> descriptors = newDescriptors();
+    private volatile ClassValue<Map<Class<?>, Class<?>>> subTypes = newSubTypes();
+    private volatile ToIndex index = new ToIndex();
 
     /**
      * Set the {@link ClassReplacer} which combines the configured class replacers for this jTransfo instance.
@@ -32,6 +43,50 @@ public class ToHelper {
         this.classReplacer = classReplacer;
     }
 
+    /**
+     * Set the build time index of transfer object classes. Indexed classes are described without inspecting their
+     * annotations.
+     *
+     * @param index transfer object index
+     */
+    void setIndex(ToIndex index) {
+        this.index = index;
+        resetCaches();
+    }
+
+    /**
+     * Clear the cached information about transfer object classes. The build time index is no longer used, as it may
+     * not be in line with reloaded classes, the transfer objects are described using their annotations.
+     */
+    public void clearCaches() {
+        index = new ToIndex();
+        resetCaches();
+    }
+
+    private void resetCaches() {
+        descriptors = newDescriptors();
+        subTypes = newSubTypes();
+        reflectionHelper.clearCaches();
+    }
+
+    private ClassValue<ToDescriptor> newDescriptors() {
+        return new ClassValue<ToDescriptor>() {
+            @Override
+            protected ToDescriptor computeValue(Class<?> type) {
+                return describe(type);
+            }
+        };
+    }
+
+    private static ClassValue<Map<Class<?>, Class<?>>> newSubTypes() {
+        return new ClassValue<Map<Class<?>, Class<?>>>() {
+            @Override
+            protected Map<Class<?>, Class<?>> computeValue(Class<?> type) {
+                return new ConcurrentHashMap<>();
+            }
+        };
+    }
+
     /**
      * Is the given object a transfer object?
      * <p>
@@ -55,8 +110,7 @@ public class ToHelper {
      * @return true when object is a transfer object
      */
     public boolean isToClass(Class<?> toClass) {
-        List<DomainClass> domainClasses = reflectionHelper.getAnnotationWithMeta(toClass, DomainClass.class);
-        return 0 != domainClasses.size();
+        return descriptors.get(toClass).to;
     }
 
     /**
@@ -66,8 +120,56 @@ public class ToHelper {
      * @return domain class as annotated on class
      */
     public Class<?> getDomainClass(Class<?> toClass) {
-        Class<?> declaredClass = getDeclaredDomainClass(toClass);
-        return classReplacer.replaceClass(declaredClass);
+        ToDescriptor descriptor = descriptors.get(toClass);
+        Class<?> domainClass = descriptor.domainClass;
+        if (null == domainClass) {
+            domainClass = resolveDomainClass(toClass, descriptor);
+        }
+        return classReplacer.replaceClass(domainClass);
+    }
+
+    private Class<?> resolveDomainClass(Class<?> toClass, ToDescriptor descriptor) {
+        JTransfoException error = descriptor.error;
+        if (null != error) {
+            throw new JTransfoException(error.getMessage(), error.getCause());
+        }
+        try {
+            Class<?> domainClass = getDeclaredDomainClass(toClass);
+            descriptor.domainClass = domainClass;
+            return domainClass;
+        } catch (JTransfoException jte) {
+            if (!(jte.getCause() instanceof ClassNotFoundException)) {
+                // domain class by name may become available later, only remember the other errors
+                descriptor.error = jte;
+            }
+            throw jte;
+        }
+    }
+
+    private ToDescriptor describe(Class<?> toClass) {
+        ToIndex.Entry entry = index.get(toClass.getName());
+        if (null != entry) {
+            try {
+                return describe(toClass, entry);
+            } catch (ClassNotFoundException | LinkageError error) {
+                // index is not in line with the classes, inspect the annotations instead
+            }
+        }
+        boolean to = !reflectionHelper.getAnnotationWithMeta(toClass, DomainClass.class).isEmpty();
+        DomainClassDelegate domainClassDelegate = toClass.getAnnotation(DomainClassDelegate.class);
+        Class<?>[] delegates = null != domainClassDelegate ? domainClassDelegate.delegates() : NO_DELEGATES;
+        return new ToDescriptor(to, null, delegates);
+    }
+
+    private ToDescriptor describe(Class<?> toClass, ToIndex.Entry entry) throws ClassNotFoundException {
+        ClassLoader cl = toClass.getClassLoader();
+        Class<?> domainClass = Class.forName(entry.getDomainClassName(), false, cl);
+        List<String> delegateNames = entry.getDelegateNames();
+        Class<?>[] delegates = new Class<?>[delegateNames.size()];
+        for (int i = 0; i < delegates.length; i++) {
+            delegates[i] = Class.forName(delegateNames.get(i), false, cl);
+        }
+        return new ToDescriptor(true, domainClass, delegates);
     }
 
     private Class<?> getDeclaredDomainClass(Class<?> toClass) {
@@ -88,6 +190,14 @@ public class ToHelper {
             throw new JTransfoException("Transfer object of type " + toClass.getName() +
                     " DomainClass annotation does not specify class.");
         }
+        ClassLoader cl = toClass.getClassLoader();
+        if (null != cl) {
+            try {
+                return Class.forName(domainClass.value(), false, cl);
+            } catch (ClassNotFoundException | LinkageError error) {
+                // not visible from the transfer object, try the context class loader
+            }
+        }
         try {
             return reflectionHelper.loadClass(domainClass.value());
         } catch (ClassNotFoundException cnfe) {
@@ -100,7 +210,8 @@ public class ToHelper {
      * Get the correct transfer object type for the given domain object.
      * <p>
      * This searches the DomainClassDelegates (if present) to see of there is a better matching transfer object than
-     * the one given as parameter.
+     * the one given as parameter. The result is remembered with the domain object class, so runtime domain classes
+     * (like generated proxies) are not kept reachable by the transfer object class.
      * </p>
      *
      * @param toType base transfer object type
@@ -108,16 +219,40 @@ public class ToHelper {
      * @return proper transfer object type to use
      */
     public  Class<?> getToSubType(Class<?> toType, Object domainObject) {
-        DomainClassDelegate domainClassDelegate = toType.getAnnotation(DomainClassDelegate.class);
-        if (null != domainClassDelegate) {
-            for (Class<?> delegate : domainClassDelegate.delegates()) {
-                Class<?> delegateDomain = getDomainClass(delegate);
-                if (delegateDomain.isInstance(domainObject)) {
-                    toType = delegate;
-                }
+        ToDescriptor descriptor = descriptors.get(toType);
+        if (0 == descriptor.delegates.length || null == domainObject) {
+            return toType;
+        }
+        Class<?> domainType = domainObject.getClass();
+        return subTypes.get(domainType).computeIfAbsent(toType,
+                type -> findToSubType(type, descriptor.delegates, domainType));
+    }
+
+    private Class<?> findToSubType(Class<?> toType, Class<?>[] delegates, Class<?> domainType) {
+        for (Class<?> delegate : delegates) {
+            Class<?> delegateDomain = getDomainClass(delegate);
+            if (delegateDomain.isAssignableFrom(domainType)) {
+                toType = delegate;
             }
         }
         return toType;
     }
 
+    /**
+     * Cached information about a class.
+     */
+    private static final class ToDescriptor {
+
+        private final boolean to;
+        private volatile Class<?> domainClass;
+        private volatile JTransfoException error;
+        private final Class<?>[] delegates;
+
+        private ToDescriptor(boolean to, Class<?> domainClass, Class<?>[] delegates) {
+            this.to = to;
+            this.domainClass = domainClass;
+            this.delegates = delegates;
+        }
+    }
+
 }
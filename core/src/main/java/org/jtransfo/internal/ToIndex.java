@@ -0,0 +1,142 @@
+/*
+ * This file is part of jTransfo, a library for converting to and from transfer objects.
+ * Copyright (c) PROGS bvba, Belgium
+ *
+ * The program is available in open source according to the Apache License, Version 2.0.
+ * For full licensing details, see LICENSE.txt in the project root.
+ */
+
+package org.jtransfo.internal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Index of the transfer object classes which is generated at build time by the jTransfo annotation processor.
+ * <p>
+ * The index is stored in <code>META-INF/jtransfo/index</code>, the indexes of all jars on the class path are merged.
+ * Each line contains the binary name of a transfer object class, followed by the name of the domain class and the
+ * names of the delegates (see {@link org.jtransfo.DomainClassDelegate}), separated by spaces. Empty lines and lines
+ * starting with "#" are ignored.
+ * </p>
+ */
+final class ToIndex {
+
+    /**
+     * Location of the index resources.
+     */
+    static final String RESOURCE = "META-INF/jtransfo/index";
+
+    private static final Logger LOG = LoggerFactory.getLogger(ToIndex.class);
+
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+
+    /**
+     * Load the indexes which are available on the class path. The index is only an optimization, indexes which cannot
+     * be read are logged and skipped, the transfer objects are then described using their annotations.
+     *
+     * @param classLoader class loader to find the index resources
+     * @return merged index, possibly partial or empty
+     */
+    static ToIndex load(ClassLoader classLoader) {
+        ToIndex index = new ToIndex();
+        Enumeration<URL> urls;
+        try {
+            urls = classLoader.getResources(RESOURCE);
+        } catch (IOException ioe) {
+            LOG.warn("Cannot find {}, continuing without index.", RESOURCE, ioe);
+            return index;
+        }
+        while (urls.hasMoreElements()) {
+            URL url = urls.nextElement();
+            try (Reader reader = new InputStreamReader(url.openStream(), StandardCharsets.UTF_8)) {
+                index.read(reader);
+            } catch (IOException ioe) {
+                LOG.warn("Cannot read {}, skipping this index.", url, ioe);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Add the entries of an index. Transfer objects which are already in the index are not replaced.
+     *
+     * @param reader index contents
+     * @throws IOException cannot read index
+     */
+    void read(Reader reader) throws IOException {
+        BufferedReader in = new BufferedReader(reader);
+        String line;
+        while (null != (line = in.readLine())) {
+            String[] names = line.trim().split("\\s+");
+            if (names.length >= 2 && !names[0].startsWith("#")) {
+                entries.putIfAbsent(names[0], new Entry(names[1], Arrays.asList(names).subList(2, names.length)));
+            }
+        }
+    }
+
+    /**
+     * Get the names of the indexed transfer object classes.
+     *
+     * @return transfer object class names
+     */
+    Set<String> getToClassNames() {
+        return Collections.unmodifiableSet(entries.keySet());
+    }
+
+    /**
+     * Get the index entry for a transfer object class.
+     *
+     * @param toClassName transfer object class name
+     * @return index entry, null when the class is not indexed
+     */
+    Entry get(String toClassName) {
+        return entries.get(toClassName);
+    }
+
+    /**
+     * Indexed information for a transfer object class.
+     */
+    static final class Entry {
+
+        private final String domainClassName;
+        private final List<String> delegateNames;
+
+        private Entry(String domainClassName, List<String> delegateNames) {
+            this.domainClassName = domainClassName;
+            this.delegateNames = delegateNames;
+        }
+
+        /**
+         * Get the name of the domain class.
+         *
+         * @return domain class name
+         */
+        String getDomainClassName() {
+            return domainClassName;
+        }
+
+        /**
+         * Get the names of the delegates for the transfer object.
+         *
+         * @return delegate class names
+         */
+        List<String> getDelegateNames() {
+            return delegateNames;
+        }
+    }
+}
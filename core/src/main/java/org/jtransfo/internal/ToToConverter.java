@@ -46,6 +46,33 @@ public final class ToToConverter extends AbstractConverter {
         toField.set(target, converted);
     }
 
+    /**
+     * Get the transfer object field.
+     *
+     * @return transfer object field
+     */
+    SyntheticField getToField() {
+        return toField;
+    }
+
+    /**
+     * Get the path of domain object fields.
+     *
+     * @return domain object fields
+     */
+    SyntheticField[] getDomainFields() {
+        return domainFields;
+    }
+
+    /**
+     * Get the type converter.
+     *
+     * @return type converter
+     */
+    TypeConverter getTypeConverter() {
+        return typeConverter;
+    }
+
     @Override
     public String accessExceptionMessage() {
         return String.format("Cannot convert domain field %s to TO field %s, field cannot be accessed.",
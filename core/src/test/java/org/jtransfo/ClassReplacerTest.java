@@ -25,14 +25,28 @@ public class ClassReplacerTest {
     private static final String NAME = "ikke";
 
     private JTransfo jTransfo;
+    private StoriedHouseClassReplacer classReplacer = new StoriedHouseClassReplacer();
 
     @Before
     public void setup() {
         ConfigurableJTransfo impl = JTransfoFactory.get();
-        impl.with(new StoriedHouseClassReplacer());
+        impl.with(classReplacer);
         jTransfo = impl;
     }
 
+    @Test
+    public void testReplacementRemembered() {
+        PersonWithAgeTo to = new PersonWithAgeTo();
+        to.setName("Joske");
+
+        jTransfo.convertTo(to, PersonWithAgeDomain.class);
+        int count = classReplacer.count;
+        PersonWithAgeDomain res = jTransfo.convertTo(to, PersonWithAgeDomain.class);
+
+        assertThat(res).isInstanceOf(PersonWithAgeDomainImpl.class);
+        assertThat(classReplacer.count).isEqualTo(count);
+    }
+
     @Test
     public void testReplaceClassToDomain() {
         PersonWithAgeTo to = new PersonWithAgeTo();
@@ -73,8 +87,11 @@ public class ClassReplacerTest {
     
     private class StoriedHouseClassReplacer implements ClassReplacer {
 
+        private int count;
+
         @Override
         public Class replaceClass(Class clazz) {
+            count++;
             if (clazz == PersonWithAgeDomain.class) return PersonWithAgeDomainImpl.class;
             if (clazz == PersonTo.class) return PersonWithAgeTo.class;
             return clazz;
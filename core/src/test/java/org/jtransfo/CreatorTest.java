@@ -0,0 +1,90 @@
+/*
+ * This file is part of jTransfo, a library for converting to and from transfer objects.
+ * Copyright (c) PROGS bvba, Belgium
+ *
+ * The program is available in open source according to the Apache License, Version 2.0.
+ * For full licensing details, see LICENSE.txt in the project root.
+ */
+
+package org.jtransfo;
+
+import org.jtransfo.internal.InstructionToConverterCompiler;
+import org.jtransfo.internal.JTransfoImpl;
+import org.jtransfo.object.AddressDomain;
+import org.jtransfo.object.ImmutableAddressTo;
+import org.jtransfo.object.ImmutablePersonTo;
+import org.jtransfo.object.PersonDomain;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test conversion to transfer objects which are created using a {@link Creator}.
+ */
+public class CreatorTest {
+
+    private static final String NAME = "ikke";
+
+    private JTransfo jTransfo;
+
+    @Before
+    public void setup() throws Exception {
+        jTransfo = JTransfoFactory.get();
+    }
+
+    @Test
+    public void testConvertToImmutable() throws Exception {
+        PersonDomain domain = new PersonDomain();
+        domain.setName(NAME);
+        Date now = new Date();
+        domain.setLastChanged(now);
+        AddressDomain address = new AddressDomain();
+        address.setId(7L);
+        address.setAddress("Kerkstraat");
+        domain.setAddress(address);
+
+        ImmutablePersonTo to = jTransfo.convertTo(domain, ImmutablePersonTo.class);
+
+        assertThat(to.getName()).isEqualTo(NAME);
+        assertThat(to.getLastChanged()).isEqualTo(now); // set after creation
+        assertThat(to.getAddress().getId()).isEqualTo(7L); // created using static factory
+        assertThat(to.getAddress().getAddress()).isEqualTo("Kerkstraat");
+    }
+
+    @Test
+    public void testConvertToImmutableNullValues() throws Exception {
+        ImmutablePersonTo to = jTransfo.convertTo(new PersonDomain(), ImmutablePersonTo.class);
+
+        assertThat(to.getName()).isNull();
+        assertThat(to.getAddress()).isNull();
+    }
+
+    @Test
+    public void testConvertImmutableToDomain() throws Exception {
+        ImmutablePersonTo to = new ImmutablePersonTo(ImmutableAddressTo.of(3L, "Markt"), NAME);
+        Date now = new Date();
+        to.setLastChanged(now);
+
+        PersonDomain domain = (PersonDomain) jTransfo.convert(to);
+
+        assertThat(domain.getName()).isEqualTo(NAME);
+        assertThat(domain.getLastChanged()).isEqualTo(now);
+        assertThat(domain.getAddress().getId()).isEqualTo(3L);
+        assertThat(domain.getAddress().getAddress()).isEqualTo("Markt");
+    }
+
+    @Test
+    public void testConvertToImmutableCompiled() throws Exception {
+        JTransfoImpl impl = new JTransfoImpl();
+        impl.setToConverterCompiler(new InstructionToConverterCompiler());
+        PersonDomain domain = new PersonDomain();
+        domain.setName(NAME);
+
+        ImmutablePersonTo to = impl.convertTo(domain, ImmutablePersonTo.class);
+
+        assertThat(to.getName()).isEqualTo(NAME);
+    }
+}
@@ -73,6 +73,19 @@ public class JTransfoObjectReplacerTest {
         assertThat(res.getA()).isEqualTo("aaa"); // XZ added by interceptors
     }
 
+    @Test
+    public void testReplacerOnlyUsedWhenItCanReplace() throws Exception {
+        CountingObjectReplacer replacer = new CountingObjectReplacer();
+        ((ConfigurableJTransfo) jTransfo).updateObjectReplacers(singletonList(replacer));
+        final SimpleBaseDomain domain = new SimpleBaseDomain();
+        domain.setA("aaa");
+
+        assertThat(jTransfo.convertTo(domain, SimpleBaseTo.class).getA()).isEqualTo("aaa");
+        assertThat(replacer.count).isEqualTo(0);
+
+        assertThat(jTransfo.convertTo(new DelegateOne(domain), SimpleBaseTo.class).getA()).isEqualTo("aaa");
+        assertThat(replacer.count).isGreaterThan(0);
+    }
 
     private class MyObjectReplacer implements ObjectReplacer {
 
@@ -85,6 +98,21 @@ public class JTransfoObjectReplacerTest {
         }
     }
 
+    private class CountingObjectReplacer extends MyObjectReplacer {
+        private int count;
+
+        @Override
+        public Object replaceObject(Object object) {
+            count++;
+            return super.replaceObject(object);
+        }
+
+        @Override
+        public boolean canReplace(Class<?> type) {
+            return DelegateOne.class == type;
+        }
+    }
+
     private class DelegateOne {
         private SimpleBaseDomain delegate;
 
@@ -0,0 +1,175 @@
+/*
+ * This file is part of jTransfo, a library for converting to and from transfer objects.
+ * Copyright (c) PROGS bvba, Belgium
+ *
+ * The program is available in open source according to the Apache License, Version 2.0.
+ * For full licensing details, see LICENSE.txt in the project root.
+ */
+
+package org.jtransfo;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test conversion of primitive fields (which are copied without boxing).
+ */
+public class PrimitiveConversionTest {
+
+    private JTransfo jTransfo;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        jTransfo = JTransfoFactory.get();
+    }
+
+    @Test
+    public void testToDomain() {
+        PrimitivesTo to = new PrimitivesTo();
+        to.bool = true;
+        to.b = 1;
+        to.c = 'c';
+        to.s = 2;
+        to.i = 3;
+        to.l = 4L;
+        to.f = 5.5f;
+        to.d = 6.5d;
+
+        PrimitivesDomain domain = (PrimitivesDomain) jTransfo.convert(to);
+
+        assertThat(domain.isBool()).isTrue();
+        assertThat(domain.getB()).isEqualTo((byte) 1);
+        assertThat(domain.getC()).isEqualTo('c');
+        assertThat(domain.getS()).isEqualTo((short) 2);
+        assertThat(domain.getI()).isEqualTo(3);
+        assertThat(domain.getL()).isEqualTo(4L);
+        assertThat(domain.getF()).isEqualTo(5.5f);
+        assertThat(domain.getD()).isEqualTo(6.5d);
+        assertThat(domain.getBoxed()).isEqualTo(7);
+    }
+
+    @Test
+    public void testToTo() {
+        PrimitivesDomain domain = new PrimitivesDomain();
+        domain.setBool(true);
+        domain.setB((byte) 1);
+        domain.setC('c');
+        domain.setS((short) 2);
+        domain.setI(3);
+        domain.setL(4L);
+        domain.setF(5.5f);
+        domain.setD(6.5d);
+        domain.setBoxed(8);
+
+        PrimitivesTo to = jTransfo.convertTo(domain, PrimitivesTo.class);
+
+        assertThat(to.bool).isTrue();
+        assertThat(to.b).isEqualTo((byte) 1);
+        assertThat(to.c).isEqualTo('c');
+        assertThat(to.s).isEqualTo((short) 2);
+        assertThat(to.i).isEqualTo(3);
+        assertThat(to.l).isEqualTo(4L);
+        assertThat(to.f).isEqualTo(5.5f);
+        assertThat(to.d).isEqualTo(6.5d);
+        assertThat(to.boxed).isEqualTo(8);
+    }
+
+    public static class PrimitivesDomain {
+        private boolean bool;
+        private byte b;
+        private char c;
+        private short s;
+        private int i;
+        private long l;
+        private float f;
+        private double d;
+        private int boxed;
+
+        public boolean isBool() {
+            return bool;
+        }
+
+        public void setBool(boolean bool) {
+            this.bool = bool;
+        }
+
+        public byte getB() {
+            return b;
+        }
+
+        public void setB(byte b) {
+            this.b = b;
+        }
+
+        public char getC() {
+            return c;
+        }
+
+        public void setC(char c) {
+            this.c = c;
+        }
+
+        public short getS() {
+            return s;
+        }
+
+        public void setS(short s) {
+            this.s = s;
+        }
+
+        public int getI() {
+            return i;
+        }
+
+        public void setI(int i) {
+            this.i = i;
+        }
+
+        public long getL() {
+            return l;
+        }
+
+        public void setL(long l) {
+            this.l = l;
+        }
+
+        public float getF() {
+            return f;
+        }
+
+        public void setF(float f) {
+            this.f = f;
+        }
+
+        public double getD() {
+            return d;
+        }
+
+        public void setD(double d) {
+            this.d = d;
+        }
+
+        public Integer getBoxed() {
+            return boxed;
+        }
+
+        public void setBoxed(int boxed) {
+            this.boxed = boxed;
+        }
+    }
+
+    @DomainClass(domainClass = PrimitivesDomain.class)
+    public static class PrimitivesTo {
+        private boolean bool;
+        private byte b;
+        private char c;
+        private short s;
+        private int i;
+        private long l;
+        private float f;
+        private double d;
+        private int boxed = 7;
+    }
+}
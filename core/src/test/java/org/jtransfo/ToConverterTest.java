@@ -12,7 +12,12 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
 
 public class ToConverterTest {
 
@@ -47,6 +52,68 @@ public class ToConverterTest {
         toConverter.addToDomain(new DummyConverter());
     }
 
+    @Test
+    public void lazyDirectionTest() throws Exception {
+        ToConverter toConverter = new ToConverter();
+        Converter dummy = new DummyConverter();
+        AtomicInteger toToCalls = new AtomicInteger();
+        toConverter.setToToInitializer((toTo, toArguments) -> {
+            if (1 == toToCalls.incrementAndGet()) {
+                throw new JTransfoException("fail first time");
+            }
+            toTo.add(dummy);
+        });
+        toConverter.setToDomainInitializer(toDomain -> toDomain.add(dummy));
+        toConverter.lock();
+
+        assertThat(toToCalls.get()).isEqualTo(0);
+        try {
+            toConverter.getToTo();
+            fail("JTransfoException expected");
+        } catch (JTransfoException jte) {
+            assertThat(jte.getMessage()).isEqualTo("fail first time");
+        }
+        assertThat(toConverter.getToDomain()).containsExactly(dummy);
+        assertThat(toConverter.getToTo()).containsExactly(dummy);
+        assertThat(toConverter.getToArguments()).isEmpty();
+        assertThat(toToCalls.get()).isEqualTo(2);
+
+        exception.expect(JTransfoException.class);
+        exception.expectMessage("Collection is read-only.");
+        toConverter.addToTo(dummy);
+    }
+
+    @Test
+    public void testInitializerFailureRemembered() throws Exception {
+        ToConverter toConverter = new ToConverter();
+        AtomicInteger toDomainCalls = new AtomicInteger();
+        AtomicLong retention = new AtomicLong(TimeUnit.MINUTES.toNanos(1));
+        toConverter.setToDomainInitializer(toDomain -> {
+            toDomainCalls.incrementAndGet();
+            throw new JTransfoException("broken");
+        });
+        toConverter.setFailedInitializerRetention(retention::get);
+
+        for (int i = 0; i < 2; i++) {
+            try {
+                toConverter.getToDomain();
+                fail("JTransfoException expected");
+            } catch (JTransfoException jte) {
+                assertThat(jte.getMessage()).isEqualTo("broken");
+            }
+        }
+        assertThat(toDomainCalls.get()).isEqualTo(1);
+
+        retention.set(0);
+        try {
+            toConverter.getToDomain();
+            fail("JTransfoException expected");
+        } catch (JTransfoException jte) {
+            assertThat(jte.getMessage()).isEqualTo("broken");
+        }
+        assertThat(toDomainCalls.get()).isEqualTo(2);
+    }
+
     private class DummyConverter implements Converter {
         @Override
         public void convert(Object source, Object target, String... tags) {
@@ -0,0 +1,74 @@
+/*
+ * This file is part of jTransfo, a library for converting to and from transfer objects.
+ * Copyright (c) PROGS bvba, Belgium
+ *
+ * The program is available in open source according to the Apache License, Version 2.0.
+ * For full licensing details, see LICENSE.txt in the project root.
+ */
+
+package org.jtransfo.internal;
+
+import org.jtransfo.object.SimpleBaseDomain;
+import org.junit.jupiter.api.Test;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Method;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test for {@link AccessorHandles}.
+ */
+public class AccessorHandlesTest {
+
+    @Test
+    public void testGetterAndSetter() throws Throwable {
+        SimpleBaseDomain domain = new SimpleBaseDomain();
+        MethodHandle getter = AccessorHandles.getter(SimpleBaseDomain.class.getMethod("getB"));
+        MethodHandle setter = AccessorHandles.setter(SimpleBaseDomain.class.getMethod("setB", String.class));
+
+        setter.invokeExact((Object) domain, (Object) "bla");
+
+        assertThat(domain.getB()).isEqualTo("bla");
+        assertThat((Object) getter.invokeExact((Object) domain)).isEqualTo("bla");
+    }
+
+    @Test
+    public void testNonPublicAccessible() throws Throwable {
+        Method method = PrivateGetter.class.getDeclaredMethod("getValue");
+        method.setAccessible(true);
+
+        MethodHandle getter = AccessorHandles.getter(method);
+
+        assertThat((Object) getter.invokeExact((Object) new PrivateGetter())).isEqualTo(42);
+    }
+
+    @Test
+    public void testNoHandle() throws Exception {
+        assertThat(AccessorHandles.getter(null)).isNull();
+        assertThat(AccessorHandles.setter(null)).isNull();
+        assertThat(AccessorHandles.getter(SimpleBaseDomain.class.getMethod("setB", String.class))).isNull();
+        assertThat(AccessorHandles.setter(SimpleBaseDomain.class.getMethod("getB"))).isNull();
+        assertThat(AccessorHandles.getter(PrivateGetter.class.getDeclaredMethod("getStatic"))).isNull();
+    }
+
+    @Test
+    public void testIsAssignable() throws Exception {
+        assertThat(AccessorHandles.isAssignable(String.class, "bla")).isTrue();
+        assertThat(AccessorHandles.isAssignable(String.class, null)).isTrue();
+        assertThat(AccessorHandles.isAssignable(String.class, 1)).isFalse();
+        assertThat(AccessorHandles.isAssignable(int.class, 1)).isTrue();
+        assertThat(AccessorHandles.isAssignable(int.class, null)).isFalse();
+        assertThat(AccessorHandles.isAssignable(long.class, 1)).isFalse();
+    }
+
+    private static class PrivateGetter {
+        private static int getStatic() {
+            return 0;
+        }
+
+        private int getValue() {
+            return 42;
+        }
+    }
+}
@@ -152,6 +152,13 @@ public class AccessorSyntheticFieldTest {
         accessorSyntheticField.set(domain, "bla");
     }
 
+    @Test
+    public void testSetWrongType() throws Exception {
+        exception.expect(IllegalArgumentException.class);
+
+        accessorSyntheticField.set(domain, 1);
+    }
+
     @Test
     public void testGetName() throws Exception {
         assertThat(accessorSyntheticField.getName()).isEqualTo("a");
@@ -0,0 +1,44 @@
+/*
+ * This file is part of jTransfo, a library for converting to and from transfer objects.
+ * Copyright (c) PROGS bvba, Belgium
+ *
+ * The program is available in open source according to the Apache License, Version 2.0.
+ * For full licensing details, see LICENSE.txt in the project root.
+ */
+
+package org.jtransfo.internal;
+
+import org.jtransfo.JTransfoException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test for {@link ClassPathScanner}.
+ */
+public class ClassPathScannerTest {
+
+    private final ClassLoader classLoader = ClassPathScannerTest.class.getClassLoader();
+
+    @Test
+    public void testFindClassNamesInDirectory() throws Exception {
+        Set<String> names = ClassPathScanner.findClassNames(classLoader, "org.jtransfo");
+
+        assertThat(names).contains(JTransfoImpl.class.getName(), ClassPathScannerTest.class.getName(),
+                JTransfoException.class.getName());
+    }
+
+    @Test
+    public void testFindClassNamesInJar() throws Exception {
+        Set<String> names = ClassPathScanner.findClassNames(classLoader, "org.junit.jupiter.api");
+
+        assertThat(names).contains(Test.class.getName());
+    }
+
+    @Test
+    public void testFindClassNamesUnknownPackage() throws Exception {
+        assertThat(ClassPathScanner.findClassNames(classLoader, "org.jtransfo.unknown")).isEmpty();
+    }
+}
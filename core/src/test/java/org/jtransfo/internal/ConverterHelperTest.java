@@ -8,15 +8,20 @@
 
 package org.jtransfo.internal;
 
+import org.jtransfo.Converter;
+import org.jtransfo.Creator;
+import org.jtransfo.DomainClass;
 import org.jtransfo.JTransfoException;
 import org.jtransfo.MapOnly;
 import org.jtransfo.MappedBy;
 import org.jtransfo.Named;
 import org.jtransfo.NoConversionTypeConverter;
+import org.jtransfo.NotMapped;
 import org.jtransfo.ToConverter;
 import org.jtransfo.TypeConverter;
 import org.jtransfo.object.AddressDomain;
 import org.jtransfo.object.FaultyExtendedTo;
+import org.jtransfo.object.ImmutablePersonTo;
 import org.jtransfo.object.PersonDomain;
 import org.jtransfo.object.PersonTransitiveTo;
 import org.jtransfo.object.SimpleExtendedDomain;
@@ -32,6 +37,7 @@ import org.springframework.test.util.ReflectionTestUtils;
 import java.lang.reflect.Field;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
@@ -41,6 +47,7 @@ import java.util.Map;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -138,6 +145,12 @@ public class ConverterHelperTest {
         TypeConverter res2 = converterHelper.getDeclaredTypeConverter(mappedBy);
 
         assertThat(res2 == res).isTrue(); // instance needs to be cached and reused
+
+        converterHelper.clearCaches();
+        TypeConverter res3 = converterHelper.getDeclaredTypeConverter(mappedBy);
+
+        assertThat(res3).isInstanceOf(NoConversionTypeConverter.class);
+        verify(reflectionHelper, times(2)).newInstance(NoConversionTypeConverter.class.getName());
     }
 
     @Test
@@ -226,7 +239,7 @@ public class ConverterHelperTest {
     @Test
     public void testGetDefaultTypeConverterEmptyList() throws Exception {
 
-        TypeConverter typeConverter = converterHelper.getDefaultTypeConverter(Object.class, Date.class);
+        TypeConverter typeConverter = converterHelper.getDefaultTypeConverter(Object.class, Object.class, Date.class);
 
         assertThat(typeConverter).isInstanceOf(NoConversionTypeConverter.class);
     }
@@ -238,11 +251,33 @@ public class ConverterHelperTest {
         ReflectionTestUtils.setField(converterHelper, "typeConvertersInOrder",
                 Collections.singletonList(typeConverter));
 
-        TypeConverter result = converterHelper.getDefaultTypeConverter(Object.class, Date.class);
+        TypeConverter result = converterHelper.getDefaultTypeConverter(Object.class, Object.class, Date.class);
 
         assertThat(result).isEqualTo(typeConverter);
     }
 
+    @Test
+    public void testGetDefaultTypeConverterCached() throws Exception {
+        TypeConverter typeConverter = mock(TypeConverter.class);
+        when(typeConverter.canConvert(any(Class.class), any(Class.class))).thenReturn(true);
+        converterHelper.setTypeConvertersInOrder(Collections.singletonList(typeConverter));
+
+        assertThat(converterHelper.getDefaultTypeConverter(Object.class, Object.class, Date.class)).isEqualTo(typeConverter);
+        assertThat(converterHelper.getDefaultTypeConverter(Object.class, Object.class, Date.class)).isEqualTo(typeConverter);
+        assertThat(converterHelper.getDefaultTypeConverter(Object.class, Date.class, Object.class)).isEqualTo(typeConverter);
+        verify(typeConverter, times(2)).canConvert(any(Class.class), any(Class.class));
+
+        converterHelper.evict(Object.class);
+        assertThat(converterHelper.getDefaultTypeConverter(Object.class, Object.class, Date.class))
+                .isEqualTo(typeConverter);
+        verify(typeConverter, times(3)).canConvert(any(Class.class), any(Class.class));
+
+        converterHelper.setTypeConvertersInOrder(Collections.emptyList());
+
+        assertThat(converterHelper.getDefaultTypeConverter(Object.class, Object.class, Date.class))
+                .isInstanceOf(NoConversionTypeConverter.class);
+    }
+
     @Test
     public void testGetDefaultTypeConverterNoMatchingConverter() throws Exception {
         List<TypeConverter> tcs = new ArrayList<>();
@@ -250,7 +285,7 @@ public class ConverterHelperTest {
         tcs.add(new DefaultTypeConverter());
         ReflectionTestUtils.setField(converterHelper, "typeConvertersInOrder", tcs);
 
-        TypeConverter typeConverter = converterHelper.getDefaultTypeConverter(Object.class, Date.class);
+        TypeConverter typeConverter = converterHelper.getDefaultTypeConverter(Object.class, Object.class, Date.class);
 
         assertThat(typeConverter).isInstanceOf(NoConversionTypeConverter.class);
     }
@@ -262,10 +297,36 @@ public class ConverterHelperTest {
         ToConverter res = converterHelper.getToConverter(SimpleExtendedTo.class, SimpleExtendedDomain.class);
 
         assertThat(res).isNotNull();
-        assertThat(res.getToTo()).hasSize(4);
-        assertThat(res.getToTo().get(0)).isInstanceOf(ToToConverter.class);
-        assertThat(res.getToDomain()).hasSize(3);
-        assertThat(res.getToDomain().get(0)).isInstanceOf(ToDomainConverter.class);
+        assertThat(res.getToTo()).hasSize(1); // all fields are plain copies
+        assertThat(res.getToDomain()).hasSize(1);
+        List<Converter> toTo = ((FusedCopyConverter) res.getToTo().get(0)).getConverters();
+        List<Converter> toDomain = ((FusedCopyConverter) res.getToDomain().get(0)).getConverters();
+        assertThat(toTo).hasSize(4);
+        assertThat(toTo.get(0)).isInstanceOf(ToToConverter.class);
+        assertThat(toDomain).hasSize(3);
+        assertThat(toDomain.get(0)).isInstanceOf(ToDomainConverter.class);
+        assertThat(toTo.get(2)).isInstanceOf(PrimitiveToToConverter.class); // int field i
+        assertThat(toDomain.get(1)).isInstanceOf(PrimitiveToDomainConverter.class);
+    }
+
+    @Test
+    public void testFuseIdentityCopies() throws Exception {
+        Field field = SimpleExtendedDomain.class.getDeclaredField("b");
+        SyntheticField sf = new SimpleSyntheticField(field);
+        Converter copy1 = new ToToConverter(sf, new SyntheticField[] {sf}, new NoConversionTypeConverter());
+        Converter copy2 = new ToDomainConverter(sf, new SyntheticField[] {sf}, new NoConversionTypeConverter());
+        Converter path = new ToToConverter(sf, new SyntheticField[] {sf, sf}, new NoConversionTypeConverter());
+        Converter typed = new ToToConverter(sf, new SyntheticField[] {sf}, new DefaultTypeConverter());
+        Converter other = (source, target, tags) -> { };
+        List<Converter> converters = new ArrayList<>(Arrays.asList(copy1, copy2, path, copy1, typed, other,
+                copy1, copy2, copy1));
+
+        converterHelper.fuseIdentityCopies(converters);
+
+        assertThat(converters).hasSize(6);
+        assertThat(((FusedCopyConverter) converters.get(0)).getConverters()).containsExactly(copy1, copy2);
+        assertThat(converters.subList(1, 5)).containsExactly(path, copy1, typed, other);
+        assertThat(((FusedCopyConverter) converters.get(5)).getConverters()).containsExactly(copy1, copy2, copy1);
     }
 
     @Test
@@ -290,8 +351,54 @@ public class ConverterHelperTest {
         ToConverter res = converterHelper.getToConverter(PersonTransitiveTo.class, PersonDomain.class);
 
         assertThat(res).isNotNull();
-        assertThat(res.getToTo()).hasSize(3);
-        assertThat(res.getToDomain()).hasSize(3);
+        assertThat(res.getToTo()).hasSize(2); // fields with path "address" share the path
+        assertThat(res.getToDomain()).hasSize(2);
+        assertThat(((SharedPathConverter) res.getToTo().get(1)).getConverters()).hasSize(2);
+        assertThat(((SharedPathConverter) res.getToDomain().get(1)).getConverters()).hasSize(2);
+    }
+
+    @Test
+    public void testGetToConverterCreator() throws Exception {
+        ReflectionTestUtils.setField(converterHelper, "reflectionHelper", new ReflectionHelper()); // echte gebruiken
+
+        ToConverter res = converterHelper.getToConverter(ImmutablePersonTo.class, PersonDomain.class);
+
+        assertThat(res.getToCreator()).isNotNull();
+        assertThat(res.getToArguments()).hasSize(1); // name and address, fused as no type converters are set
+        assertThat(((FusedCopyConverter) res.getToArguments().get(0)).getConverters()).hasSize(2);
+        assertThat(res.getToTo()).hasSize(1); // lastChanged
+        assertThat(res.getToDomain()).hasSize(1); // name, address and lastChanged fused
+    }
+
+    @Test
+    public void testGetToConverterCreatorUnmapped() throws Exception {
+        ReflectionTestUtils.setField(converterHelper, "reflectionHelper", new ReflectionHelper()); // echte gebruiken
+
+        exception.expect(JTransfoException.class);
+        exception.expectMessage("Creator for class " + UnmappedCreatorTo.class.getName() + " has parameters for " +
+                "fields [other] which are not mapped.");
+
+        converterHelper.getToConverter(UnmappedCreatorTo.class, PersonDomain.class);
+    }
+
+    @Test
+    public void testShareCommonPaths() throws Exception {
+        SyntheticField a = new SimpleSyntheticField(PersonDomain.class.getDeclaredField("address"));
+        SyntheticField n = new SimpleSyntheticField(PersonDomain.class.getDeclaredField("name"));
+        SyntheticField id = new SimpleSyntheticField(AddressDomain.class.getDeclaredField("id"));
+        Converter toToId = new ToToConverter(n, new SyntheticField[] {a, id}, new NoConversionTypeConverter());
+        Converter toToAddress = new ToToConverter(n, new SyntheticField[] {a, a, id}, new NoConversionTypeConverter());
+        Converter toToName = new ToToConverter(n, new SyntheticField[] {n}, new NoConversionTypeConverter());
+        Converter toToOther = new ToToConverter(n, new SyntheticField[] {n, id}, new NoConversionTypeConverter());
+        Converter toDomainId = new ToDomainConverter(n, new SyntheticField[] {a, id}, new NoConversionTypeConverter());
+        List<Converter> converters = new ArrayList<>(Arrays.asList(toToId, toToAddress, toToName, toToOther,
+                toToId, toDomainId));
+
+        converterHelper.shareCommonPaths(converters);
+
+        assertThat(converters).hasSize(5);
+        assertThat(((SharedPathConverter) converters.get(0)).getConverters()).containsExactly(toToId, toToAddress);
+        assertThat(converters.subList(1, 5)).containsExactly(toToName, toToOther, toToId, toDomainId);
     }
 
     @Test
@@ -427,4 +534,17 @@ public class ConverterHelperTest {
 
     private interface NamedTypeConverter extends TypeConverter, Named {
     }
+
+    @DomainClass(domainClass = PersonDomain.class)
+    private static class UnmappedCreatorTo {
+        private final String name;
+        @NotMapped
+        private String other;
+
+        @Creator({"name", "other"})
+        UnmappedCreatorTo(String name, String other) {
+            this.name = name;
+            this.other = other;
+        }
+    }
 }
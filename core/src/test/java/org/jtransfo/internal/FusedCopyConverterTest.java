@@ -0,0 +1,92 @@
+/*
+ * This file is part of jTransfo, a library for converting to and from transfer objects.
+ * Copyright (c) PROGS bvba, Belgium
+ *
+ * The program is available in open source according to the Apache License, Version 2.0.
+ * For full licensing details, see LICENSE.txt in the project root.
+ */
+
+package org.jtransfo.internal;
+
+import org.jtransfo.JTransfoException;
+import org.jtransfo.NoConversionTypeConverter;
+import org.jtransfo.object.SimpleExtendedDomain;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test for {@link FusedCopyConverter}.
+ */
+public class FusedCopyConverterTest {
+
+    private ReflectionHelper reflectionHelper;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        reflectionHelper = new ReflectionHelper();
+    }
+
+    @Test
+    public void testConvert() throws Exception {
+        FusedCopyConverter converter = new FusedCopyConverter(Arrays.asList(
+                new ToToConverter(syntheticField("b"), new SyntheticField[] {syntheticField("c")},
+                        new NoConversionTypeConverter()),
+                new ToDomainConverter(syntheticField("b"), new SyntheticField[] {syntheticField("c")},
+                        new NoConversionTypeConverter()),
+                new PrimitiveToToConverter(syntheticField("i"), syntheticField("i"), PrimitiveCopy.INT)));
+        SimpleExtendedDomain source = new SimpleExtendedDomain();
+        source.setB("bb");
+        source.setC("cc");
+        source.setI(5);
+        SimpleExtendedDomain target = new SimpleExtendedDomain();
+
+        converter.convert(source, target);
+
+        assertThat(target.getB()).isEqualTo("cc");
+        assertThat(target.getC()).isEqualTo("bb");
+        assertThat(target.getI()).isEqualTo(5);
+    }
+
+    @Test
+    public void testExceptionOfFailingField() throws Exception {
+        FusedCopyConverter converter = new FusedCopyConverter(Arrays.asList(
+                new ToToConverter(syntheticField("b"), new SyntheticField[] {syntheticField("c")},
+                        new NoConversionTypeConverter()),
+                new ToToConverter(syntheticField("i"), new SyntheticField[] {syntheticField("c")},
+                        new NoConversionTypeConverter())));
+        SimpleExtendedDomain sed = new SimpleExtendedDomain();
+        sed.setC("cc");
+
+        JTransfoException jte = Assertions.assertThrows(JTransfoException.class, () -> converter.convert(sed, sed));
+
+        assertThat(jte.getMessage())
+                .isEqualTo("Cannot convert domain field c to TO field i, field needs type conversion.");
+        assertThat(sed.getB()).isEqualTo("cc");
+    }
+
+    @Test
+    public void testIsIdentityCopy() throws Exception {
+        SyntheticField sf = syntheticField("b");
+
+        assertThat(FusedCopyConverter.isIdentityCopy(
+                new ToToConverter(sf, new SyntheticField[] {sf}, new NoConversionTypeConverter()))).isTrue();
+        assertThat(FusedCopyConverter.isIdentityCopy(
+                new ToToConverter(sf, new SyntheticField[] {sf, sf}, new NoConversionTypeConverter()))).isFalse();
+        assertThat(FusedCopyConverter.isIdentityCopy(
+                new ToDomainConverter(sf, new SyntheticField[] {sf}, new NoConversionTypeConverter() { })))
+                .isFalse();
+        assertThat(FusedCopyConverter.isIdentityCopy((source, target, tags) -> { })).isFalse();
+    }
+
+    private SyntheticField syntheticField(String name) throws Exception {
+        Field field = SimpleExtendedDomain.class.getDeclaredField(name);
+        reflectionHelper.makeAccessible(field);
+        return new SimpleSyntheticField(field);
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * This file is part of jTransfo, a library for converting to and from transfer objects.
+ * Copyright (c) PROGS bvba, Belgium
+ *
+ * The program is available in open source according to the Apache License, Version 2.0.
+ * For full licensing details, see LICENSE.txt in the project root.
+ */
+
+package org.jtransfo.internal;
+
+import org.jtransfo.Converter;
+import org.jtransfo.JTransfoException;
+import org.jtransfo.NoConversionTypeConverter;
+import org.jtransfo.PrimitiveConversionTest;
+import org.jtransfo.object.AddressDomain;
+import org.jtransfo.object.PersonDomain;
+import org.jtransfo.object.SimpleExtendedDomain;
+import org.jtransfo.object.SimpleExtendedTo;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test for {@link InstructionToConverterCompiler}.
+ */
+public class InstructionToConverterCompilerTest {
+
+    private static final String C_VALUE = "c value";
+
+    private InstructionToConverterCompiler compiler;
+    private ReflectionHelper reflectionHelper;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        compiler = new InstructionToConverterCompiler();
+        reflectionHelper = new ReflectionHelper();
+    }
+
+    @Test
+    public void testCompileEmpty() {
+        assertThat(compiler.compile(Collections.<Converter>emptyList())).isNull();
+    }
+
+    @Test
+    public void testCompileInOrder() throws Exception {
+        List<String> seen = new ArrayList<>();
+        Converter copyB = new ToToConverter(syntheticField(SimpleExtendedDomain.class, "b"),
+                new SyntheticField[] {syntheticField(SimpleExtendedDomain.class, "c")},
+                new NoConversionTypeConverter());
+        Converter record = (source, target, tags) -> seen.add(((SimpleExtendedDomain) target).getB() + tags[0]);
+        Converter copyI = new PrimitiveToToConverter(syntheticField(SimpleExtendedDomain.class, "i"),
+                syntheticField(SimpleExtendedDomain.class, "i"), PrimitiveCopy.INT);
+        SimpleExtendedDomain source = new SimpleExtendedDomain();
+        source.setC(C_VALUE);
+        source.setI(7);
+        SimpleExtendedDomain target = new SimpleExtendedDomain();
+
+        Converter compiled = compiler.compile(Arrays.asList(record, copyB, record, copyI));
+        compiled.convert(source, target, "tag");
+
+        assertThat(compiled).isInstanceOf(InstructionConverter.class);
+        assertThat(seen).containsExactly("nulltag", C_VALUE + "tag");
+        assertThat(target.getB()).isEqualTo(C_VALUE);
+        assertThat(target.getI()).isEqualTo(7);
+    }
+
+    @Test
+    public void testTaggedSameOrder() throws Exception {
+        List<String> seen = new ArrayList<>();
+        TaggedConverter tagged = new TaggedConverter();
+        tagged.addConverters((source, target, tags) -> seen.add("always"), "*");
+        tagged.addConverters((source, target, tags) -> seen.add("notX"), "!x");
+        tagged.addConverters((source, target, tags) -> seen.add("a"), "a", "!y");
+        tagged.addConverters((source, target, tags) -> seen.add("b"), "b");
+        Converter compiled = compiler.compile(Collections.singletonList(tagged));
+
+        for (String[] tags : Arrays.asList(new String[] {"b", "a"}, new String[] {"x", "y"}, new String[] {"a"},
+                new String[] {"*", "q"}, new String[0])) {
+            tagged.convert(null, null, tags);
+            List<String> expected = new ArrayList<>(seen);
+            seen.clear();
+            compiled.convert(null, null, tags);
+            assertThat(seen).isEqualTo(expected);
+            seen.clear();
+        }
+    }
+
+    @Test
+    public void testTransitivePathNull() throws Exception {
+        Converter converter = new ToDomainConverter(syntheticField(PersonDomain.class, "name"),
+                new SyntheticField[] {syntheticField(PersonDomain.class, "address"),
+                        syntheticField(AddressDomain.class, "address")},
+                new NoConversionTypeConverter());
+        PersonDomain source = new PersonDomain();
+        source.setName("ikke");
+        PersonDomain target = new PersonDomain();
+        Converter compiled = compiler.compile(Collections.singletonList(converter));
+
+        JTransfoException jte = Assertions.assertThrows(JTransfoException.class, () ->
+                compiled.convert(source, target));
+
+        assertThat(jte.getMessage()).isEqualTo("Cannot convert TO field name to domain field address " +
+                "(with path address), transitive field address in path is null.");
+
+        target.setAddress(new AddressDomain());
+        compiled.convert(source, target);
+
+        assertThat(target.getAddress().getAddress()).isEqualTo("ikke");
+    }
+
+    @Test
+    public void testArgumentException() throws Exception {
+        Converter converter = new ToToConverter(syntheticField(SimpleExtendedDomain.class, "i"),
+                new SyntheticField[] {syntheticField(SimpleExtendedDomain.class, "c")},
+                new NoConversionTypeConverter());
+        SimpleExtendedDomain sed = new SimpleExtendedDomain();
+        sed.setC(C_VALUE);
+
+        JTransfoException jte = Assertions.assertThrows(JTransfoException.class, () ->
+                compiler.compile(Collections.singletonList(converter)).convert(sed, sed));
+
+        assertThat(jte.getMessage())
+                .isEqualTo("Cannot convert domain field c to TO field i, field needs type conversion.");
+    }
+
+    @Test
+    public void testAccessException() throws Exception {
+        Converter converter = new ToToConverter(
+                new SimpleSyntheticField(SimpleExtendedDomain.class.getDeclaredField("b")),
+                new SyntheticField[] {syntheticField(SimpleExtendedDomain.class, "c")},
+                new NoConversionTypeConverter());
+        SimpleExtendedDomain sed = new SimpleExtendedDomain();
+
+        JTransfoException jte = Assertions.assertThrows(JTransfoException.class, () ->
+                compiler.compile(Collections.singletonList(converter)).convert(sed, sed));
+
+        assertThat(jte.getMessage())
+                .isEqualTo("Cannot convert domain field c to TO field b, field cannot be accessed.");
+    }
+
+    @Test
+    public void testCallExceptionNotWrapped() throws Exception {
+        Converter copyB = new ToToConverter(syntheticField(SimpleExtendedDomain.class, "b"),
+                new SyntheticField[] {syntheticField(SimpleExtendedDomain.class, "c")},
+                new NoConversionTypeConverter());
+        IllegalArgumentException iae = new IllegalArgumentException("Can not set ");
+        Converter failing = (source, target, tags) -> {
+            throw iae;
+        };
+        SimpleExtendedDomain sed = new SimpleExtendedDomain();
+
+        IllegalArgumentException thrown = Assertions.assertThrows(IllegalArgumentException.class, () ->
+                compiler.compile(Arrays.asList(copyB, failing)).convert(sed, sed));
+
+        assertThat(thrown).isSameAs(iae);
+    }
+
+    @Test
+    public void testJTransfoWithCompiler() throws Exception {
+        JTransfoImpl jTransfo = new JTransfoImpl();
+        jTransfo.setToConverterCompiler(compiler);
+        SimpleExtendedDomain domain = new SimpleExtendedDomain();
+        domain.setA("aaa");
+        domain.setB("bb");
+        domain.setC("cccc");
+        domain.setI(111);
+
+        SimpleExtendedTo to = jTransfo.convertTo(domain, SimpleExtendedTo.class);
+        SimpleExtendedDomain back = (SimpleExtendedDomain) jTransfo.convert(to);
+
+        assertThat(to.getA()).isEqualTo("aaa");
+        assertThat(to.getString()).isEqualTo("bb");
+        assertThat(to.getC()).isEqualTo("cccc");
+        assertThat(to.getI()).isEqualTo(111);
+        assertThat(back.getA()).isEqualTo("aaa");
+        assertThat(back.getB()).isEqualTo("bb");
+        assertThat(back.getC()).isNull(); // read-only in to
+        assertThat(back.getI()).isEqualTo(111);
+    }
+
+    @Test
+    public void testJTransfoWithCompilerPrimitives() throws Exception {
+        JTransfoImpl jTransfo = new JTransfoImpl();
+        jTransfo.setToConverterCompiler(compiler);
+        PrimitiveConversionTest.PrimitivesDomain domain = new PrimitiveConversionTest.PrimitivesDomain();
+        domain.setL(4L);
+        domain.setD(6.5d);
+        domain.setBoxed(8);
+
+        PrimitiveConversionTest.PrimitivesTo to =
+                jTransfo.convertTo(domain, PrimitiveConversionTest.PrimitivesTo.class);
+        PrimitiveConversionTest.PrimitivesDomain back = (PrimitiveConversionTest.PrimitivesDomain) jTransfo.convert(to);
+
+        assertThat(back.getL()).isEqualTo(4L);
+        assertThat(back.getD()).isEqualTo(6.5d);
+        assertThat(back.getBoxed()).isEqualTo(8);
+    }
+
+    private SyntheticField syntheticField(Class<?> clazz, String name) throws Exception {
+        Field field = clazz.getDeclaredField(name);
+        reflectionHelper.makeAccessible(field);
+        return new SimpleSyntheticField(field);
+    }
+}
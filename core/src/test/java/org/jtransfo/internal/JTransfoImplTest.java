@@ -17,11 +17,19 @@ import org.jtransfo.NoConversionTypeConverter;
 import org.jtransfo.ObjectFinder;
 import org.jtransfo.PostConverter;
 import org.jtransfo.PreConverter;
+import org.jtransfo.PrewarmReport;
+import org.jtransfo.ToMapper;
 import org.jtransfo.TypeConverter;
+import org.jtransfo.object.AddressDomain;
+import org.jtransfo.object.FaultyExtendedTo;
+import org.jtransfo.object.PersonDomain;
 import org.jtransfo.object.PersonTo;
+import org.jtransfo.object.PersonTransitiveTo;
 import org.jtransfo.object.SimpleClassDomain;
 import org.jtransfo.object.SimpleClassNameTo;
 import org.jtransfo.object.SimpleClassTypeTo;
+import org.jtransfo.object.SimpleExtendedDomain;
+import org.jtransfo.object.SimpleExtendedTo;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -30,14 +38,31 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.lang.reflect.Type;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Date;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -406,6 +431,276 @@ public class JTransfoImplTest {
         // just to check it does not fail
     }
 
+    @Test
+    public void testRegisterToMapper() throws Exception {
+        jTransfo.registerToMapper(new SimpleExtendedToMapper());
+        SimpleExtendedDomain domain = new SimpleExtendedDomain();
+        domain.setB("domain");
+
+        SimpleExtendedTo to = jTransfo.convert(domain, new SimpleExtendedTo());
+
+        assertThat(to.getString()).isEqualTo("mapped domain");
+        assertThat(to.getC()).isNull(); // not copied by mapper
+    }
+
+    @Test
+    public void testRegisterToMapperNotUsedWithTypeConversion() throws Exception {
+        jTransfo.registerToMapper(new SimpleExtendedToMapper());
+        TypeConverter typeConverter = new NoConversionTypeConverter() { }; // needs to be used instead of mapper
+        jTransfo.updateTypeConverters(Collections.singletonList(typeConverter));
+        jTransfo.clearCaches();
+        SimpleExtendedDomain domain = new SimpleExtendedDomain();
+        domain.setB("domain");
+        domain.setC("c");
+
+        SimpleExtendedTo to = jTransfo.convert(domain, new SimpleExtendedTo());
+
+        assertThat(to.getString()).isEqualTo("domain");
+        assertThat(to.getC()).isEqualTo("c");
+    }
+    @Test
+    public void testConverterBuiltOnce() throws Exception {
+        ConverterHelper spyHelper = spy(new ConverterHelper());
+        ReflectionTestUtils.setField(jTransfo, "converterHelper", spyHelper);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<SimpleExtendedTo>> results = new ArrayList<>();
+        SimpleExtendedDomain domain = new SimpleExtendedDomain();
+        domain.setB("bb");
+
+        try {
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return jTransfo.convert(domain, new SimpleExtendedTo());
+                }));
+            }
+            start.countDown();
+            for (Future<SimpleExtendedTo> result : results) {
+                assertThat(result.get().getString()).isEqualTo("bb");
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        verify(spyHelper, times(1)).getLazyToConverter(SimpleExtendedTo.class, SimpleExtendedDomain.class);
+    }
+
+    @Test
+    public void testConverterCacheLimit() throws Exception {
+        ConverterHelper spyHelper = spy(new ConverterHelper());
+        ReflectionTestUtils.setField(jTransfo, "converterHelper", spyHelper);
+        jTransfo.setConverterCacheLimit(1);
+
+        jTransfo.convert(new SimpleExtendedDomain(), new SimpleExtendedTo());
+        jTransfo.convert(new SimpleClassDomain(), new SimpleClassNameTo());
+        jTransfo.convert(new SimpleExtendedDomain(), new SimpleExtendedTo());
+        jTransfo.convert(new SimpleExtendedDomain(), new SimpleExtendedTo());
+
+        verify(spyHelper, times(2)).getLazyToConverter(SimpleExtendedTo.class, SimpleExtendedDomain.class);
+        ConverterCacheStatistics statistics = jTransfo.getConverterCacheStatistics();
+        assertThat(statistics.getMisses()).isEqualTo(3);
+        assertThat(statistics.getHits()).isEqualTo(1);
+        assertThat(statistics.getEvictions()).isEqualTo(2);
+        assertThat(statistics.getSize()).isEqualTo(1);
+
+        verify(spyHelper).evict(SimpleExtendedTo.class);
+        verify(spyHelper).evict(SimpleClassNameTo.class);
+
+        jTransfo.clearCaches();
+        assertThat(jTransfo.getConverterCacheStatistics().getSize()).isEqualTo(0);
+    }
+
+    @Test
+    public void testConverterCacheLeastRecentlyUsed() throws Exception {
+        ConverterHelper spyHelper = spy(new ConverterHelper());
+        ReflectionTestUtils.setField(jTransfo, "converterHelper", spyHelper);
+        jTransfo.setConverterCacheLimit(2);
+
+        jTransfo.convert(new SimpleExtendedDomain(), new SimpleExtendedTo());
+        jTransfo.convert(new SimpleClassDomain(), new SimpleClassNameTo());
+        jTransfo.convert(new SimpleExtendedDomain(), new SimpleExtendedTo());
+        jTransfo.convert(new SimpleClassDomain(), new SimpleClassTypeTo());
+        jTransfo.convert(new SimpleExtendedDomain(), new SimpleExtendedTo());
+
+        verify(spyHelper, times(1)).getLazyToConverter(SimpleExtendedTo.class, SimpleExtendedDomain.class);
+        verify(spyHelper).evict(SimpleClassNameTo.class);
+        assertThat(jTransfo.getConverterCacheStatistics().getEvictions()).isEqualTo(1);
+        assertThat(jTransfo.getConverterCacheStatistics().getSize()).isEqualTo(2);
+    }
+
+    @Test
+    public void testFailedConverterRemembered() throws Exception {
+        ReflectionTestUtils.setField(jTransfo, "converterHelper", converterHelper);
+        when(converterHelper.getLazyToConverter(SimpleExtendedTo.class, SimpleExtendedDomain.class))
+                .thenThrow(new JTransfoException("broken"));
+
+        for (int i = 0; i < 2; i++) {
+            JTransfoException exc = Assertions.assertThrows(JTransfoException.class, () ->
+                    jTransfo.convertTo(new SimpleExtendedDomain(), SimpleExtendedTo.class));
+            assertThat(exc.getMessage()).isEqualTo("broken");
+        }
+        verify(converterHelper, times(1)).getLazyToConverter(SimpleExtendedTo.class, SimpleExtendedDomain.class);
+
+        jTransfo.setFailedConverterRetention(0);
+        Assertions.assertThrows(JTransfoException.class, () ->
+                jTransfo.convertTo(new SimpleExtendedDomain(), SimpleExtendedTo.class));
+        verify(converterHelper, times(2)).getLazyToConverter(SimpleExtendedTo.class, SimpleExtendedDomain.class);
+    }
+
+    @Test
+    public void testFailedMappingRemembered() throws Exception {
+        ReflectionHelper spyHelper = spy(new ReflectionHelper());
+        ReflectionTestUtils.setField(ReflectionTestUtils.getField(jTransfo, "converterHelper"),
+                "reflectionHelper", spyHelper);
+
+        for (int i = 0; i < 2; i++) {
+            JTransfoException exc = Assertions.assertThrows(JTransfoException.class, () ->
+                    jTransfo.convert(new FaultyExtendedTo(), new SimpleExtendedDomain()));
+            assertThat(exc.getMessage()).startsWith("Cannot determine mapping for field string");
+        }
+        verify(spyHelper, times(1)).getFields(FaultyExtendedTo.class);
+
+        jTransfo.setFailedConverterRetention(0);
+        Assertions.assertThrows(JTransfoException.class, () ->
+                jTransfo.convert(new FaultyExtendedTo(), new SimpleExtendedDomain()));
+        verify(spyHelper, times(2)).getFields(FaultyExtendedTo.class);
+    }
+
+    @Test
+    public void testPrewarm() throws Exception {
+        PrewarmReport report = jTransfo.prewarm(Arrays.asList(SimpleExtendedTo.class, String.class,
+                FaultyExtendedTo.class, SimpleExtendedTo.class));
+
+        assertThat(report.getBuilt()).containsExactly(SimpleExtendedTo.class);
+        assertThat(report.getFailures()).containsKey(FaultyExtendedTo.class);
+        assertThat(report.getFailures().get(FaultyExtendedTo.class).getMessage())
+                .startsWith("Cannot determine mapping for field string");
+        JTransfoException exc = Assertions.assertThrows(JTransfoException.class, report::assertSuccess);
+        assertThat(exc.getMessage()).startsWith("Cannot build converters for 1 transfer object class(es):\n  " +
+                FaultyExtendedTo.class.getName() + ": Cannot determine mapping");
+    }
+
+    @Test
+    public void testPrewarmContextClassLoader() throws Exception {
+        Set<ClassLoader> seen = ConcurrentHashMap.newKeySet();
+        jTransfo.getTypeConverters().add(new NoConversionTypeConverter() {
+            @Override
+            public boolean canConvert(Type realToType, Type realDomainType) {
+                seen.add(Thread.currentThread().getContextClassLoader());
+                if (Date.class == realToType) {
+                    throw new IllegalStateException("broken type converter");
+                }
+                return false;
+            }
+        });
+        jTransfo.updateTypeConverters();
+        Thread thread = Thread.currentThread();
+        ClassLoader original = thread.getContextClassLoader();
+        try (URLClassLoader cl = new URLClassLoader(new URL[0], original)) {
+            thread.setContextClassLoader(cl);
+            PrewarmReport report = jTransfo.prewarm(Arrays.asList(SimpleExtendedTo.class, PersonTo.class,
+                    PersonTransitiveTo.class, SimpleClassNameTo.class));
+
+            assertThat(report.getBuilt()).containsOnly(SimpleExtendedTo.class, PersonTransitiveTo.class,
+                    SimpleClassNameTo.class);
+            assertThat(report.getFailures().get(PersonTo.class).getCause().getMessage())
+                    .isEqualTo("broken type converter");
+            assertThat(seen).containsOnly(cl);
+        } finally {
+            thread.setContextClassLoader(original);
+        }
+    }
+
+    @Test
+    public void testPrewarmPackage() throws Exception {
+        PrewarmReport report = jTransfo.prewarm("org.jtransfo.object");
+
+        assertThat(report.getBuilt()).contains(SimpleExtendedTo.class, PersonTo.class);
+        assertThat(report.getBuilt()).doesNotContain(SimpleExtendedDomain.class);
+        assertThat(report.getFailures()).containsKey(FaultyExtendedTo.class);
+    }
+
+    @Test
+    public void testMappingPlans() throws Exception {
+        Path file = Files.createTempFile("jtransfo", ".plans");
+        try {
+            JTransfoImpl first = new JTransfoImpl();
+            first.prewarm(Arrays.asList(PersonTransitiveTo.class, SimpleExtendedTo.class)).assertSuccess();
+            first.saveMappingPlans(file);
+
+            JTransfoImpl second = new JTransfoImpl();
+            ReflectionHelper spyHelper = spy(new ReflectionHelper());
+            ReflectionTestUtils.setField(ReflectionTestUtils.getField(second, "converterHelper"),
+                    "reflectionHelper", spyHelper);
+            assertThat(second.loadMappingPlans(file)).isEqualTo(2);
+
+            PersonDomain domain = new PersonDomain();
+            domain.setName("Joske");
+            domain.setAddress(new AddressDomain());
+            domain.getAddress().setId(3L);
+            domain.getAddress().setAddress("Kerkstraat");
+            PersonTransitiveTo to = second.convertTo(domain, PersonTransitiveTo.class);
+            to.setName("Jefke");
+            to.setAddress("Markt");
+            second.convert(to, domain);
+
+            assertThat(to.getAddressId()).isEqualTo(3L);
+            assertThat(domain.getName()).isEqualTo("Jefke");
+            assertThat(domain.getAddress().getAddress()).isEqualTo("Markt");
+            verify(spyHelper, never()).getFields(any());
+
+            // plans are not used when the type converters changed
+            second.getTypeConverters().add(new NoConversionTypeConverter());
+            second.updateTypeConverters();
+            second.convertTo(new SimpleExtendedDomain(), SimpleExtendedTo.class);
+            verify(spyHelper).getFields(SimpleExtendedTo.class);
+
+            // plans are dropped when the classes may have been reloaded
+            JTransfoImpl third = new JTransfoImpl();
+            ReflectionTestUtils.setField(ReflectionTestUtils.getField(third, "converterHelper"),
+                    "reflectionHelper", spyHelper);
+            third.loadMappingPlans(file);
+            third.clearCaches();
+            third.convertTo(domain, PersonTransitiveTo.class);
+            verify(spyHelper).getFields(PersonTransitiveTo.class);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testLoadMappingPlansMissingFile() throws Exception {
+        assertThat(jTransfo.loadMappingPlans(Paths.get("does-not-exist.plans"))).isEqualTo(0);
+    }
+
+    private static class SimpleExtendedToMapper implements ToMapper {
+        @Override
+        public Class<?> getToClass() {
+            return SimpleExtendedTo.class;
+        }
+
+        @Override
+        public Class<?> getDomainClass() {
+            return SimpleExtendedDomain.class;
+        }
+
+        @Override
+        public List<Class<?>> getCopiedTypes() {
+            return Collections.singletonList(String.class);
+        }
+
+        @Override
+        public void toTo(Object source, Object target, String... tags) {
+            ((SimpleExtendedTo) target).setString("mapped " + ((SimpleExtendedDomain) source).getB());
+        }
+
+        @Override
+        public void toDomain(Object source, Object target, String... tags) {
+            ((SimpleExtendedDomain) target).setB(((SimpleExtendedTo) source).getString());
+        }
+    }
+
     private interface NeedsJTransfoTypeConverter extends TypeConverter, NeedsJTransfo {
     }
 
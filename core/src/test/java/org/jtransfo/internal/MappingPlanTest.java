@@ -0,0 +1,127 @@
+/*
+ * This file is part of jTransfo, a library for converting to and from transfer objects.
+ * Copyright (c) PROGS bvba, Belgium
+ *
+ * The program is available in open source according to the Apache License, Version 2.0.
+ * For full licensing details, see LICENSE.txt in the project root.
+ */
+
+
+package org.jtransfo.internal;
+
+import org.jtransfo.object.AddressDomain;
+import org.jtransfo.object.AddressTo;
+import org.jtransfo.object.PersonDomain;
+import org.jtransfo.object.PersonTo;
+import org.jtransfo.object.PersonTransitiveTo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Test for {@link MappingPlan}.
+ */
+public class MappingPlanTest {
+
+    private ReflectionHelper reflectionHelper;
+    private MappingPlan.Stamps stamps;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        reflectionHelper = new ReflectionHelper();
+        stamps = new MappingPlan.Stamps();
+    }
+
+    @Test
+    public void testWriteRead() throws Exception {
+        MappingPlan.Builder builder = new MappingPlan.Builder(stamps, PersonTransitiveTo.class, PersonDomain.class);
+        MappingPlan.FieldMapping mapping =
+                builder.addField(PersonTransitiveTo.class.getDeclaredField("addressId"), null, true);
+        builder.addTarget(mapping, new SyntheticField[] {
+                new AccessorSyntheticField(reflectionHelper, PersonDomain.class, "address", false),
+                new AccessorSyntheticField(reflectionHelper, PersonDomain.class.getDeclaredField("address")
+                        .getType(), "id", false)}, "#0", new String[] {"create", "update"});
+        assertThat(builder.isComplete()).isTrue();
+        MappingPlan plan = new MappingPlan(PersonTransitiveTo.class.getName(), PersonDomain.class.getName(),
+                Collections.singletonList("pre"));
+        plan.setToTo(builder, Collections.singletonList("post"));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        MappingPlan.writeAll(out, Arrays.asList("a", "b"), Collections.singletonList(plan));
+        MappingPlan.Snapshot snapshot = MappingPlan.readAll(new ByteArrayInputStream(out.toByteArray()));
+
+        assertThat(snapshot.size()).isEqualTo(1);
+        assertThat(snapshot.getConfiguration()).containsExactly("a", "b");
+        MappingPlan read = snapshot.get(PersonTransitiveTo.class.getName());
+        assertThat(read.getDomainClass()).isEqualTo(PersonDomain.class.getName());
+        assertThat(read.getPreConverters()).containsExactly("pre");
+        assertThat(read.getPostConverters()).containsExactly("post");
+        assertThat(read.getToDomain()).isNull();
+        assertThat(read.getStamps()).isEqualTo(plan.getStamps());
+        assertThat(read.isCurrent(stamps, getClass().getClassLoader())).isTrue();
+        assertThat(read.getToTo()).hasSize(1);
+        MappingPlan.FieldMapping readMapping = read.getToTo().get(0);
+        assertThat(readMapping.getField()).isEqualTo("addressId");
+        assertThat(readMapping.getArgument()).isEqualTo(-1);
+        assertThat(readMapping.isTagged()).isTrue();
+        MappingPlan.Target target = readMapping.getTargets().get(0);
+        assertThat(target.getTypeConverter()).isEqualTo("#0");
+        assertThat(target.getTags()).containsExactly("create", "update");
+        assertThat(target.getPath()).hasSize(2);
+        assertThat(target.getPath().get(1).getName()).isEqualTo("id");
+    }
+
+    @Test
+    public void testIncomplete() throws Exception {
+        MappingPlan.Builder builder = new MappingPlan.Builder(stamps, PersonTransitiveTo.class, PersonDomain.class);
+        MappingPlan.FieldMapping mapping =
+                builder.addField(PersonTransitiveTo.class.getDeclaredField("name"), null, false);
+        builder.addTarget(mapping, new SyntheticField[] {
+                new AccessorSyntheticField(reflectionHelper, PersonDomain.class, "name", false)}, null, null);
+
+        assertThat(builder.isComplete()).isFalse();
+    }
+
+    @Test
+    public void testStaleStamp() throws Exception {
+        MappingPlan plan = new MappingPlan(PersonTransitiveTo.class.getName(), PersonDomain.class.getName(),
+                Collections.emptyList());
+        plan.setToDomain(new MappingPlan.Builder(stamps, PersonTransitiveTo.class, PersonDomain.class),
+                Collections.emptyList());
+        assertThat(plan.isCurrent(stamps, getClass().getClassLoader())).isTrue();
+
+        ((Map<String, Long>) ReflectionTestUtils.getField(plan, "stamps")).put(PersonDomain.class.getName(), 1L);
+
+        assertThat(plan.isCurrent(stamps, getClass().getClassLoader())).isFalse();
+    }
+
+    @Test
+    public void testFieldTypeStamps() throws Exception {
+        MappingPlan.Builder builder = new MappingPlan.Builder(stamps, PersonTo.class, PersonDomain.class);
+        MappingPlan.FieldMapping mapping = builder.addField(PersonTo.class.getDeclaredField("address"), null, false);
+        builder.addTarget(mapping, new SyntheticField[] {
+                new AccessorSyntheticField(reflectionHelper, PersonDomain.class, "address", false)}, "#0", null);
+        MappingPlan plan = new MappingPlan(PersonTo.class.getName(), PersonDomain.class.getName(),
+                Collections.emptyList());
+        plan.setToTo(builder, Collections.emptyList());
+
+        // the type converter depends on the field types, so they are part of the plan
+        assertThat(plan.getStamps()).containsKey(AddressTo.class.getName());
+        assertThat(plan.getStamps()).containsKey(AddressDomain.class.getName());
+    }
+
+    @Test
+    public void testReadInvalid() throws Exception {
+        assertThrows(IOException.class, () -> MappingPlan.readAll(new ByteArrayInputStream(new byte[] {1, 2, 3, 4})));
+    }
+}
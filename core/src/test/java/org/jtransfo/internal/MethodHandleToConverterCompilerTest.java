@@ -0,0 +1,224 @@
+/*
+ * This file is part of jTransfo, a library for converting to and from transfer objects.
+ * Copyright (c) PROGS bvba, Belgium
+ *
+ * The program is available in open source according to the Apache License, Version 2.0.
+ * For full licensing details, see LICENSE.txt in the project root.
+ */
+
+package org.jtransfo.internal;
+
+import org.jtransfo.Converter;
+import org.jtransfo.JTransfoException;
+import org.jtransfo.NoConversionTypeConverter;
+import org.jtransfo.PreConverter;
+import org.jtransfo.PrimitiveConversionTest;
+import org.jtransfo.ToConverter;
+import org.jtransfo.object.SimpleExtendedDomain;
+import org.jtransfo.object.SimpleExtendedTo;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test for {@link MethodHandleToConverterCompiler}.
+ */
+public class MethodHandleToConverterCompilerTest {
+
+    private static final String C_VALUE = "c value";
+
+    private MethodHandleToConverterCompiler compiler;
+    private ReflectionHelper reflectionHelper;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        compiler = new MethodHandleToConverterCompiler();
+        reflectionHelper = new ReflectionHelper();
+    }
+
+    @Test
+    public void testCompileEmpty() {
+        assertThat(compiler.compile(Collections.<Converter>emptyList())).isNull();
+    }
+
+    @Test
+    public void testCompileInOrder() throws Exception {
+        List<String> seen = new ArrayList<>();
+        Converter copyB = new ToToConverter(syntheticField(SimpleExtendedDomain.class, "b"),
+                new SyntheticField[] {syntheticField(SimpleExtendedDomain.class, "c")},
+                new NoConversionTypeConverter());
+        Converter record = (source, target, tags) -> seen.add(((SimpleExtendedDomain) target).getB() + tags[0]);
+        Converter copyI = new PrimitiveToToConverter(syntheticField(SimpleExtendedDomain.class, "i"),
+                syntheticField(SimpleExtendedDomain.class, "i"), PrimitiveCopy.INT);
+        SimpleExtendedDomain source = new SimpleExtendedDomain();
+        source.setC(C_VALUE);
+        source.setI(7);
+        SimpleExtendedDomain target = new SimpleExtendedDomain();
+
+        Converter compiled = compiler.compile(Arrays.asList(record, copyB, record, copyI));
+        compiled.convert(source, target, "tag");
+
+        assertThat(seen).containsExactly("nulltag", C_VALUE + "tag");
+        assertThat(target.getB()).isEqualTo(C_VALUE);
+        assertThat(target.getI()).isEqualTo(7);
+    }
+
+    @Test
+    public void testCompileManySteps() throws Exception {
+        List<Integer> seen = new ArrayList<>();
+        List<Converter> converters = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            int index = i;
+            converters.add((source, target, tags) -> seen.add(index));
+        }
+
+        compiler.compile(converters).convert(new Object(), new Object());
+
+        assertThat(seen).hasSize(100).isSorted();
+    }
+
+    @Test
+    public void testFallbackArgumentException() throws Exception {
+        Converter converter = new ToToConverter(syntheticField(SimpleExtendedDomain.class, "i"),
+                new SyntheticField[] {syntheticField(SimpleExtendedDomain.class, "c")},
+                new NoConversionTypeConverter());
+        SimpleExtendedDomain sed = new SimpleExtendedDomain();
+        sed.setC(C_VALUE);
+
+        JTransfoException jte = Assertions.assertThrows(JTransfoException.class, () ->
+                compiler.compile(Collections.singletonList(converter)).convert(sed, sed));
+
+        assertThat(jte.getMessage())
+                .isEqualTo("Cannot convert domain field c to TO field i, field needs type conversion.");
+    }
+
+    @Test
+    public void testFallbackAccessException() throws Exception {
+        Converter converter = new ToToConverter(
+                new SimpleSyntheticField(SimpleExtendedDomain.class.getDeclaredField("b")),
+                new SyntheticField[] {syntheticField(SimpleExtendedDomain.class, "c")},
+                new NoConversionTypeConverter());
+        SimpleExtendedDomain sed = new SimpleExtendedDomain();
+
+        JTransfoException jte = Assertions.assertThrows(JTransfoException.class, () ->
+                compiler.compile(Collections.singletonList(converter)).convert(sed, sed));
+
+        assertThat(jte.getMessage())
+                .isEqualTo("Cannot convert domain field c to TO field b, field cannot be accessed.");
+    }
+
+    @Test
+    public void testFailingGetterInvokedOnce() throws Exception {
+        SyntheticField field = new AccessorSyntheticField(reflectionHelper, FailingBean.class, "value", false);
+        Converter converter = new ToToConverter(field, new SyntheticField[] {field}, new NoConversionTypeConverter());
+        FailingBean bean = new FailingBean();
+
+        IllegalStateException ise = Assertions.assertThrows(IllegalStateException.class, () ->
+                compiler.compile(Collections.singletonList(converter)).convert(bean, bean));
+
+        assertThat(ise.getMessage()).isEqualTo("broken getter");
+        assertThat(bean.gets).isEqualTo(1);
+    }
+
+    @Test
+    public void testOtherReceiverUsesConverter() throws Exception {
+        Converter converter = new ToToConverter(syntheticField(SimpleExtendedDomain.class, "c"),
+                new SyntheticField[] {syntheticField(SimpleExtendedDomain.class, "b")},
+                new NoConversionTypeConverter());
+        Converter compiled = compiler.compile(Collections.singletonList(converter));
+
+        JTransfoException jte = Assertions.assertThrows(JTransfoException.class, () ->
+                compiled.convert(new SimpleExtendedTo(), new SimpleExtendedDomain()));
+
+        assertThat(jte.getMessage())
+                .isEqualTo("Cannot convert domain field b to TO field c, field needs type conversion.");
+    }
+
+    @Test
+    public void testCompileToConverter() throws Exception {
+        PreConverter preConverter = new PreConverter() { };
+        ToConverter toConverter = new ToConverter(preConverter);
+        toConverter.addToTo((source, target, tags) -> { });
+        toConverter.addToTo((source, target, tags) -> { });
+
+        ToConverter compiled = compiler.compile(toConverter);
+
+        assertThat(compiled).isNotSameAs(toConverter);
+        assertThat(compiled.getPreConverter()).isSameAs(preConverter);
+        assertThat(compiled.getToTo()).hasSize(1);
+        assertThat(compiled.getToDomain()).isEmpty();
+        assertThat(compiler.compile(new ToConverter())).isNotNull();
+    }
+
+    @Test
+    public void testJTransfoWithCompiler() throws Exception {
+        JTransfoImpl jTransfo = new JTransfoImpl();
+        jTransfo.setToConverterCompiler(compiler);
+        SimpleExtendedDomain domain = new SimpleExtendedDomain();
+        domain.setA("aaa");
+        domain.setB("bb");
+        domain.setC("cccc");
+        domain.setI(111);
+
+        SimpleExtendedTo to = jTransfo.convertTo(domain, SimpleExtendedTo.class);
+        SimpleExtendedDomain back = (SimpleExtendedDomain) jTransfo.convert(to);
+
+        assertThat(to.getA()).isEqualTo("aaa");
+        assertThat(to.getString()).isEqualTo("bb");
+        assertThat(to.getC()).isEqualTo("cccc");
+        assertThat(to.getI()).isEqualTo(111);
+        assertThat(back.getA()).isEqualTo("aaa");
+        assertThat(back.getB()).isEqualTo("bb");
+        assertThat(back.getC()).isNull(); // read-only in to
+        assertThat(back.getI()).isEqualTo(111);
+    }
+
+    @Test
+    public void testJTransfoWithCompilerPrimitives() throws Exception {
+        JTransfoImpl jTransfo = new JTransfoImpl();
+        jTransfo.setToConverterCompiler(compiler);
+        PrimitiveConversionTest.PrimitivesDomain domain = new PrimitiveConversionTest.PrimitivesDomain();
+        domain.setL(4L);
+        domain.setD(6.5d);
+        domain.setBoxed(8);
+
+        PrimitiveConversionTest.PrimitivesTo to =
+                jTransfo.convertTo(domain, PrimitiveConversionTest.PrimitivesTo.class);
+        PrimitiveConversionTest.PrimitivesDomain back = (PrimitiveConversionTest.PrimitivesDomain) jTransfo.convert(to);
+
+        assertThat(back.getL()).isEqualTo(4L);
+        assertThat(back.getD()).isEqualTo(6.5d);
+        assertThat(back.getBoxed()).isEqualTo(8);
+    }
+
+    private SyntheticField syntheticField(Class<?> clazz, String name) throws Exception {
+        Field field = clazz.getDeclaredField(name);
+        reflectionHelper.makeAccessible(field);
+        return new SimpleSyntheticField(field);
+    }
+
+    /**
+     * Bean with a getter which always fails.
+     */
+    public static class FailingBean {
+
+        private int gets;
+
+        public String getValue() {
+            gets++;
+            throw new IllegalStateException("broken getter");
+        }
+
+        public void setValue(String value) {
+            // not used
+        }
+    }
+}
@@ -11,6 +11,7 @@ package org.jtransfo.internal;
 import org.jtransfo.MappedBy;
 import org.jtransfo.NotMapped;
 import org.jtransfo.ReadOnly;
+import org.jtransfo.object.ImmutablePersonTo;
 import org.jtransfo.object.MaleHumanTo;
 import org.jtransfo.object.MixedMethodAndFieldDomain;
 import org.jtransfo.object.ReadOnlyAnnotationTo;
@@ -19,6 +20,7 @@ import org.jtransfo.object.SimpleClassDomain;
 import org.jtransfo.object.SimpleExtendedDomain;
 import org.junit.Before;
 import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
@@ -87,6 +89,16 @@ public class ReflectionHelperTest {
         List<SyntheticField> fields = reflectionHelper.getSyntheticFields(SimpleExtendedDomain.class);
         assertThat(fields).hasSize(4).
                 extracting("name").contains("a", "b", "c", "i");
+        assertThat(reflectionHelper.getSyntheticFields(SimpleExtendedDomain.class)).isSameAs(fields);
+
+        reflectionHelper.clearCaches();
+        assertThat(reflectionHelper.getSyntheticFields(SimpleExtendedDomain.class)).isNotSameAs(fields)
+                .extracting("name").contains("a", "b", "c", "i");
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testGetSyntheticFieldsUnmodifiable() throws Exception {
+        reflectionHelper.getSyntheticFields(SimpleExtendedDomain.class).clear();
     }
 
     @Test
@@ -132,6 +144,27 @@ public class ReflectionHelperTest {
         assertThat(method.getName()).isEqualTo("getFieldDouble");
     }
 
+    @Test
+    public void testGetMethodCacheCleared() throws Exception {
+        Object index = ReflectionTestUtils.getField(reflectionHelper, "methods");
+        assertThat(reflectionHelper.getMethod(SimpleBaseTo.class, String.class, "getA")).isNotNull();
+
+        reflectionHelper.clearCaches();
+        assertThat(ReflectionTestUtils.getField(reflectionHelper, "methods")).isNotSameAs(index);
+        assertThat(reflectionHelper.getMethod(SimpleBaseTo.class, String.class, "getA")).isNotNull();
+    }
+
+    @Test
+    public void testGetToCreatorCached() throws Exception {
+        ToCreator creator = reflectionHelper.getToCreator(ImmutablePersonTo.class);
+        assertThat(creator).isNotNull();
+        assertThat(reflectionHelper.getToCreator(ImmutablePersonTo.class)).isSameAs(creator);
+        assertThat(reflectionHelper.getToCreator(SimpleBaseTo.class)).isNull();
+
+        reflectionHelper.clearCaches();
+        assertThat(reflectionHelper.getToCreator(ImmutablePersonTo.class)).isNotNull().isNotSameAs(creator);
+    }
+
     @Test
     public void testGetAnnotationWithMeta() throws Exception {
         ReadOnlyAnnotationTo to = new ReadOnlyAnnotationTo();
@@ -142,4 +175,40 @@ public class ReflectionHelperTest {
         assertThat(reflectionHelper.getAnnotationWithMeta(field, NotMapped.class)).hasSize(0);
     }
 
+    @Test
+    public void testGetAnnotationWithMetaCached() throws Exception {
+        Field field = ReadOnlyAnnotationTo.class.getDeclaredField("twice");
+
+        List<MappedBy> mappedBy = reflectionHelper.getAnnotationWithMeta(field, MappedBy.class);
+
+        assertThat(reflectionHelper.getAnnotationWithMeta(field, MappedBy.class)).isSameAs(mappedBy);
+        assertThat(reflectionHelper.getAnnotationWithMeta(
+                ReadOnlyAnnotationTo.class.getDeclaredField("twice"), MappedBy.class)).isSameAs(mappedBy);
+        assertThat(reflectionHelper.getAnnotationWithMeta(ReadOnlyAnnotationTo.class, MappedBy.class)).isEmpty();
+
+        reflectionHelper.clearCaches();
+        assertThat(reflectionHelper.getAnnotationWithMeta(field, MappedBy.class)).isNotSameAs(mappedBy)
+                .isEqualTo(mappedBy);
+    }
+
+    @Test
+    public void testGetMethod_covariantReturnType() throws Exception {
+        Method method = reflectionHelper.getMethod(CovariantTo.class, null, "getValue");
+
+        assertThat(method.getReturnType()).isEqualTo(String.class);
+        assertThat(reflectionHelper.getMethod(CovariantTo.class, String.class, "getValue")).isEqualTo(method);
+        assertThat(reflectionHelper.getMethod(CovariantTo.class, Integer.class, "getValue")).isNull();
+    }
+
+    private abstract static class CovariantBase {
+        public abstract Object getValue();
+    }
+
+    private static class CovariantTo extends CovariantBase {
+        @Override
+        public String getValue() {
+            return "value";
+        }
+    }
+
 }
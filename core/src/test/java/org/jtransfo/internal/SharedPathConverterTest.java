@@ -0,0 +1,180 @@
+/*
+ * This file is part of jTransfo, a library for converting to and from transfer objects.
+ * Copyright (c) PROGS bvba, Belgium
+ *
+ * The program is available in open source according to the Apache License, Version 2.0.
+ * For full licensing details, see LICENSE.txt in the project root.
+ */
+
+package org.jtransfo.internal;
+
+import org.jtransfo.JTransfoException;
+import org.jtransfo.NoConversionTypeConverter;
+import org.jtransfo.object.AddressDomain;
+import org.jtransfo.object.PersonDomain;
+import org.jtransfo.object.PersonTransitiveTo;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test for {@link SharedPathConverter}.
+ */
+public class SharedPathConverterTest {
+
+    private ReflectionHelper reflectionHelper;
+    private CountingField address;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        reflectionHelper = new ReflectionHelper();
+        address = new CountingField(syntheticField(PersonDomain.class, "address"));
+    }
+
+    @Test
+    public void testToTo() throws Exception {
+        SharedPathConverter converter = new SharedPathConverter(1, Arrays.asList(
+                new ToToConverter(syntheticField(PersonTransitiveTo.class, "addressId"),
+                        new SyntheticField[] {address, syntheticField(AddressDomain.class, "id")},
+                        new NoConversionTypeConverter()),
+                new ToToConverter(syntheticField(PersonTransitiveTo.class, "address"),
+                        new SyntheticField[] {address, syntheticField(AddressDomain.class, "address")},
+                        new NoConversionTypeConverter())));
+        PersonDomain domain = new PersonDomain();
+        domain.setAddress(new AddressDomain());
+        domain.getAddress().setId(3L);
+        domain.getAddress().setAddress("Kerkstraat");
+        PersonTransitiveTo to = new PersonTransitiveTo();
+
+        converter.convert(domain, to);
+
+        assertThat(to.getAddressId()).isEqualTo(3L);
+        assertThat(to.getAddress()).isEqualTo("Kerkstraat");
+        assertThat(address.gets).isEqualTo(1);
+
+        domain.setAddress(null);
+        converter.convert(domain, to);
+
+        assertThat(to.getAddressId()).isNull();
+        assertThat(to.getAddress()).isNull();
+    }
+
+    @Test
+    public void testToDomain() throws Exception {
+        SharedPathConverter converter = new SharedPathConverter(1, Arrays.asList(
+                new ToDomainConverter(syntheticField(PersonTransitiveTo.class, "addressId"),
+                        new SyntheticField[] {address, syntheticField(AddressDomain.class, "id")},
+                        new NoConversionTypeConverter()),
+                new ToDomainConverter(syntheticField(PersonTransitiveTo.class, "address"),
+                        new SyntheticField[] {address, syntheticField(AddressDomain.class, "address")},
+                        new NoConversionTypeConverter())));
+        PersonTransitiveTo to = new PersonTransitiveTo();
+        to.setAddressId(7L);
+        to.setAddress("Kerkstraat");
+        PersonDomain domain = new PersonDomain();
+        domain.setAddress(new AddressDomain());
+
+        converter.convert(to, domain);
+
+        assertThat(domain.getAddress().getId()).isEqualTo(7L);
+        assertThat(domain.getAddress().getAddress()).isEqualTo("Kerkstraat");
+        assertThat(address.gets).isEqualTo(1);
+
+        domain.setAddress(null);
+        JTransfoException jte = Assertions.assertThrows(JTransfoException.class, () -> converter.convert(to, domain));
+
+        assertThat(jte.getMessage()).isEqualTo("Cannot convert TO field addressId to domain field id " +
+                "(with path address), transitive field address in path is null.");
+    }
+
+    @Test
+    public void testExceptionOfFailingField() throws Exception {
+        SharedPathConverter converter = new SharedPathConverter(1, Arrays.asList(
+                new ToToConverter(syntheticField(PersonTransitiveTo.class, "addressId"),
+                        new SyntheticField[] {address, syntheticField(AddressDomain.class, "id")},
+                        new NoConversionTypeConverter()),
+                new ToToConverter(syntheticField(PersonTransitiveTo.class, "addressId"),
+                        new SyntheticField[] {address, syntheticField(AddressDomain.class, "address")},
+                        new NoConversionTypeConverter())));
+        PersonDomain domain = new PersonDomain();
+        domain.setAddress(new AddressDomain());
+        domain.getAddress().setAddress("Kerkstraat");
+
+        JTransfoException jte = Assertions.assertThrows(JTransfoException.class, () ->
+                converter.convert(domain, new PersonTransitiveTo()));
+
+        assertThat(jte.getMessage()).isEqualTo("Cannot convert domain field address (with path address) " +
+                "to TO field addressId, field needs type conversion.");
+    }
+
+    @Test
+    public void testSharedPathLength() throws Exception {
+        SyntheticField id = syntheticField(AddressDomain.class, "id");
+
+        assertThat(SharedPathConverter.sharedPathLength(new SyntheticField[] {address, id},
+                new SyntheticField[] {address, address, id})).isEqualTo(1);
+        assertThat(SharedPathConverter.sharedPathLength(new SyntheticField[] {address, address, id},
+                new SyntheticField[] {address, address, id})).isEqualTo(2);
+        assertThat(SharedPathConverter.sharedPathLength(new SyntheticField[] {address},
+                new SyntheticField[] {address, id})).isEqualTo(0);
+        assertThat(SharedPathConverter.sharedPathLength(new SyntheticField[] {id, id},
+                new SyntheticField[] {address, id})).isEqualTo(0);
+    }
+
+    private SyntheticField syntheticField(Class<?> clazz, String name) throws Exception {
+        Field field = clazz.getDeclaredField(name);
+        reflectionHelper.makeAccessible(field);
+        return new SimpleSyntheticField(field);
+    }
+
+    /**
+     * Synthetic field which counts the number of reads.
+     */
+    private static class CountingField implements SyntheticField {
+
+        private final SyntheticField field;
+        private int gets;
+
+        CountingField(SyntheticField field) {
+            this.field = field;
+        }
+
+        @Override
+        public Object get(Object object) throws IllegalAccessException, IllegalArgumentException {
+            gets++;
+            return field.get(object);
+        }
+
+        @Override
+        public void set(Object object, Object value) throws IllegalAccessException, IllegalArgumentException {
+            field.set(object, value);
+        }
+
+        @Override
+        public String getName() {
+            return field.getName();
+        }
+
+        @Override
+        public Class<?> getType() {
+            return field.getType();
+        }
+
+        @Override
+        public Type getGenericType() {
+            return field.getGenericType();
+        }
+
+        @Override
+        public Optional<Field> getField() {
+            return field.getField();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * This file is part of jTransfo, a library for converting to and from transfer objects.
+ * Copyright (c) PROGS bvba, Belgium
+ *
+ * The program is available in open source according to the Apache License, Version 2.0.
+ * For full licensing details, see LICENSE.txt in the project root.
+ */
+
+package org.jtransfo.internal;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Field;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test for {@link SimpleSyntheticField}.
+ */
+public class SimpleSyntheticFieldTest {
+
+    private ReflectionHelper reflectionHelper;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        reflectionHelper = new ReflectionHelper();
+    }
+
+    @Test
+    public void testGetSet() throws Exception {
+        SimpleSyntheticField syntheticField = syntheticField("value");
+        Fields fields = new Fields();
+
+        syntheticField.set(fields, "bla");
+
+        assertThat(fields.value).isEqualTo("bla");
+        assertThat(syntheticField.get(fields)).isEqualTo("bla");
+        assertThat(ReflectionTestUtils.getField(syntheticField, "getter")).isNotNull();
+        assertThat(ReflectionTestUtils.getField(syntheticField, "setter")).isNotNull();
+    }
+
+    @Test
+    public void testGetSetPrimitive() throws Exception {
+        SimpleSyntheticField syntheticField = syntheticField("number");
+        Fields fields = new Fields();
+
+        syntheticField.set(fields, 7);
+
+        assertThat(fields.number).isEqualTo(7);
+        assertThat(syntheticField.get(fields)).isEqualTo(7);
+    }
+
+    @Test
+    public void testGetSetStatic() throws Exception {
+        SimpleSyntheticField syntheticField = syntheticField("shared");
+
+        syntheticField.set(new Fields(), "static");
+
+        assertThat(Fields.shared).isEqualTo("static");
+        assertThat(syntheticField.get(null)).isEqualTo("static");
+    }
+
+    @Test
+    public void testSetWrongType() throws Exception {
+        SimpleSyntheticField syntheticField = syntheticField("number");
+
+        IllegalArgumentException iae = Assertions.assertThrows(IllegalArgumentException.class, () ->
+                syntheticField.set(new Fields(), "bla"));
+
+        assertThat(iae.getMessage()).contains("Can not set int field");
+    }
+
+    @Test
+    public void testSetNullPrimitive() throws Exception {
+        SimpleSyntheticField syntheticField = syntheticField("number");
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> syntheticField.set(new Fields(), null));
+    }
+
+    @Test
+    public void testGetWrongObject() throws Exception {
+        SimpleSyntheticField syntheticField = syntheticField("value");
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> syntheticField.get("bla"));
+    }
+
+    @Test
+    public void testNotAccessible() throws Exception {
+        SimpleSyntheticField syntheticField = new SimpleSyntheticField(Fields.class.getDeclaredField("value"));
+
+        assertThat(ReflectionTestUtils.getField(syntheticField, "getter")).isNull();
+        Assertions.assertThrows(IllegalAccessException.class, () -> syntheticField.get(new Fields()));
+    }
+
+    private SimpleSyntheticField syntheticField(String name) throws Exception {
+        Field field = Fields.class.getDeclaredField(name);
+        reflectionHelper.makeAccessible(field);
+        return new SimpleSyntheticField(field);
+    }
+
+    private static class Fields {
+        private static String shared;
+        private String value;
+        private int number;
+    }
+}
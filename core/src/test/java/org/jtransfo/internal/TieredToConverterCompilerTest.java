@@ -0,0 +1,140 @@
+/*
+ * This file is part of jTransfo, a library for converting to and from transfer objects.
+ * Copyright (c) PROGS bvba, Belgium
+ *
+ * The program is available in open source according to the Apache License, Version 2.0.
+ * For full licensing details, see LICENSE.txt in the project root.
+ */
+
+package org.jtransfo.internal;
+
+import org.jtransfo.Converter;
+import org.jtransfo.object.SimpleExtendedDomain;
+import org.jtransfo.object.SimpleExtendedTo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test for {@link TieredToConverterCompiler}.
+ */
+public class TieredToConverterCompilerTest {
+
+    private List<String> seen;
+    private List<List<Converter>> compiled;
+    private TieredToConverterCompiler compiler;
+    private Converter a;
+    private Converter b;
+    private Converter always;
+    private TaggedConverter tagged;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        seen = new ArrayList<>();
+        compiled = new ArrayList<>();
+        ToConverterCompiler delegate = converters -> {
+            compiled.add(converters);
+            return (source, target, tags) -> {
+                seen.add("compiled");
+                converters.forEach(converter -> converter.convert(source, target, tags));
+            };
+        };
+        compiler = new TieredToConverterCompiler(delegate, 3, Runnable::run);
+        a = (source, target, tags) -> seen.add("a");
+        b = (source, target, tags) -> seen.add("b");
+        always = (source, target, tags) -> seen.add("always");
+        tagged = new TaggedConverter();
+        tagged.addConverters(a, "a");
+        tagged.addConverters(b, "b");
+    }
+
+    @Test
+    public void testCompileEmpty() {
+        assertThat(compiler.compile(Collections.<Converter>emptyList())).isNull();
+    }
+
+    @Test
+    public void testSpecializeAfterThreshold() {
+        Converter converter = compiler.compile(Arrays.asList(always, tagged));
+
+        converter.convert(null, null, "a");
+        converter.convert(null, null, "a");
+        assertThat(compiled).isEmpty();
+        assertThat(seen).containsExactly("always", "a", "always", "a");
+
+        converter.convert(null, null, "a"); // threshold reached, specialized for tag "a"
+        assertThat(compiled).hasSize(2);
+        assertThat(compiled.get(0)).containsExactly(always, tagged);
+        assertThat(compiled.get(1)).containsExactly(always, a);
+
+        seen.clear();
+        converter.convert(null, null, "a");
+        converter.convert(null, null, "b");
+        assertThat(seen).containsExactly("compiled", "always", "a", "compiled", "always", "b");
+        assertThat(compiled).hasSize(2);
+    }
+
+    @Test
+    public void testPolymorphicTags() {
+        Converter converter = compiler.compile(Arrays.asList(always, tagged));
+
+        converter.convert(null, null, "a");
+        converter.convert(null, null, "b");
+        converter.convert(null, null, "a", "b");
+
+        assertThat(compiled).hasSize(1);
+        assertThat(compiled.get(0)).containsExactly(always, tagged);
+    }
+
+    @Test
+    public void testResolveTags() {
+        TaggedConverter withNot = new TaggedConverter();
+        withNot.addConverters(always, "*");
+        withNot.addConverters(a, "!x");
+        withNot.addConverters(tagged, "b");
+
+        assertThat(compiler.resolveTags(Arrays.asList(withNot, b), "b")).containsExactly(always, a, b, b);
+        assertThat(compiler.resolveTags(Arrays.asList(withNot, b), "x")).containsExactly(always, b);
+    }
+
+    @Test
+    public void testRejectedSpecialization() {
+        compiler = new TieredToConverterCompiler(converters -> null, 1, command -> {
+            throw new RejectedExecutionException();
+        });
+        Converter converter = compiler.compile(Collections.singletonList(a));
+
+        converter.convert(null, null);
+        converter.convert(null, null);
+
+        assertThat(seen).containsExactly("a", "a");
+    }
+
+    @Test
+    public void testJTransfoWithCompiler() throws Exception {
+        JTransfoImpl jTransfo = new JTransfoImpl();
+        jTransfo.setToConverterCompiler(
+                new TieredToConverterCompiler(new MethodHandleToConverterCompiler(), 2, Runnable::run));
+        SimpleExtendedDomain domain = new SimpleExtendedDomain();
+        domain.setA("aaa");
+        domain.setB("bb");
+        domain.setI(111);
+
+        for (int i = 0; i < 4; i++) {
+            SimpleExtendedTo to = jTransfo.convertTo(domain, SimpleExtendedTo.class);
+            SimpleExtendedDomain back = (SimpleExtendedDomain) jTransfo.convert(to);
+
+            assertThat(to.getA()).isEqualTo("aaa");
+            assertThat(to.getString()).isEqualTo("bb");
+            assertThat(back.getB()).isEqualTo("bb");
+            assertThat(back.getI()).isEqualTo(111);
+        }
+    }
+}
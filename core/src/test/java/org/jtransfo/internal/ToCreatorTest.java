@@ -0,0 +1,119 @@
+/*
+ * This file is part of jTransfo, a library for converting to and from transfer objects.
+ * Copyright (c) PROGS bvba, Belgium
+ *
+ * The program is available in open source according to the Apache License, Version 2.0.
+ * For full licensing details, see LICENSE.txt in the project root.
+ */
+
+package org.jtransfo.internal;
+
+import org.jtransfo.Creator;
+import org.jtransfo.JTransfoException;
+import org.jtransfo.object.ImmutableAddressTo;
+import org.jtransfo.object.ImmutablePersonTo;
+import org.jtransfo.object.SimpleExtendedTo;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test for {@link ToCreator}.
+ */
+public class ToCreatorTest {
+
+    @Test
+    public void testNoCreator() {
+        assertThat(ToCreator.forClass(SimpleExtendedTo.class)).isNull();
+    }
+
+    @Test
+    public void testConstructor() {
+        ToCreator creator = ToCreator.forClass(ImmutablePersonTo.class);
+
+        assertThat(creator.getFieldNames()).containsExactly("address", "name");
+        ImmutablePersonTo to = (ImmutablePersonTo) creator.create(new Object[] {null, "bla"});
+        assertThat(to.getName()).isEqualTo("bla");
+    }
+
+    @Test
+    public void testFactoryMethod() {
+        ToCreator creator = ToCreator.forClass(ImmutableAddressTo.class);
+
+        assertThat(creator.getArgumentCount()).isEqualTo(2);
+        ImmutableAddressTo to = (ImmutableAddressTo) creator.create(new Object[] {5L, "street"});
+        assertThat(to.getId()).isEqualTo(5L);
+        assertThat(to.getAddress()).isEqualTo("street");
+    }
+
+    @Test
+    public void testPrimitiveDefault() {
+        ToCreator creator = ToCreator.forClass(PrimitiveTo.class);
+
+        PrimitiveTo to = (PrimitiveTo) creator.create(new Object[] {null, true});
+        assertThat(to.count).isEqualTo(0);
+        assertThat(to.flag).isTrue();
+    }
+
+    @Test
+    public void testAmbiguous() {
+        JTransfoException jte = Assertions.assertThrows(JTransfoException.class, () ->
+                ToCreator.forClass(AmbiguousTo.class));
+
+        assertThat(jte.getMessage()).isEqualTo("Class " + AmbiguousTo.class.getName() + " has more than one creator.");
+    }
+
+    @Test
+    public void testWrongNumberOfNames() {
+        JTransfoException jte = Assertions.assertThrows(JTransfoException.class, () ->
+                ToCreator.forClass(WrongNamesTo.class));
+
+        assertThat(jte.getMessage()).isEqualTo("Creator in class " + WrongNamesTo.class.getName() +
+                " has 1 parameters but 2 field names.");
+    }
+
+    @Test
+    public void testNonStaticMethod() {
+        JTransfoException jte = Assertions.assertThrows(JTransfoException.class, () ->
+                ToCreator.forClass(NonStaticTo.class));
+
+        assertThat(jte.getMessage()).isEqualTo("Creator method create in class " + NonStaticTo.class.getName() +
+                " needs to be static and return the transfer object.");
+    }
+
+    private static class PrimitiveTo {
+        private final int count;
+        private final boolean flag;
+
+        @Creator({"count", "flag"})
+        PrimitiveTo(int count, boolean flag) {
+            this.count = count;
+            this.flag = flag;
+        }
+    }
+
+    private static class AmbiguousTo {
+        @Creator({"a"})
+        AmbiguousTo(String a) {
+        }
+
+        @Creator
+        static AmbiguousTo create() {
+            return null;
+        }
+    }
+
+    private static class WrongNamesTo {
+        @Creator({"a", "b"})
+        WrongNamesTo(String a) {
+        }
+    }
+
+    private static class NonStaticTo {
+        @Creator
+        NonStaticTo create() {
+            return this;
+        }
+    }
+}
@@ -10,6 +10,7 @@ package org.jtransfo.internal;
 
 import org.jtransfo.DomainClass;
 import org.jtransfo.JTransfoException;
+import org.jtransfo.object.AbstractHumanDomain;
 import org.jtransfo.object.AbstractHumanTo;
 import org.jtransfo.object.FemaleHumanDomain;
 import org.jtransfo.object.FemaleHumanTo;
@@ -23,8 +24,21 @@ import org.jtransfo.object.SimpleClassTypeTo;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.StringReader;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 public class ToHelperTest {
 
@@ -82,6 +96,117 @@ public class ToHelperTest {
         assertThat(toHelper.getToSubType(AbstractHumanTo.class, new MaleHumanDomain(){})).isEqualTo(MaleHumanTo.class);
     }
 
+    @Test
+    public void getToSubTypeRemembered() throws Exception {
+        AtomicInteger replaced = new AtomicInteger();
+        toHelper.setClassReplacer(c -> {
+            replaced.incrementAndGet();
+            return c;
+        });
+
+        assertThat(toHelper.getToSubType(AbstractHumanTo.class, new FemaleHumanDomain())).
+                isEqualTo(FemaleHumanTo.class);
+        int lookups = replaced.get();
+        assertThat(lookups).isGreaterThan(0);
+        assertThat(toHelper.getToSubType(AbstractHumanTo.class, new FemaleHumanDomain())).
+                isEqualTo(FemaleHumanTo.class);
+        assertThat(toHelper.getToSubType(AbstractHumanTo.class, null)).isEqualTo(AbstractHumanTo.class);
+        assertThat(replaced.get()).isEqualTo(lookups);
+
+        assertThat(toHelper.getToSubType(AbstractHumanTo.class, new MaleHumanDomain())).isEqualTo(MaleHumanTo.class);
+        assertThat(replaced.get()).isEqualTo(2 * lookups);
+
+        toHelper.clearCaches();
+        assertThat(toHelper.getToSubType(AbstractHumanTo.class, new FemaleHumanDomain())).
+                isEqualTo(FemaleHumanTo.class);
+        assertThat(replaced.get()).isEqualTo(3 * lookups);
+    }
+
+    @Test
+    public void testClassInformationCached() throws Exception {
+        ReflectionHelper reflectionHelper = spy(new ReflectionHelper());
+        ReflectionTestUtils.setField(toHelper, "reflectionHelper", reflectionHelper);
+
+        assertThat(toHelper.isToClass(SimpleClassNameTo.class)).isTrue();
+        assertThat(toHelper.getDomainClass(SimpleClassNameTo.class)).isEqualTo(SimpleClassDomain.class);
+        assertThat(toHelper.isTo(new SimpleClassNameTo())).isTrue();
+        verify(reflectionHelper, times(2)).getAnnotationWithMeta(any(), eq(DomainClass.class));
+
+        toHelper.clearCaches();
+        assertThat(toHelper.getDomainClass(SimpleClassNameTo.class)).isEqualTo(SimpleClassDomain.class);
+        verify(reflectionHelper, times(4)).getAnnotationWithMeta(any(), eq(DomainClass.class));
+    }
+
+    @Test
+    public void testIndexedClass() throws Exception {
+        ReflectionHelper reflectionHelper = spy(new ReflectionHelper());
+        ReflectionTestUtils.setField(toHelper, "reflectionHelper", reflectionHelper);
+        ToIndex index = new ToIndex();
+        index.read(new StringReader(AbstractHumanTo.class.getName() + " " + SimpleClassDomain.class.getName() + " " +
+                FemaleHumanTo.class.getName() + "\n" +
+                SimpleClassNameTo.class.getName() + " org.jtransfo.object.Unknown\n"));
+        toHelper.setIndex(index);
+
+        assertThat(toHelper.isToClass(AbstractHumanTo.class)).isTrue();
+        assertThat(toHelper.getDomainClass(AbstractHumanTo.class)).isEqualTo(SimpleClassDomain.class);
+        verify(reflectionHelper, times(0)).getAnnotationWithMeta(any(), eq(DomainClass.class));
+        assertThat(toHelper.getToSubType(AbstractHumanTo.class, new FemaleHumanDomain()))
+                .isEqualTo(FemaleHumanTo.class);
+
+        // index which is not in line with the classes is ignored
+        assertThat(toHelper.getDomainClass(SimpleClassNameTo.class)).isEqualTo(SimpleClassDomain.class);
+        verify(reflectionHelper, times(4)).getAnnotationWithMeta(any(), eq(DomainClass.class));
+
+        // after clearing the caches (for example after reloading classes) the annotations are used
+        toHelper.clearCaches();
+        assertThat(toHelper.getDomainClass(AbstractHumanTo.class)).isEqualTo(AbstractHumanDomain.class);
+    }
+
+    @Test
+    public void testErrorCached() throws Exception {
+        ReflectionHelper reflectionHelper = spy(new ReflectionHelper());
+        ReflectionTestUtils.setField(toHelper, "reflectionHelper", reflectionHelper);
+        for (int i = 0; i < 2; i++) {
+            try {
+                toHelper.getDomainClass(NoClassTo.class);
+                fail("Exception expected");
+            } catch (JTransfoException jte) {
+                assertThat(jte.getMessage()).endsWith(" DomainClass annotation does not specify class.");
+            }
+        }
+        verify(reflectionHelper, times(2)).getAnnotationWithMeta(any(), eq(DomainClass.class));
+    }
+
+    @Test
+    public void testUnresolvedDomainClassNotCached() throws Exception {
+        ReflectionHelper reflectionHelper = spy(new ReflectionHelper());
+        ReflectionTestUtils.setField(toHelper, "reflectionHelper", reflectionHelper);
+        doThrow(new ClassNotFoundException("org.jtransfo.UnknownClass")).doReturn(SimpleClassDomain.class)
+                .when(reflectionHelper).loadClass("org.jtransfo.UnknownClass");
+
+        try {
+            toHelper.getDomainClass(UnknownClassTo.class);
+            fail("Exception expected");
+        } catch (JTransfoException jte) {
+            assertThat(jte.getMessage()).endsWith(" DomainClass org.jtransfo.UnknownClass not found.");
+        }
+        assertThat(toHelper.getDomainClass(UnknownClassTo.class)).isEqualTo(SimpleClassDomain.class);
+        assertThat(toHelper.getDomainClass(UnknownClassTo.class)).isEqualTo(SimpleClassDomain.class);
+        verify(reflectionHelper, times(2)).loadClass("org.jtransfo.UnknownClass");
+    }
+
+    @Test
+    public void testDomainClassFromToClassLoader() throws Exception {
+        Thread thread = Thread.currentThread();
+        ClassLoader original = thread.getContextClassLoader();
+        try (URLClassLoader cl = new URLClassLoader(new URL[0], null)) {
+            thread.setContextClassLoader(cl);
+            assertThat(toHelper.getDomainClass(SimpleClassNameTo.class)).isEqualTo(SimpleClassDomain.class);
+        } finally {
+            thread.setContextClassLoader(original);
+        }
+    }
+
     @DomainClass
     private class NoClassTo {
     }
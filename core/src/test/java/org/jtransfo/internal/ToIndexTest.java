@@ -0,0 +1,82 @@
+/*
+ * This file is part of jTransfo, a library for converting to and from transfer objects.
+ * Copyright (c) PROGS bvba, Belgium
+ *
+ * The program is available in open source according to the Apache License, Version 2.0.
+ * For full licensing details, see LICENSE.txt in the project root.
+ */
+
+package org.jtransfo.internal;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test for {@link ToIndex}.
+ */
+public class ToIndexTest {
+
+    @Test
+    public void testRead() throws Exception {
+        ToIndex index = new ToIndex();
+
+        index.read(new StringReader("# generated\n\nsample.PersonTo sample.PersonDomain sample.Outer$NameTo\n" +
+                "  sample.Outer$NameTo   sample.PersonDomain  \nsample.Invalid\n"));
+        index.read(new StringReader("sample.PersonTo other.PersonDomain\nother.To other.Domain\n"));
+
+        assertThat(index.getToClassNames()).containsExactly("sample.PersonTo", "sample.Outer$NameTo", "other.To");
+        assertThat(index.get("sample.PersonTo").getDomainClassName()).isEqualTo("sample.PersonDomain");
+        assertThat(index.get("sample.PersonTo").getDelegateNames()).containsExactly("sample.Outer$NameTo");
+        assertThat(index.get("sample.Outer$NameTo").getDomainClassName()).isEqualTo("sample.PersonDomain");
+        assertThat(index.get("sample.Outer$NameTo").getDelegateNames()).isEmpty();
+        assertThat(index.get("sample.Invalid")).isNull();
+    }
+
+    @Test
+    public void testLoadWithoutIndex() throws Exception {
+        assertThat(ToIndex.load(ToIndexTest.class.getClassLoader()).getToClassNames()).isEmpty();
+    }
+
+    @Test
+    public void testLoadSkipsUnreadableIndex() throws Exception {
+        Path file = Files.createTempFile("jtransfo", ".index");
+        try {
+            Files.write(file, "sample.PersonTo sample.PersonDomain\n".getBytes(StandardCharsets.UTF_8));
+            URL missing = file.resolveSibling(file.getFileName() + ".missing").toUri().toURL();
+            URL present = file.toUri().toURL();
+            ClassLoader cl = new ClassLoader(null) {
+                @Override
+                public Enumeration<URL> getResources(String name) {
+                    return Collections.enumeration(Arrays.asList(missing, present));
+                }
+            };
+
+            assertThat(ToIndex.load(cl).getToClassNames()).containsExactly("sample.PersonTo");
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testLoadResourcesFailure() throws Exception {
+        ClassLoader cl = new ClassLoader(null) {
+            @Override
+            public Enumeration<URL> getResources(String name) throws IOException {
+                throw new IOException("broken class path");
+            }
+        };
+
+        assertThat(ToIndex.load(cl).getToClassNames()).isEmpty();
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * This file is part of jTransfo, a library for converting to and from transfer objects.
+ * Copyright (c) PROGS bvba, Belgium
+ *
+ * The program is available in open source according to the Apache License, Version 2.0.
+ * For full licensing details, see LICENSE.txt in the project root.
+ */
+
+package org.jtransfo.object;
+
+import org.jtransfo.Creator;
+import org.jtransfo.DomainClass;
+
+/**
+ * Immutable address transfer object, created using a static factory method.
+ */
+@DomainClass(domainClass = AddressDomain.class)
+public final class ImmutableAddressTo {
+
+    private final Long id;
+    private final String address;
+
+    private ImmutableAddressTo(Long id, String address) {
+        this.id = id;
+        this.address = address;
+    }
+
+    @Creator({"id", "address"})
+    public static ImmutableAddressTo of(Long id, String address) {
+        return new ImmutableAddressTo(id, address);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getAddress() {
+        return address;
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * This file is part of jTransfo, a library for converting to and from transfer objects.
+ * Copyright (c) PROGS bvba, Belgium
+ *
+ * The program is available in open source according to the Apache License, Version 2.0.
+ * For full licensing details, see LICENSE.txt in the project root.
+ */
+
+package org.jtransfo.object;
+
+import org.jtransfo.Creator;
+import org.jtransfo.DomainClass;
+
+import java.util.Date;
+
+/**
+ * Immutable person transfer object, created using a constructor.
+ */
+@DomainClass(domainClass = PersonDomain.class)
+public class ImmutablePersonTo {
+
+    private final String name;
+    private final ImmutableAddressTo address;
+    private Date lastChanged;
+
+    @Creator({"address", "name"})
+    public ImmutablePersonTo(ImmutableAddressTo address, String name) {
+        this.name = name;
+        this.address = address;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public ImmutableAddressTo getAddress() {
+        return address;
+    }
+
+    public Date getLastChanged() {
+        return lastChanged;
+    }
+
+    public void setLastChanged(Date lastChanged) {
+        this.lastChanged = lastChanged;
+    }
+}
@@ -35,4 +35,15 @@ public class HibernateObjectReplacer implements ObjectReplacer {
         return object;
     }
 
+    /**
+     * Only Hibernate proxies are replaced.
+     *
+     * @param type runtime class of the object
+     * @return true when the class is a Hibernate proxy
+     */
+    @Override
+    public boolean canReplace(Class<?> type) {
+        return HibernateProxy.class.isAssignableFrom(type);
+    }
+
 }
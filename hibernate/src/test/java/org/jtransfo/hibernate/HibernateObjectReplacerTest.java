@@ -8,6 +8,7 @@
 
 package org.jtransfo.hibernate;
 
+import org.hibernate.proxy.HibernateProxy;
 import org.junit.Test;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -25,6 +26,12 @@ public class HibernateObjectReplacerTest {
         assertThat(determinator.replaceObject(object)).isEqualTo(object);
     }
 
+    @Test
+    public void testCanReplace() throws Exception {
+        assertThat(determinator.canReplace(Object.class)).isFalse();
+        assertThat(determinator.canReplace(HibernateProxy.class)).isTrue();
+    }
+
     // @todo should also test with a real Hibernate proxy, but don't know how
 
 }
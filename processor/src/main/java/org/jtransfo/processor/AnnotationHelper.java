@@ -0,0 +1,98 @@
+/*
+ * This file is part of jTransfo, a library for converting to and from transfer objects.
+ * Copyright (c) PROGS bvba, Belgium
+ *
+ * The program is available in open source according to the Apache License, Version 2.0.
+ * For full licensing details, see LICENSE.txt in the project root.
+ */
+
+package org.jtransfo.processor;
+
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.Elements;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Helper for reading annotations on elements at compile time, including meta-annotations.
+ */
+public class AnnotationHelper {
+
+    private final Elements elements;
+
+    /**
+     * Constructor.
+     *
+     * @param elements element utilities of the processing environment
+     */
+    public AnnotationHelper(Elements elements) {
+        this.elements = elements;
+    }
+
+    /**
+     * Get the annotations of a type which are declared on the element, either directly or as meta-annotation.
+     * This matches the annotation lookup which is done by jTransfo at runtime.
+     *
+     * @param element element to get annotations from
+     * @param annotation annotation type to search
+     * @return list of annotations of the requested type
+     */
+    public List<AnnotationMirror> getAnnotationWithMeta(Element element, Class<?> annotation) {
+        String name = annotation.getCanonicalName();
+        List<AnnotationMirror> result = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            addWithMeta(result, seen, mirror, name);
+        }
+        return result;
+    }
+
+    /**
+     * Is an annotation of the type declared on the element, either directly or as meta-annotation?
+     *
+     * @param element element to check
+     * @param annotation annotation type to search
+     * @return true when annotated
+     */
+    public boolean hasAnnotationWithMeta(Element element, Class<?> annotation) {
+        return !getAnnotationWithMeta(element, annotation).isEmpty();
+    }
+
+    /**
+     * Get the value of an annotation attribute, including default values.
+     *
+     * @param mirror annotation
+     * @param attribute attribute name
+     * @return attribute value, null when attribute does not exist
+     */
+    public Object getValue(AnnotationMirror mirror, String attribute) {
+        Map<? extends ExecutableElement, ? extends AnnotationValue> values =
+                elements.getElementValuesWithDefaults(mirror);
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : values.entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(attribute)) {
+                return entry.getValue().getValue();
+            }
+        }
+        return null;
+    }
+
+    private void addWithMeta(List<AnnotationMirror> result, Set<String> seen, AnnotationMirror mirror, String name) {
+        TypeElement type = (TypeElement) mirror.getAnnotationType().asElement();
+        String typeName = type.getQualifiedName().toString();
+        if (typeName.equals(name)) {
+            result.add(mirror);
+        }
+        if (seen.add(typeName)) { // set is needed or continues infinitely
+            for (AnnotationMirror meta : type.getAnnotationMirrors()) {
+                addWithMeta(result, seen, meta, name);
+            }
+        }
+    }
+}
@@ -0,0 +1,247 @@
+/*
+ * This file is part of jTransfo, a library for converting to and from transfer objects.
+ * Copyright (c) PROGS bvba, Belgium
+ *
+ * The program is available in open source according to the Apache License, Version 2.0.
+ * For full licensing details, see LICENSE.txt in the project root.
+ */
+
+package org.jtransfo.processor;
+
+import org.jtransfo.ToMapper;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Annotation processor which generates a {@link ToMapper} for each transfer object which can be mapped without
+ * reflection.
+ * <p>
+ * The generated mappers are registered in <code>META-INF/services/org.jtransfo.ToMapper</code>. Missing domain
+ * fields are reported as compile errors. All transfer objects are listed in <code>META-INF/jtransfo/index</code>,
+ * which allows jTransfo to find them without scanning the class path. For GraalVM native images, the classes which are
+ * inspected using reflection and the index are registered in <code>META-INF/native-image/&lt;dir&gt;/</code>.
+ * Supported options:
+ * </p>
+ * <ul>
+ *     <li><code>jtransfo.lenient</code>: report missing domain fields as warnings instead of errors.</li>
+ *     <li><code>jtransfo.verbose</code>: report why no mapper was generated for a transfer object.</li>
+ *     <li><code>jtransfo.nativeImageDir</code>: directory for the native image configuration, by convention
+ *     <code>&lt;groupId&gt;/&lt;artifactId&gt;</code>, so the configuration of several jars does not collide when
+ *     they are combined. Defaults to <code>jtransfo</code>.</li>
+ * </ul>
+ */
+@SupportedAnnotationTypes("*")
+@SupportedOptions({JTransfoProcessor.OPTION_LENIENT, JTransfoProcessor.OPTION_VERBOSE,
+        JTransfoProcessor.OPTION_NATIVE_IMAGE_DIR})
+public class JTransfoProcessor extends AbstractProcessor {
+
+    /**
+     * Option to report missing domain fields as warnings instead of errors.
+     */
+    public static final String OPTION_LENIENT = "jtransfo.lenient";
+
+    /**
+     * Option to report why no mapper was generated for a transfer object.
+     */
+    public static final String OPTION_VERBOSE = "jtransfo.verbose";
+
+    /**
+     * Option for the directory in <code>META-INF/native-image/</code> for the native image configuration, by
+     * convention <code>&lt;groupId&gt;/&lt;artifactId&gt;</code>.
+     */
+    public static final String OPTION_NATIVE_IMAGE_DIR = "jtransfo.nativeImageDir";
+
+    private static final String SERVICES = "META-INF/services/" + ToMapper.class.getName();
+    private static final String INDEX = "META-INF/jtransfo/index";
+    private static final String NATIVE_IMAGE = "META-INF/native-image/";
+    private static final String DEFAULT_NATIVE_IMAGE_DIR = "jtransfo";
+    private static final String REFLECT_ENTRY = "{\"name\":\"%s\",\"allDeclaredFields\":true," +
+            "\"allDeclaredMethods\":true,\"allPublicMethods\":true,\"allDeclaredConstructors\":true}";
+
+    private ToMapperAnalyzer analyzer;
+    private ToMapperWriter writer;
+    private final Set<String> mappers = new LinkedHashSet<>();
+    private final Map<String, String> index = new LinkedHashMap<>();
+    private final Set<String> reflectionClasses = new LinkedHashSet<>();
+    private String reflectConfig;
+    private String resourceConfig;
+
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        analyzer = new ToMapperAnalyzer(processingEnv, isOption(OPTION_LENIENT), isOption(OPTION_VERBOSE));
+        writer = new ToMapperWriter(processingEnv.getFiler());
+        String nativeImageDir = getNativeImageDir();
+        reflectConfig = NATIVE_IMAGE + nativeImageDir + "/reflect-config.json";
+        resourceConfig = NATIVE_IMAGE + nativeImageDir + "/resource-config.json";
+    }
+
+    private String getNativeImageDir() {
+        String dir = processingEnv.getOptions().get(OPTION_NATIVE_IMAGE_DIR);
+        if (null == dir) {
+            return DEFAULT_NATIVE_IMAGE_DIR;
+        }
+        dir = dir.trim().replace('\\', '/').replaceAll("^/+|/+$", "");
+        return dir.isEmpty() ? DEFAULT_NATIVE_IMAGE_DIR : dir;
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            writeServices();
+            writeIndex();
+            writeNativeImageConfig();
+        } else {
+            processTypes(ElementFilter.typesIn(roundEnv.getRootElements()));
+        }
+        return false; // other processors may be interested in the same annotations
+    }
+
+    private void processTypes(Collection<TypeElement> types) {
+        for (TypeElement type : types) {
+            String indexEntry = analyzer.getIndexEntry(type);
+            if (null != indexEntry) {
+                index.put(processingEnv.getElementUtils().getBinaryName(type).toString(), indexEntry);
+            }
+            reflectionClasses.addAll(analyzer.getReflectionClasses(type));
+            if (analyzer.isTo(type)) {
+                ToMapperModel model = analyzer.analyze(type);
+                if (null != model) {
+                    write(model, type);
+                }
+            }
+            processTypes(ElementFilter.typesIn(type.getEnclosedElements()));
+        }
+    }
+
+    private void write(ToMapperModel model, Element type) {
+        try {
+            writer.write(model, type);
+            mappers.add(model.getQualifiedMapperName());
+        } catch (IOException ioe) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Cannot write jTransfo mapper " + model.getQualifiedMapperName() + ": " + ioe.getMessage(), type);
+        }
+    }
+
+    private void writeServices() {
+        if (mappers.isEmpty()) {
+            return;
+        }
+        Set<String> all = new LinkedHashSet<>(readResource(SERVICES));
+        all.addAll(mappers);
+        writeResource(SERVICES, all);
+    }
+
+    private void writeIndex() {
+        if (index.isEmpty()) {
+            return;
+        }
+        Map<String, String> all = new LinkedHashMap<>();
+        for (String line : readResource(INDEX)) {
+            all.put(line.split("\\s+")[0], line);
+        }
+        all.putAll(index);
+        writeResource(INDEX, all.values());
+    }
+
+    /**
+     * Write the native image configuration. Each class is written on a separate line, so the entries of a previous
+     * (incremental) compilation can be read back as lines. The index is only registered as resource when it was
+     * written.
+     */
+    private void writeNativeImageConfig() {
+        if (reflectionClasses.isEmpty()) {
+            return;
+        }
+        Set<String> entries = new LinkedHashSet<>();
+        for (String line : readResource(reflectConfig)) {
+            if (line.startsWith("{")) {
+                entries.add(line.endsWith(",") ? line.substring(0, line.length() - 1) : line);
+            }
+        }
+        reflectionClasses.forEach(name -> entries.add(String.format(REFLECT_ENTRY, name)));
+        writeResource(reflectConfig, asJsonArray(entries));
+        if (!index.isEmpty()) {
+            writeResource(resourceConfig, Arrays.asList("{\"resources\":{\"includes\":[",
+                    "{\"pattern\":\"\\\\Q" + INDEX + "\\\\E\"}", "]}}"));
+        }
+    }
+
+    private List<String> asJsonArray(Collection<String> entries) {
+        List<String> lines = new ArrayList<>();
+        lines.add("[");
+        Iterator<String> it = entries.iterator();
+        while (it.hasNext()) {
+            String entry = it.next();
+            lines.add(it.hasNext() ? entry + "," : entry);
+        }
+        lines.add("]");
+        return lines;
+    }
+
+    private void writeResource(String name, Collection<String> lines) {
+        try {
+            FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", name);
+            try (Writer out = file.openWriter(); PrintWriter print = new PrintWriter(out)) {
+                lines.forEach(print::println);
+            }
+        } catch (IOException ioe) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Cannot write " + name + ": " + ioe.getMessage());
+        }
+    }
+
+    /**
+     * Read the lines which were written by a previous (incremental) compilation.
+     *
+     * @param name resource name
+     * @return lines, empty when none
+     */
+    private Set<String> readResource(String name) {
+        Set<String> result = new LinkedHashSet<>();
+        try {
+            FileObject file = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", name);
+            try (Reader reader = file.openReader(true); BufferedReader in = new BufferedReader(reader)) {
+                in.lines().map(String::trim).filter(line -> !line.isEmpty()).forEach(result::add);
+            }
+        } catch (IOException | IllegalArgumentException ex) {
+            // nothing written before
+        }
+        return result;
+    }
+
+    private boolean isOption(String option) {
+        return Boolean.parseBoolean(processingEnv.getOptions().get(option));
+    }
+}
@@ -0,0 +1,565 @@
+/*
+ * This file is part of jTransfo, a library for converting to and from transfer objects.
+ * Copyright (c) PROGS bvba, Belgium
+ *
+ * The program is available in open source according to the Apache License, Version 2.0.
+ * For full licensing details, see LICENSE.txt in the project root.
+ */
+
+package org.jtransfo.processor;
+
+import org.jtransfo.Creator;
+import org.jtransfo.DomainClass;
+import org.jtransfo.DomainClassDelegate;
+import org.jtransfo.MapOnlies;
+import org.jtransfo.MapOnly;
+import org.jtransfo.MappedBy;
+import org.jtransfo.NotMapped;
+import org.jtransfo.PostConvert;
+import org.jtransfo.PreConvert;
+
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Determine how a transfer object can be mapped without reflection.
+ * <p>
+ * A mapper is only built when all fields can be copied as is, using accessible fields or accessors. Type conversion,
+ * transitive paths, {@link MapOnly}, {@link PreConvert}, {@link PostConvert} and {@link Creator} are handled by the
+ * reflective conversion at runtime. Fields for which the domain field cannot be found are reported as compile error.
+ * </p>
+ */
+public class ToMapperAnalyzer {
+
+    /**
+     * Suffix which is appended to the transfer object class name to get the mapper name.
+     */
+    public static final String MAPPER_SUFFIX = "_JTransfoMapper";
+
+    private final Elements elements;
+    private final Types types;
+    private final Messager messager;
+    private final AnnotationHelper annotationHelper;
+    private final boolean lenient;
+    private final boolean verbose;
+
+    /**
+     * Constructor.
+     *
+     * @param processingEnv processing environment
+     * @param lenient report missing domain fields as warning instead of error
+     * @param verbose report why no mapper is generated for a transfer object
+     */
+    public ToMapperAnalyzer(ProcessingEnvironment processingEnv, boolean lenient, boolean verbose) {
+        this.elements = processingEnv.getElementUtils();
+        this.types = processingEnv.getTypeUtils();
+        this.messager = processingEnv.getMessager();
+        this.annotationHelper = new AnnotationHelper(elements);
+        this.lenient = lenient;
+        this.verbose = verbose;
+    }
+
+    /**
+     * Is the type a transfer object (annotated with {@link DomainClass})?
+     *
+     * @param type type to check
+     * @return true when the type is a transfer object
+     */
+    public boolean isTo(TypeElement type) {
+        return ElementKind.CLASS == type.getKind() && annotationHelper.hasAnnotationWithMeta(type, DomainClass.class);
+    }
+
+    /**
+     * Get the line for the transfer object in the index which is used by jTransfo at runtime. This contains the binary
+     * names of the transfer object, the domain class and the delegates.
+     *
+     * @param type type to index
+     * @return index line, null when the type is not a transfer object or the domain class cannot be determined
+     */
+    public String getIndexEntry(TypeElement type) {
+        if (!isTo(type) && !"RECORD".equals(type.getKind().name())) {
+            return null;
+        }
+        List<AnnotationMirror> domainClasses = annotationHelper.getAnnotationWithMeta(type, DomainClass.class);
+        if (1 != domainClasses.size()) {
+            return null;
+        }
+        StringBuilder entry = new StringBuilder(elements.getBinaryName(type));
+        Object domain = annotationHelper.getValue(domainClasses.get(0), "domainClass");
+        if (domain instanceof DeclaredType && !isClass(domain, DomainClass.DefaultClass.class)) {
+            entry.append(' ').append(elements.getBinaryName((TypeElement) ((DeclaredType) domain).asElement()));
+        } else {
+            Object name = annotationHelper.getValue(domainClasses.get(0), "value");
+            if (DomainClass.DEFAULT_NAME.equals(name)) {
+                return null;
+            }
+            entry.append(' ').append(name);
+        }
+        for (AnnotationMirror mirror : type.getAnnotationMirrors()) {
+            if (isClass(mirror.getAnnotationType(), DomainClassDelegate.class)) {
+                for (Object delegate : (List<?>) annotationHelper.getValue(mirror, "delegates")) {
+                    Object delegateType = ((AnnotationValue) delegate).getValue();
+                    entry.append(' ').append(
+                            elements.getBinaryName((TypeElement) ((DeclaredType) delegateType).asElement()));
+                }
+            }
+        }
+        return entry.toString();
+    }
+
+    /**
+     * Get the classes which jTransfo inspects using reflection to convert the transfer object. This includes the
+     * transfer object, the domain class, the delegates, their superclasses, the intermediate classes of transitive
+     * paths and the type converters which are declared on the fields.
+     *
+     * @param type transfer object type
+     * @return binary names of the classes, empty when the type is not a transfer object
+     */
+    public Set<String> getReflectionClasses(TypeElement type) {
+        Set<String> result = new LinkedHashSet<>();
+        if (!isTo(type) && !("RECORD".equals(type.getKind().name()) &&
+                annotationHelper.hasAnnotationWithMeta(type, DomainClass.class))) {
+            return result;
+        }
+        addReflectionClass(result, type);
+        TypeElement domain = getDomainClass(type);
+        if (null == domain) {
+            return result;
+        }
+        addReflectionClass(result, domain);
+        for (AnnotationMirror mirror : type.getAnnotationMirrors()) {
+            if (isClass(mirror.getAnnotationType(), DomainClassDelegate.class)) {
+                for (Object delegate : (List<?>) annotationHelper.getValue(mirror, "delegates")) {
+                    Object delegateType = ((AnnotationValue) delegate).getValue();
+                    addReflectionClass(result, (TypeElement) ((DeclaredType) delegateType).asElement());
+                }
+            }
+        }
+        for (VariableElement field : getFields(type)) {
+            List<AnnotationMirror> mappings = new ArrayList<>();
+            mappings.addAll(annotationHelper.getAnnotationWithMeta(field, MappedBy.class));
+            mappings.addAll(annotationHelper.getAnnotationWithMeta(field, MapOnly.class));
+            for (AnnotationMirror mapOnlies : annotationHelper.getAnnotationWithMeta(field, MapOnlies.class)) {
+                for (Object mapOnly : (List<?>) annotationHelper.getValue(mapOnlies, "value")) {
+                    mappings.add((AnnotationMirror) ((AnnotationValue) mapOnly).getValue());
+                }
+            }
+            for (AnnotationMirror mapping : mappings) {
+                addReflectionClasses(result, domain, mapping);
+            }
+        }
+        return result;
+    }
+
+    private void addReflectionClasses(Set<String> result, TypeElement domain, AnnotationMirror mapping) {
+        Object typeConverterClass = annotationHelper.getValue(mapping, "typeConverterClass");
+        if (typeConverterClass instanceof DeclaredType &&
+                !isClass(typeConverterClass, MappedBy.DefaultTypeConverter.class)) {
+            addReflectionClass(result, (TypeElement) ((DeclaredType) typeConverterClass).asElement());
+        }
+        Object typeConverter = annotationHelper.getValue(mapping, "typeConverter");
+        if (typeConverter instanceof String && !MappedBy.DEFAULT_TYPE_CONVERTER.equals(typeConverter)) {
+            TypeElement typeConverterType = elements.getTypeElement((String) typeConverter);
+            if (null != typeConverterType) {
+                addReflectionClass(result, typeConverterType); // otherwise the type converter is referenced by name
+            }
+        }
+        Object path = annotationHelper.getValue(mapping, "path");
+        if (path instanceof String && !MappedBy.DEFAULT_PATH.equals(path)) {
+            TypeElement owner = domain;
+            for (String element : ((String) path).split("\\.")) {
+                VariableElement field = null != owner ? findField(owner, element) : null;
+                if (null == field || TypeKind.DECLARED != field.asType().getKind()) {
+                    return;
+                }
+                owner = (TypeElement) ((DeclaredType) field.asType()).asElement();
+                addReflectionClass(result, owner);
+            }
+        }
+    }
+
+    private void addReflectionClass(Set<String> result, TypeElement type) {
+        TypeElement search = type;
+        while (null != search && !elements.getPackageOf(search).getQualifiedName().toString().startsWith("java.")) {
+            result.add(elements.getBinaryName(search).toString());
+            search = getSuperclass(search);
+        }
+    }
+
+    /**
+     * Build the description of the mapper for a transfer object.
+     *
+     * @param to transfer object type
+     * @return mapper description, null when no mapper can be generated
+     */
+    public ToMapperModel analyze(TypeElement to) {
+        String pkg = elements.getPackageOf(to).getQualifiedName().toString();
+        if (to.getModifiers().contains(Modifier.ABSTRACT) || !isAccessibleType(to, pkg)) {
+            return skip(to, "class is abstract or not accessible");
+        }
+        TypeElement domain = getDomainClass(to);
+        if (null == domain || !isAccessibleType(domain, pkg)) {
+            return skip(to, "domain class cannot be determined or is not accessible");
+        }
+        if (annotationHelper.hasAnnotationWithMeta(to, PreConvert.class) ||
+                annotationHelper.hasAnnotationWithMeta(to, PreConvert.List.class) ||
+                annotationHelper.hasAnnotationWithMeta(to, PostConvert.class) ||
+                annotationHelper.hasAnnotationWithMeta(to, PostConvert.List.class)) {
+            return skip(to, "pre or post converters are used");
+        }
+        if ("RECORD".equals(to.getKind().name()) || hasCreator(to)) {
+            return skip(to, "transfer object is created using a creator");
+        }
+
+        ToMapperModel model = new ToMapperModel(pkg, getMapperName(to, pkg), to.getQualifiedName().toString(),
+                domain.getQualifiedName().toString());
+        boolean supported = true;
+        boolean valid = true;
+        for (VariableElement field : getFields(to)) {
+            FieldResult result = analyzeField(model, to, domain, field, pkg);
+            supported &= FieldResult.UNSUPPORTED != result;
+            valid &= FieldResult.ERROR != result;
+        }
+        if (!valid) {
+            return null;
+        }
+        if (!supported) {
+            return skip(to, "some fields cannot be copied as is");
+        }
+        return model;
+    }
+
+    private boolean hasCreator(TypeElement to) {
+        for (Element member : to.getEnclosedElements()) {
+            if (null != member.getAnnotation(Creator.class)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private FieldResult analyzeField(ToMapperModel model, TypeElement to, TypeElement domain, VariableElement field,
+            String pkg) {
+        Set<Modifier> modifiers = field.getModifiers();
+        if (modifiers.contains(Modifier.TRANSIENT) || annotationHelper.hasAnnotationWithMeta(field, NotMapped.class)) {
+            return FieldResult.OK;
+        }
+        List<AnnotationMirror> mappedBies = annotationHelper.getAnnotationWithMeta(field, MappedBy.class);
+        if (modifiers.contains(Modifier.STATIC)) {
+            return mappedBies.isEmpty() ? FieldResult.OK : FieldResult.UNSUPPORTED;
+        }
+        if (mappedBies.size() > 1 || modifiers.contains(Modifier.FINAL) ||
+                annotationHelper.hasAnnotationWithMeta(field, MapOnly.class) ||
+                annotationHelper.hasAnnotationWithMeta(field, MapOnlies.class)) {
+            return FieldResult.UNSUPPORTED;
+        }
+        String name = field.getSimpleName().toString();
+        String domainName = name;
+        boolean readOnly = false;
+        if (1 == mappedBies.size()) {
+            AnnotationMirror mappedBy = mappedBies.get(0);
+            if (!MappedBy.DEFAULT_PATH.equals(annotationHelper.getValue(mappedBy, "path")) ||
+                    !MappedBy.DEFAULT_TYPE_CONVERTER.equals(annotationHelper.getValue(mappedBy, "typeConverter")) ||
+                    !isClass(annotationHelper.getValue(mappedBy, "typeConverterClass"),
+                            MappedBy.DefaultTypeConverter.class)) {
+                return FieldResult.UNSUPPORTED;
+            }
+            Object fieldParam = annotationHelper.getValue(mappedBy, "field");
+            if (!MappedBy.DEFAULT_FIELD.equals(fieldParam)) {
+                domainName = (String) fieldParam;
+            }
+            readOnly = Boolean.TRUE.equals(annotationHelper.getValue(mappedBy, "readOnly"));
+        }
+
+        DeclaredType domainType = (DeclaredType) domain.asType();
+        VariableElement domainField = findField(domain, domainName);
+        ExecutableElement domainGetter = findGetter(domain, domainName);
+        if (null == domainGetter) {
+            return null == domainField ? missingField(to, domain, field, domainName) : FieldResult.UNSUPPORTED;
+        }
+        TypeMirror domainValueType = null != domainField ?
+                types.asMemberOf(domainType, domainField) : getReturnType(domainType, domainGetter);
+        ExecutableElement domainSetter = readOnly ? null : findSetter(domain, domainName, domainValueType);
+        if (!readOnly && null == domainSetter) {
+            return null == domainField ? missingField(to, domain, field, domainName) : FieldResult.UNSUPPORTED;
+        }
+
+        TypeMirror type = field.asType();
+        if (!isSimpleType(type) || !types.isSameType(type, getReturnType(domainType, domainGetter)) ||
+                !isUsable(domainGetter, pkg) || (null != domainSetter && (!isUsable(domainSetter, pkg) ||
+                !types.isSameType(type, getParameterType(domainType, domainSetter))))) {
+            return FieldResult.UNSUPPORTED;
+        }
+
+        String toRead;
+        String toWrite;
+        if (isAccessible(field, pkg)) {
+            toRead = name;
+            toWrite = name + " = %s";
+        } else {
+            DeclaredType toType = (DeclaredType) to.asType();
+            ExecutableElement toGetter = findGetter(to, name);
+            ExecutableElement toSetter = findSetter(to, name, type);
+            if (null == toGetter || null == toSetter || !isUsable(toGetter, pkg) || !isUsable(toSetter, pkg) ||
+                    !types.isSameType(type, getReturnType(toType, toGetter)) ||
+                    !types.isSameType(type, getParameterType(toType, toSetter))) {
+                return FieldResult.UNSUPPORTED;
+            }
+            toRead = toGetter.getSimpleName() + "()";
+            toWrite = toSetter.getSimpleName() + "(%s)";
+        }
+        model.getToTo().add(new ToMapperModel.FieldCopy(domainGetter.getSimpleName() + "()", toWrite));
+        if (!readOnly) {
+            model.getToDomain().add(new ToMapperModel.FieldCopy(toRead, domainSetter.getSimpleName() + "(%s)"));
+        }
+        model.getCopiedTypes().add(getClassLiteral(type));
+        return FieldResult.OK;
+    }
+
+    private FieldResult missingField(TypeElement to, TypeElement domain, VariableElement field, String domainName) {
+        messager.printMessage(lenient ? Diagnostic.Kind.WARNING : Diagnostic.Kind.ERROR,
+                String.format("Cannot determine mapping for field %s in class %s. The field %s in class %s " +
+                        "cannot be found.", field.getSimpleName(), to.getQualifiedName(), domainName,
+                        domain.getQualifiedName()), field);
+        return lenient ? FieldResult.UNSUPPORTED : FieldResult.ERROR;
+    }
+
+    private ToMapperModel skip(TypeElement to, String reason) {
+        if (verbose) {
+            messager.printMessage(Diagnostic.Kind.NOTE,
+                    "No jTransfo mapper generated for " + to.getQualifiedName() + ", " + reason + ".", to);
+        }
+        return null;
+    }
+
+    private TypeElement getDomainClass(TypeElement to) {
+        List<AnnotationMirror> domainClasses = annotationHelper.getAnnotationWithMeta(to, DomainClass.class);
+        if (1 != domainClasses.size()) {
+            return null;
+        }
+        AnnotationMirror domainClass = domainClasses.get(0);
+        Object type = annotationHelper.getValue(domainClass, "domainClass");
+        if (type instanceof DeclaredType && !isClass(type, DomainClass.DefaultClass.class)) {
+            return (TypeElement) ((DeclaredType) type).asElement();
+        }
+        Object name = annotationHelper.getValue(domainClass, "value");
+        if (DomainClass.DEFAULT_NAME.equals(name)) {
+            return null;
+        }
+        return elements.getTypeElement((String) name);
+    }
+
+    private String getMapperName(TypeElement to, String pkg) {
+        String binaryName = elements.getBinaryName(to).toString();
+        if (!pkg.isEmpty()) {
+            binaryName = binaryName.substring(pkg.length() + 1);
+        }
+        return binaryName.replace('$', '_') + MAPPER_SUFFIX;
+    }
+
+    /**
+     * Get the fields of the class and its superclasses, skipping fields which are hidden by a field with the same
+     * name in a subclass. This matches the order used by jTransfo at runtime.
+     *
+     * @param type class to get fields for
+     * @return fields
+     */
+    private List<VariableElement> getFields(TypeElement type) {
+        List<VariableElement> result = new ArrayList<>();
+        Set<String> names = new HashSet<>();
+        TypeElement search = type;
+        while (null != search && !search.getQualifiedName().contentEquals(Object.class.getName())) {
+            for (VariableElement field : ElementFilter.fieldsIn(search.getEnclosedElements())) {
+                if (names.add(field.getSimpleName().toString())) {
+                    result.add(field);
+                }
+            }
+            search = getSuperclass(search);
+        }
+        return result;
+    }
+
+    private VariableElement findField(TypeElement type, String name) {
+        for (VariableElement field : getFields(type)) {
+            if (field.getSimpleName().contentEquals(name)) {
+                return field;
+            }
+        }
+        return null;
+    }
+
+    private ExecutableElement findGetter(TypeElement type, String name) {
+        for (String tryName : getGetterNameAlternatives(name)) {
+            ExecutableElement method = findMethod(type, tryName, null);
+            if (null != method) {
+                return method;
+            }
+        }
+        return null;
+    }
+
+    private ExecutableElement findSetter(TypeElement type, String name, TypeMirror valueType) {
+        return findMethod(type, "set" + capitalize(name), types.erasure(valueType));
+    }
+
+    /**
+     * Find a method, public methods have precedence, like when searching at runtime.
+     *
+     * @param type type to search
+     * @param name method name
+     * @param parameter erasure of the single parameter, null for no parameters
+     * @return method or null when not found
+     */
+    private ExecutableElement findMethod(TypeElement type, String name, TypeMirror parameter) {
+        ExecutableElement found = null;
+        for (ExecutableElement method : ElementFilter.methodsIn(elements.getAllMembers(type))) {
+            if (method.getSimpleName().contentEquals(name) && hasParameter(method, parameter)) {
+                if (method.getModifiers().contains(Modifier.PUBLIC)) {
+                    return method;
+                }
+                if (null == found) {
+                    found = method;
+                }
+            }
+        }
+        return found;
+    }
+
+    private boolean hasParameter(ExecutableElement method, TypeMirror parameter) {
+        List<? extends VariableElement> parameters = method.getParameters();
+        if (null == parameter) {
+            return parameters.isEmpty();
+        }
+        return 1 == parameters.size() && types.isSameType(parameter, types.erasure(parameters.get(0).asType()));
+    }
+
+    private List<String> getGetterNameAlternatives(String fieldName) {
+        String base = capitalize(fieldName);
+        List<String> res = new ArrayList<>();
+        res.add("get" + base);
+        res.add(fieldName);
+        String alt = "is" + base;
+        if (alt.startsWith("isIs")) {
+            res.add("i" + alt.substring(3));
+        }
+        res.add(alt);
+        alt = "has" + base;
+        if (!alt.startsWith("hasIs")) {
+            if (alt.startsWith("hasHas")) {
+                res.add("h" + alt.substring(4));
+            } else {
+                res.add(alt);
+            }
+        }
+        return res;
+    }
+
+    private String capitalize(String name) {
+        return name.substring(0, 1).toUpperCase(Locale.ENGLISH) + name.substring(1);
+    }
+
+    private TypeMirror getReturnType(DeclaredType owner, ExecutableElement method) {
+        return ((ExecutableType) types.asMemberOf(owner, method)).getReturnType();
+    }
+
+    private TypeMirror getParameterType(DeclaredType owner, ExecutableElement method) {
+        return ((ExecutableType) types.asMemberOf(owner, method)).getParameterTypes().get(0);
+    }
+
+    private TypeElement getSuperclass(TypeElement type) {
+        TypeMirror superclass = type.getSuperclass();
+        if (TypeKind.DECLARED != superclass.getKind()) {
+            return null;
+        }
+        return (TypeElement) ((DeclaredType) superclass).asElement();
+    }
+
+    /**
+     * Can the value be copied as is? Only primitives and non-generic classes which are not transfer objects qualify.
+     *
+     * @param type type to check
+     * @return true when values of the type can be copied
+     */
+    private boolean isSimpleType(TypeMirror type) {
+        if (type.getKind().isPrimitive()) {
+            return true;
+        }
+        if (TypeKind.DECLARED != type.getKind()) {
+            return false;
+        }
+        TypeElement element = (TypeElement) ((DeclaredType) type).asElement();
+        return element.getTypeParameters().isEmpty() && !isTo(element);
+    }
+
+    private String getClassLiteral(TypeMirror type) {
+        if (type.getKind().isPrimitive()) {
+            return type.getKind().name().toLowerCase(Locale.ENGLISH) + ".class";
+        }
+        return ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName() + ".class";
+    }
+
+    private boolean isClass(Object value, Class<?> clazz) {
+        return value instanceof DeclaredType &&
+                ((TypeElement) ((DeclaredType) value).asElement()).getQualifiedName()
+                        .contentEquals(clazz.getCanonicalName());
+    }
+
+    private boolean isUsable(ExecutableElement method, String pkg) {
+        return isAccessible(method, pkg) && !method.getModifiers().contains(Modifier.STATIC) &&
+                method.getThrownTypes().isEmpty();
+    }
+
+    private boolean isAccessibleType(TypeElement type, String pkg) {
+        Element element = type;
+        while (element instanceof TypeElement) {
+            if (!isAccessible(element, pkg)) {
+                return false;
+            }
+            element = element.getEnclosingElement();
+        }
+        return true;
+    }
+
+    private boolean isAccessible(Element element, String pkg) {
+        Set<Modifier> modifiers = element.getModifiers();
+        if (modifiers.contains(Modifier.PRIVATE)) {
+            return false;
+        }
+        return modifiers.contains(Modifier.PUBLIC) ||
+                elements.getPackageOf(element).getQualifiedName().contentEquals(pkg);
+    }
+
+    /**
+     * Result of analyzing one field.
+     */
+    private enum FieldResult {
+        /** Field can be copied or does not need to be copied. */
+        OK,
+        /** Field needs reflective conversion. */
+        UNSUPPORTED,
+        /** Field mapping is invalid. */
+        ERROR
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * This file is part of jTransfo, a library for converting to and from transfer objects.
+ * Copyright (c) PROGS bvba, Belgium
+ *
+ * The program is available in open source according to the Apache License, Version 2.0.
+ * For full licensing details, see LICENSE.txt in the project root.
+ */
+
+package org.jtransfo.processor;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Description of the mapper which needs to be generated for a transfer object.
+ */
+public class ToMapperModel {
+
+    private final String packageName;
+    private final String mapperName;
+    private final String toType;
+    private final String domainType;
+    private final List<FieldCopy> toTo = new ArrayList<>();
+    private final List<FieldCopy> toDomain = new ArrayList<>();
+    private final Set<String> copiedTypes = new LinkedHashSet<>();
+
+    /**
+     * Constructor.
+     *
+     * @param packageName package for the mapper (same as transfer object)
+     * @param mapperName simple name of the mapper class
+     * @param toType canonical name of the transfer object class
+     * @param domainType canonical name of the domain class
+     */
+    public ToMapperModel(String packageName, String mapperName, String toType, String domainType) {
+        this.packageName = packageName;
+        this.mapperName = mapperName;
+        this.toType = toType;
+        this.domainType = domainType;
+    }
+
+    /**
+     * Get the package for the mapper.
+     *
+     * @return package name, empty for the default package
+     */
+    public String getPackageName() {
+        return packageName;
+    }
+
+    /**
+     * Get the simple name of the mapper class.
+     *
+     * @return mapper class name
+     */
+    public String getMapperName() {
+        return mapperName;
+    }
+
+    /**
+     * Get the fully qualified name of the mapper class.
+     *
+     * @return mapper class name including package
+     */
+    public String getQualifiedMapperName() {
+        return packageName.isEmpty() ? mapperName : packageName + "." + mapperName;
+    }
+
+    /**
+     * Get the transfer object class.
+     *
+     * @return canonical name of the transfer object class
+     */
+    public String getToType() {
+        return toType;
+    }
+
+    /**
+     * Get the domain class.
+     *
+     * @return canonical name of the domain class
+     */
+    public String getDomainType() {
+        return domainType;
+    }
+
+    /**
+     * Get the copies to do when converting domain to transfer object.
+     *
+     * @return field copies
+     */
+    public List<FieldCopy> getToTo() {
+        return toTo;
+    }
+
+    /**
+     * Get the copies to do when converting transfer to domain object.
+     *
+     * @return field copies
+     */
+    public List<FieldCopy> getToDomain() {
+        return toDomain;
+    }
+
+    /**
+     * Get the class literals for the types of the copied fields.
+     *
+     * @return class literals like "int.class"
+     */
+    public Set<String> getCopiedTypes() {
+        return copiedTypes;
+    }
+
+    /**
+     * Copy of one value.
+     */
+    public static class FieldCopy {
+
+        private final String read;
+        private final String write;
+
+        /**
+         * Constructor.
+         *
+         * @param read expression to read the value, relative to the source object
+         * @param write format to write the value (relative to the target object), "%s" is replaced by the value
+         */
+        public FieldCopy(String read, String write) {
+            this.read = read;
+            this.write = write;
+        }
+
+        /**
+         * Get the expression to read the value.
+         *
+         * @return read expression like "getName()"
+         */
+        public String getRead() {
+            return read;
+        }
+
+        /**
+         * Get the format to write the value.
+         *
+         * @return write format like "setName(%s)"
+         */
+        public String getWrite() {
+            return write;
+        }
+    }
+}
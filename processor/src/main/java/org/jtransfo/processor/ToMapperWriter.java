@@ -0,0 +1,100 @@
+/*
+ * This file is part of jTransfo, a library for converting to and from transfer objects.
+ * Copyright (c) PROGS bvba, Belgium
+ *
+ * The program is available in open source according to the Apache License, Version 2.0.
+ * For full licensing details, see LICENSE.txt in the project root.
+ */
+
+package org.jtransfo.processor;
+
+import javax.annotation.processing.Filer;
+import javax.lang.model.element.Element;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Write the source for a generated {@link org.jtransfo.ToMapper}.
+ */
+public class ToMapperWriter {
+
+    private static final String INDENT = "    ";
+
+    private final Filer filer;
+
+    /**
+     * Constructor.
+     *
+     * @param filer filer to create the source files
+     */
+    public ToMapperWriter(Filer filer) {
+        this.filer = filer;
+    }
+
+    /**
+     * Write the mapper source file.
+     *
+     * @param model description of the mapper
+     * @param originatingElement transfer object type for which the mapper is generated
+     * @throws IOException cannot write source
+     */
+    public void write(ToMapperModel model, Element originatingElement) throws IOException {
+        JavaFileObject file = filer.createSourceFile(model.getQualifiedMapperName(), originatingElement);
+        try (Writer writer = file.openWriter(); PrintWriter out = new PrintWriter(writer)) {
+            write(model, out);
+        }
+    }
+
+    /**
+     * Write the mapper source.
+     *
+     * @param model description of the mapper
+     * @param out writer for the source
+     */
+    void write(ToMapperModel model, PrintWriter out) {
+        if (!model.getPackageName().isEmpty()) {
+            out.println("package " + model.getPackageName() + ";");
+            out.println();
+        }
+        out.println("/**");
+        out.println(" * jTransfo mapper for {@link " + model.getToType() + "}.");
+        out.println(" * Generated by the jTransfo annotation processor, do not edit.");
+        out.println(" */");
+        out.println("public final class " + model.getMapperName() + " implements org.jtransfo.ToMapper {");
+        out.println();
+        writeGetter(out, "Class<?> getToClass", model.getToType() + ".class");
+        writeGetter(out, "Class<?> getDomainClass", model.getDomainType() + ".class");
+        writeGetter(out, "java.util.List<Class<?>> getCopiedTypes",
+                "java.util.Arrays.<Class<?>>asList(" + String.join(", ", model.getCopiedTypes()) + ")");
+        writeCopies(out, "toTo", model.getDomainType(), "domain", model.getToType(), "to", model.getToTo());
+        out.println();
+        writeCopies(out, "toDomain", model.getToType(), "to", model.getDomainType(), "domain", model.getToDomain());
+        out.println("}");
+    }
+
+    private void writeGetter(PrintWriter out, String signature, String value) {
+        out.println(INDENT + "@Override");
+        out.println(INDENT + "public " + signature + "() {");
+        out.println(INDENT + INDENT + "return " + value + ";");
+        out.println(INDENT + "}");
+        out.println();
+    }
+
+    private void writeCopies(PrintWriter out, String method, String sourceType, String sourceName, String targetType,
+            String targetName, List<ToMapperModel.FieldCopy> copies) {
+        out.println(INDENT + "@Override");
+        out.println(INDENT + "public void " + method + "(Object source, Object target, String... tags) {");
+        if (!copies.isEmpty()) {
+            out.println(INDENT + INDENT + sourceType + " " + sourceName + " = (" + sourceType + ") source;");
+            out.println(INDENT + INDENT + targetType + " " + targetName + " = (" + targetType + ") target;");
+        }
+        for (ToMapperModel.FieldCopy copy : copies) {
+            String value = sourceName + "." + copy.getRead();
+            out.println(INDENT + INDENT + targetName + "." + String.format(copy.getWrite(), value) + ";");
+        }
+        out.println(INDENT + "}");
+    }
+}
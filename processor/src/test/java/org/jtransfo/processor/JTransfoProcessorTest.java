@@ -0,0 +1,377 @@
+/*
+ * This file is part of jTransfo, a library for converting to and from transfer objects.
+ * Copyright (c) PROGS bvba, Belgium
+ *
+ * The program is available in open source according to the Apache License, Version 2.0.
+ * For full licensing details, see LICENSE.txt in the project root.
+ */
+
+package org.jtransfo.processor;
+
+import org.jtransfo.DomainClass;
+import org.jtransfo.JTransfo;
+import org.jtransfo.PrewarmReport;
+import org.jtransfo.ToMapper;
+import org.jtransfo.internal.JTransfoImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.lang.model.SourceVersion;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test for {@link JTransfoProcessor}.
+ */
+public class JTransfoProcessorTest {
+
+    private static final String DOMAIN = "package sample;\n" +
+            "public class PersonDomain {\n" +
+            "    private String name;\n" +
+            "    private int age;\n" +
+            "    private boolean active;\n" +
+            "    private String nick;\n" +
+            "    private String secret;\n" +
+            "    public String getName() { return name; }\n" +
+            "    public void setName(String name) { this.name = name; }\n" +
+            "    public int getAge() { return age; }\n" +
+            "    public void setAge(int age) { this.age = age; }\n" +
+            "    public boolean isActive() { return active; }\n" +
+            "    public void setActive(boolean active) { this.active = active; }\n" +
+            "    public String getNick() { return nick; }\n" +
+            "    public void setNick(String nick) { this.nick = nick; }\n" +
+            "    public String getSecret() { return secret; }\n" +
+            "    public void setSecret(String secret) { this.secret = secret; }\n" +
+            "}\n";
+
+    private Path tempDir;
+    private Path sourceDir;
+    private Path classDir;
+    private DiagnosticCollector<JavaFileObject> diagnostics;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        tempDir = Files.createTempDirectory("jtransfo-processor");
+        sourceDir = Files.createDirectories(tempDir.resolve("src"));
+        classDir = Files.createDirectories(tempDir.resolve("classes"));
+        diagnostics = new DiagnosticCollector<>();
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        try (Stream<Path> paths = Files.walk(tempDir)) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Test
+    public void testGenerateMapper() throws Exception {
+        source("PersonDomain", DOMAIN);
+        source("PersonTo", "package sample;\n" +
+                "@org.jtransfo.DomainClass(domainClass = PersonDomain.class)\n" +
+                "public class PersonTo {\n" +
+                "    private String name;\n" +
+                "    int age;\n" +
+                "    private boolean active;\n" +
+                "    @org.jtransfo.MappedBy(field = \"nick\")\n" +
+                "    private String nickName;\n" +
+                "    @org.jtransfo.MappedBy(readOnly = true)\n" +
+                "    private String secret;\n" +
+                "    @org.jtransfo.NotMapped\n" +
+                "    private String other;\n" +
+                "    private transient String temp;\n" +
+                "    public String getName() { return name; }\n" +
+                "    public void setName(String name) { this.name = name; }\n" +
+                "    public boolean isActive() { return active; }\n" +
+                "    public void setActive(boolean active) { this.active = active; }\n" +
+                "    public String getNickName() { return nickName; }\n" +
+                "    public void setNickName(String nickName) { this.nickName = nickName; }\n" +
+                "    public String getSecret() { return secret; }\n" +
+                "    public void setSecret(String secret) { this.secret = secret; }\n" +
+                "}\n");
+
+        assertThat(compile()).isTrue();
+
+        assertThat(classDir.resolve("sample/PersonTo_JTransfoMapper.class").toFile()).exists();
+        try (URLClassLoader cl = new URLClassLoader(new URL[] {classDir.toUri().toURL()}, getClass().getClassLoader())) {
+            List<ToMapper> mappers = new ArrayList<>();
+            ServiceLoader.load(ToMapper.class, cl).forEach(mappers::add);
+            assertThat(mappers).hasSize(1);
+            assertThat(mappers.get(0).getToClass().getName()).isEqualTo("sample.PersonTo");
+            assertThat(mappers.get(0).getDomainClass().getName()).isEqualTo("sample.PersonDomain");
+            assertThat(mappers.get(0).getCopiedTypes()).containsOnly(String.class, int.class, boolean.class);
+
+            Object domain = cl.loadClass("sample.PersonDomain").newInstance();
+            invoke(domain, "setName", String.class, "joske");
+            invoke(domain, "setAge", int.class, 42);
+            invoke(domain, "setActive", boolean.class, true);
+            invoke(domain, "setNick", String.class, "jos");
+            invoke(domain, "setSecret", String.class, "psst");
+
+            Thread thread = Thread.currentThread();
+            ClassLoader original = thread.getContextClassLoader();
+            thread.setContextClassLoader(cl);
+            try {
+                JTransfo jTransfo = new JTransfoImpl();
+                Object to = jTransfo.convertTo(domain, cl.loadClass("sample.PersonTo"));
+                invoke(to, "setSecret", String.class, "changed");
+                Object back = jTransfo.convert(to);
+
+                assertThat(invoke(to, "getName")).isEqualTo("joske");
+                assertThat(invoke(to, "getNickName")).isEqualTo("jos");
+                assertThat(invoke(back, "getName")).isEqualTo("joske");
+                assertThat(invoke(back, "getAge")).isEqualTo(42);
+                assertThat(invoke(back, "isActive")).isEqualTo(true);
+                assertThat(invoke(back, "getNick")).isEqualTo("jos");
+                assertThat(invoke(back, "getSecret")).isNull(); // read-only
+            } finally {
+                thread.setContextClassLoader(original);
+            }
+        }
+    }
+
+    @Test
+    public void testNoMapperForTypeConversion() throws Exception {
+        source("PersonDomain", DOMAIN);
+        source("PersonTo", "package sample;\n" +
+                "@org.jtransfo.DomainClass(\"sample.PersonDomain\")\n" +
+                "public class PersonTo {\n" +
+                "    public String name;\n" +
+                "    @org.jtransfo.MappedBy(typeConverter = \"bla\")\n" +
+                "    public String age;\n" +
+                "}\n");
+        source("PathTo", "package sample;\n" +
+                "@org.jtransfo.DomainClass(domainClass = PersonDomain.class)\n" +
+                "public class PathTo {\n" +
+                "    @org.jtransfo.MappedBy(field = \"size\", path = \"name\")\n" +
+                "    public int size;\n" +
+                "}\n");
+        source("PostTo", "package sample;\n" +
+                "@org.jtransfo.DomainClass(domainClass = PersonDomain.class)\n" +
+                "@org.jtransfo.PostConvert(\"post\")\n" +
+                "public class PostTo {\n" +
+                "    public String name;\n" +
+                "}\n");
+
+        assertThat(compile()).isTrue();
+
+        assertThat(classDir.resolve("sample/PersonTo_JTransfoMapper.class").toFile()).doesNotExist();
+        assertThat(classDir.resolve("sample/PathTo_JTransfoMapper.class").toFile()).doesNotExist();
+        assertThat(classDir.resolve("sample/PostTo_JTransfoMapper.class").toFile()).doesNotExist();
+        assertThat(classDir.resolve("META-INF/services/org.jtransfo.ToMapper").toFile()).doesNotExist();
+    }
+
+    @Test
+    public void testNestedTo() throws Exception {
+        source("PersonDomain", DOMAIN);
+        source("Outer", "package sample;\n" +
+                "public class Outer {\n" +
+                "    @org.jtransfo.DomainClass(domainClass = PersonDomain.class)\n" +
+                "    public static class NameTo {\n" +
+                "        public String name;\n" +
+                "    }\n" +
+                "}\n");
+
+        assertThat(compile()).isTrue();
+
+        assertThat(classDir.resolve("sample/Outer_NameTo_JTransfoMapper.class").toFile()).exists();
+        assertThat(new String(Files.readAllBytes(classDir.resolve("META-INF/services/org.jtransfo.ToMapper")),
+                StandardCharsets.UTF_8).trim()).isEqualTo("sample.Outer_NameTo_JTransfoMapper");
+    }
+
+    @Test
+    public void testIndex() throws Exception {
+        source("PersonDomain", DOMAIN);
+        source("PersonTo", "package sample;\n" +
+                "@org.jtransfo.DomainClass(\"sample.PersonDomain\")\n" +
+                "@org.jtransfo.DomainClassDelegate(delegates = {Outer.NameTo.class})\n" +
+                "public class PersonTo {\n" +
+                "    public String name;\n" +
+                "}\n");
+        source("Outer", "package sample;\n" +
+                "public class Outer {\n" +
+                "    @org.jtransfo.DomainClass(domainClass = PersonDomain.class)\n" +
+                "    public static class NameTo {\n" +
+                "        public String name;\n" +
+                "    }\n" +
+                "}\n");
+
+        assertThat(compile()).isTrue();
+
+        assertThat(Files.readAllLines(classDir.resolve("META-INF/jtransfo/index"), StandardCharsets.UTF_8))
+                .containsOnly("sample.PersonTo sample.PersonDomain sample.Outer$NameTo",
+                        "sample.Outer$NameTo sample.PersonDomain");
+        try (URLClassLoader cl = new URLClassLoader(new URL[] {classDir.toUri().toURL()}, getClass().getClassLoader())) {
+            Thread thread = Thread.currentThread();
+            ClassLoader original = thread.getContextClassLoader();
+            thread.setContextClassLoader(cl);
+            try {
+                PrewarmReport report = new JTransfoImpl().prewarm();
+
+                assertThat(report.getBuilt()).containsOnly(cl.loadClass("sample.PersonTo"),
+                        cl.loadClass("sample.Outer$NameTo"));
+                assertThat(report.getFailures()).isEmpty();
+            } finally {
+                thread.setContextClassLoader(original);
+            }
+        }
+    }
+
+    @Test
+    public void testNativeImageConfig() throws Exception {
+        source("PersonDomain", DOMAIN);
+        source("Base", "package sample;\n" +
+                "public class Base {\n" +
+                "    public PersonDomain partner;\n" +
+                "}\n");
+        source("HouseDomain", "package sample;\n" +
+                "public class HouseDomain extends Base {\n" +
+                "}\n");
+        source("HouseTo", "package sample;\n" +
+                "@org.jtransfo.DomainClass(domainClass = HouseDomain.class)\n" +
+                "public class HouseTo {\n" +
+                "    @org.jtransfo.MappedBy(field = \"name\", path = \"partner\",\n" +
+                "            typeConverterClass = org.jtransfo.NoConversionTypeConverter.class)\n" +
+                "    public String partnerName;\n" +
+                "}\n");
+
+        assertThat(compile()).isTrue();
+
+        String reflectConfig = new String(Files.readAllBytes(
+                classDir.resolve("META-INF/native-image/jtransfo/reflect-config.json")), StandardCharsets.UTF_8);
+        assertThat(reflectConfig).startsWith("[\n{\"name\":\"sample.HouseTo\",\"allDeclaredFields\":true,");
+        assertThat(reflectConfig).contains("\"name\":\"sample.HouseDomain\"", "\"name\":\"sample.Base\"",
+                "\"name\":\"sample.PersonDomain\"", "\"name\":\"org.jtransfo.NoConversionTypeConverter\"");
+        assertThat(reflectConfig).doesNotContain("java.lang.Object");
+        assertThat(Files.readAllLines(classDir.resolve("META-INF/native-image/jtransfo/resource-config.json"),
+                StandardCharsets.UTF_8)).contains("{\"pattern\":\"\\\\QMETA-INF/jtransfo/index\\\\E\"}");
+    }
+
+    @Test
+    public void testNativeImageConfigRecords() throws Exception {
+        Assumptions.assumeTrue(SourceVersion.latestSupported().ordinal() >= 16, "records need Java 16");
+        source("PersonDomain", DOMAIN);
+        source("PersonTo", "package sample;\n" +
+                "@org.jtransfo.DomainClass(domainClass = PersonDomain.class)\n" +
+                "public record PersonTo(String name) {\n" +
+                "}\n");
+        source("Point", "package sample;\n" +
+                "public record Point(int x, int y) {\n" +
+                "}\n");
+
+        assertThat(compile()).isTrue();
+
+        String reflectConfig = new String(Files.readAllBytes(
+                classDir.resolve("META-INF/native-image/jtransfo/reflect-config.json")), StandardCharsets.UTF_8);
+        assertThat(reflectConfig).contains("\"name\":\"sample.PersonTo\"", "\"name\":\"sample.PersonDomain\"");
+        assertThat(reflectConfig).doesNotContain("sample.Point");
+    }
+
+    @Test
+    public void testNativeImageConfigDir() throws Exception {
+        source("PersonDomain", DOMAIN);
+        source("PersonTo", "package sample;\n" +
+                "@org.jtransfo.DomainClass(domainClass = PersonDomain.class)\n" +
+                "public class PersonTo {\n" +
+                "    public String name;\n" +
+                "}\n");
+
+        assertThat(compile("-A" + JTransfoProcessor.OPTION_NATIVE_IMAGE_DIR + "=org.example/sample/")).isTrue();
+
+        assertThat(classDir.resolve("META-INF/native-image/org.example/sample/reflect-config.json").toFile())
+                .exists();
+        assertThat(classDir.resolve("META-INF/native-image/org.example/sample/resource-config.json").toFile())
+                .exists();
+        assertThat(classDir.resolve("META-INF/native-image/jtransfo").toFile()).doesNotExist();
+    }
+
+    @Test
+    public void testMissingDomainField() throws Exception {
+        source("PersonDomain", DOMAIN);
+        source("PersonTo", "package sample;\n" +
+                "@org.jtransfo.DomainClass(domainClass = PersonDomain.class)\n" +
+                "public class PersonTo {\n" +
+                "    public String name;\n" +
+                "    public String unknown;\n" +
+                "}\n");
+
+        assertThat(compile()).isFalse();
+
+        assertThat(messages(Diagnostic.Kind.ERROR)).containsExactly("Cannot determine mapping for field unknown in " +
+                "class sample.PersonTo. The field unknown in class sample.PersonDomain cannot be found.");
+    }
+
+    @Test
+    public void testMissingDomainFieldLenient() throws Exception {
+        source("PersonDomain", DOMAIN);
+        source("PersonTo", "package sample;\n" +
+                "@org.jtransfo.DomainClass(domainClass = PersonDomain.class)\n" +
+                "public class PersonTo {\n" +
+                "    public String unknown;\n" +
+                "}\n");
+
+        assertThat(compile("-A" + JTransfoProcessor.OPTION_LENIENT + "=true")).isTrue();
+
+        assertThat(messages(Diagnostic.Kind.WARNING)).hasSize(1);
+        assertThat(classDir.resolve("sample/PersonTo_JTransfoMapper.class").toFile()).doesNotExist();
+    }
+
+    private void source(String name, String content) throws Exception {
+        Path dir = Files.createDirectories(sourceDir.resolve("sample"));
+        Files.write(dir.resolve(name + ".java"), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private boolean compile(String... extraOptions) throws Exception {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, null)) {
+            List<File> files;
+            try (Stream<Path> paths = Files.walk(sourceDir)) {
+                files = paths.filter(Files::isRegularFile).map(Path::toFile).collect(Collectors.toList());
+            }
+            String coreClasses = new File(DomainClass.class.getProtectionDomain().getCodeSource().getLocation().toURI())
+                    .getPath();
+            List<String> options = new ArrayList<>(Arrays.asList("-d", classDir.toString(), "-classpath", coreClasses));
+            options.addAll(Arrays.asList(extraOptions));
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics, options, null,
+                    fileManager.getJavaFileObjectsFromFiles(files));
+            task.setProcessors(Arrays.asList(new JTransfoProcessor()));
+            return task.call();
+        }
+    }
+
+    private List<String> messages(Diagnostic.Kind kind) {
+        return diagnostics.getDiagnostics().stream()
+                .filter(diagnostic -> kind == diagnostic.getKind())
+                .map(diagnostic -> diagnostic.getMessage(null))
+                .collect(Collectors.toList());
+    }
+
+    private Object invoke(Object object, String method) throws Exception {
+        return object.getClass().getMethod(method).invoke(object);
+    }
+
+    private void invoke(Object object, String method, Class<?> type, Object value) throws Exception {
+        object.getClass().getMethod(method, type).invoke(object, value);
+    }
+}